@@ -11,27 +11,25 @@ public class TransactionalInvocationHandler
         implements AroundInterceptor, BeforeInterceptor, AfterInterceptor
 {
 
-    private static final Object GLOBAL_SYNCHRONIZATION_OBJECT = new Object();
-
-
     @Override
     public JexxaInvocationHandler newInstance() {
         return new TransactionalInvocationHandler();
     }
 
+    /**
+     * Runs the invocation within a transaction of the current thread. So, invocations from different threads
+     * run in parallel, each within its own transaction (see {@link TransactionManager}).
+     */
     @Override
     protected void invoke(InvocationContext invocationContext)  {
-        synchronized (GLOBAL_SYNCHRONIZATION_OBJECT)
-        {
-            try {
-                TransactionManager.initTransaction();
-                super.invoke(invocationContext);
-                TransactionManager.closeTransaction();
-            } catch (Exception e) {
-                TransactionManager.rollback();
-                TransactionManager.closeTransaction();
-                throw e;
-            }
+        try {
+            TransactionManager.initTransaction();
+            super.invoke(invocationContext);
+            TransactionManager.closeTransaction();
+        } catch (Exception e) {
+            TransactionManager.rollback();
+            TransactionManager.closeTransaction();
+            throw e;
         }
     }
 }
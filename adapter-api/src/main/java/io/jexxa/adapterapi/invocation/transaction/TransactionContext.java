@@ -0,0 +1,134 @@
+package io.jexxa.adapterapi.invocation.transaction;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Transaction that is bound to the thread which started it. A TransactionContext can be passed to another thread,
+ * such as a virtual thread, to continue the transaction there (see {@link TransactionManager#runInTransaction}).
+ * <p>
+ * {@link TransactionHandler}s enlist into the transaction on first use. Handlers that share the same transaction
+ * resource are initialized, committed and rolled back only once. Resources are committed in the order
+ * they were enlisted and rolled back in reverse order.
+ * <p>
+ * Each resource is closed, even if closing another resource fails. If a resource cannot be committed, all
+ * following resources are rolled back before they are closed, and the first failure is thrown with all further
+ * failures as suppressed exceptions.
+ */
+public final class TransactionContext
+{
+    private final Thread ownerThread;
+    private final List<TransactionHandler> enlistedHandlers = new ArrayList<>();
+    private final Set<Object> enlistedResources = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Handlers that initialized a resource and are responsible to commit or roll back this resource
+    private final List<TransactionHandler> resourceOwners = new ArrayList<>();
+    private int depth = 0;
+    private boolean closed = false;
+
+    TransactionContext(Thread ownerThread)
+    {
+        this.ownerThread = ownerThread;
+    }
+
+    /**
+     * @return the thread that started this transaction. Resources that are bound to a thread, such as JDBC
+     * connections, should be bound to this thread, so that the transaction uses them independent of the executing thread.
+     */
+    public Thread ownerThread()
+    {
+        return ownerThread;
+    }
+
+    synchronized void join()
+    {
+        if (closed)
+        {
+            throw new IllegalStateException("Transaction is already closed");
+        }
+        ++depth;
+    }
+
+    /**
+     * @return true if the outermost transaction is left, so that the transaction must be closed
+     */
+    synchronized boolean leave()
+    {
+        return --depth == 0;
+    }
+
+    synchronized boolean enlist(TransactionHandler transactionHandler)
+    {
+        if (closed || enlistedHandlers.contains(transactionHandler))
+        {
+            return false;
+        }
+
+        // The handler is enlisted first, so that it can use its resources within initTransaction
+        enlistedHandlers.add(transactionHandler);
+        if (enlistedResources.add(transactionHandler.transactionResource()))
+        {
+            resourceOwners.add(transactionHandler);
+            transactionHandler.initTransaction();
+        }
+        return true;
+    }
+
+    synchronized boolean isEnlisted(TransactionHandler transactionHandler)
+    {
+        return enlistedHandlers.contains(transactionHandler);
+    }
+
+    synchronized void close()
+    {
+        closed = true;
+        RuntimeException failure = null;
+
+        for (var resourceOwner : resourceOwners)
+        {
+            if (failure != null)
+            {
+                failure = runAndCollect(resourceOwner::rollback, failure);
+            }
+            // The resource must be closed in any case, so that it is released
+            failure = runAndCollect(resourceOwner::closeTransaction, failure);
+        }
+
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    synchronized void rollback()
+    {
+        RuntimeException failure = null;
+
+        for (var resourceOwner : resourceOwners.reversed())
+        {
+            failure = runAndCollect(resourceOwner::rollback, failure);
+        }
+
+        if (failure != null)
+        {
+            throw failure;
+        }
+    }
+
+    private static RuntimeException runAndCollect(Runnable operation, RuntimeException previousFailure)
+    {
+        try {
+            operation.run();
+            return previousFailure;
+        } catch (RuntimeException e) {
+            if (previousFailure == null)
+            {
+                return e;
+            }
+            previousFailure.addSuppressed(e);
+            return previousFailure;
+        }
+    }
+}
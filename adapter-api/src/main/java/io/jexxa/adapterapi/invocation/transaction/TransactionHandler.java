@@ -5,4 +5,15 @@ public interface TransactionHandler {
     void closeTransaction();
 
     void rollback();
+
+    /**
+     * Returns the resource, such as a database connection, that is committed by this handler. Within a transaction,
+     * handlers sharing the same resource are initialized, committed and rolled back only once.
+     *
+     * @return resource of this handler. Default is the handler itself
+     */
+    default Object transactionResource()
+    {
+        return this;
+    }
 }
@@ -2,13 +2,29 @@ package io.jexxa.adapterapi.invocation.transaction;
 
 import io.jexxa.adapterapi.JexxaContext;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Manages transactions that are scoped to the invoking thread.
+ * <p>
+ * A registered {@link TransactionHandler} does not take part in all transactions. Instead, it enlists itself into
+ * the transaction of the current thread on first use by calling {@link #enlist(TransactionHandler)}. When the
+ * transaction is closed or rolled back, only the enlisted handlers are called. So, different threads can run
+ * transactions in parallel, as long as each TransactionHandler separates its resources per transaction
+ * (see {@link TransactionContext#ownerThread()}).
+ * <p>
+ * Nested transactions join the outer transaction, which is closed when the outermost transaction is closed.
+ * To continue a transaction in another thread, pass its {@link TransactionContext} to
+ * {@link #runInTransaction(TransactionContext, Runnable)}.
+ */
 public class TransactionManager {
     private static final TransactionManager INSTANCE = new TransactionManager();
 
-    private final List<TransactionHandler> transactionHandlerList = new ArrayList<>();
+    private final Set<TransactionHandler> transactionHandlerSet = ConcurrentHashMap.newKeySet();
+    private final ThreadLocal<TransactionContext> currentTransaction = new ThreadLocal<>();
+
     public static TransactionManager getInstance()
     {
         return INSTANCE;
@@ -16,27 +32,121 @@ public class TransactionManager {
 
     public static void registerTransactionHandler(TransactionHandler transactionHandler)
     {
-        INSTANCE.transactionHandlerList.add(transactionHandler);
+        INSTANCE.transactionHandlerSet.add(transactionHandler);
     }
 
     public static void initTransaction()
     {
-        INSTANCE.transactionHandlerList.forEach(TransactionHandler::initTransaction);
+        var transaction = INSTANCE.currentTransaction.get();
+        if (transaction == null)
+        {
+            transaction = new TransactionContext(Thread.currentThread());
+            INSTANCE.currentTransaction.set(transaction);
+        }
+        transaction.join();
     }
 
     public static void closeTransaction()
     {
-        INSTANCE.transactionHandlerList.forEach(TransactionHandler::closeTransaction);
+        var transaction = INSTANCE.currentTransaction.get();
+        if (transaction == null || !transaction.leave())
+        {
+            return;
+        }
+
+        // Handlers can still access the resources of the transaction while it is closed
+        try {
+            transaction.close();
+        } finally {
+            INSTANCE.currentTransaction.remove();
+        }
     }
 
     public static void rollback()
     {
-        INSTANCE.transactionHandlerList.forEach(TransactionHandler::rollback);
+        var transaction = INSTANCE.currentTransaction.get();
+        if (transaction != null)
+        {
+            transaction.rollback();
+        }
+    }
+
+    /**
+     * Enlists a registered TransactionHandler into the transaction of the current thread. If no other enlisted
+     * handler uses the same transaction resource, {@link TransactionHandler#initTransaction()} is called.
+     *
+     * @param transactionHandler that takes part in the current transaction
+     * @return true if the handler was enlisted by this call, false if no transaction is active, the handler is not
+     *          registered, or the handler is already enlisted
+     */
+    public static boolean enlist(TransactionHandler transactionHandler)
+    {
+        var transaction = INSTANCE.currentTransaction.get();
+        if (transaction == null || !INSTANCE.transactionHandlerSet.contains(transactionHandler))
+        {
+            return false;
+        }
+
+        return transaction.enlist(transactionHandler);
+    }
+
+    /**
+     * @param transactionHandler to check
+     * @return true if the given handler is enlisted into the transaction of the current thread. This remains true
+     *          while the transaction is closed or rolled back.
+     */
+    public static boolean isEnlisted(TransactionHandler transactionHandler)
+    {
+        var transaction = INSTANCE.currentTransaction.get();
+        return transaction != null && transaction.isEnlisted(transactionHandler);
+    }
+
+    /**
+     * @return true if a transaction is active in the current thread
+     */
+    public static boolean isTransactionActive()
+    {
+        return INSTANCE.currentTransaction.get() != null;
+    }
+
+    /**
+     * @return the transaction of the current thread, or an empty Optional if no transaction is active
+     */
+    public static Optional<TransactionContext> currentTransaction()
+    {
+        return Optional.ofNullable(INSTANCE.currentTransaction.get());
+    }
+
+    /**
+     * Runs the given operation within the given transaction, for example on a virtual thread that continues the work
+     * of the thread that started the transaction. The transaction is neither closed nor rolled back by this method.
+     * Since the resources of a transaction are not thread-safe, the operation must not run concurrently with
+     * other operations of the same transaction.
+     *
+     * @param transactionContext transaction obtained from {@link #currentTransaction()}
+     * @param operation that runs within the transaction
+     */
+    public static void runInTransaction(TransactionContext transactionContext, Runnable operation)
+    {
+        var previousTransaction = INSTANCE.currentTransaction.get();
+        INSTANCE.currentTransaction.set(transactionContext);
+        transactionContext.join();
+        try {
+            operation.run();
+        } finally {
+            transactionContext.leave();
+            if (previousTransaction == null)
+            {
+                INSTANCE.currentTransaction.remove();
+            } else {
+                INSTANCE.currentTransaction.set(previousTransaction);
+            }
+        }
     }
 
     public static void clear()
     {
-        getInstance().transactionHandlerList.clear();
+        getInstance().transactionHandlerSet.clear();
     }
 
     private TransactionManager()
@@ -44,5 +154,4 @@ public class TransactionManager {
         JexxaContext.registerInitHandler(TransactionManager::clear);
         JexxaContext.registerCleanupHandler(TransactionManager::clear);
     }
-
 }
@@ -0,0 +1,305 @@
+package io.jexxa.adapterapi.invocation.transaction;
+
+import io.jexxa.adapterapi.invocation.TransactionalInvocationHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionManagerTest {
+
+    @AfterEach
+    void afterEach()
+    {
+        TransactionManager.clear();
+    }
+
+    @Test
+    void onlyEnlistedHandlersAreCalled()
+    {
+        //Arrange
+        var usedHandler = new CountingTransactionHandler();
+        var unusedHandler = new CountingTransactionHandler();
+        TransactionManager.registerTransactionHandler(usedHandler);
+        TransactionManager.registerTransactionHandler(unusedHandler);
+
+        //Act
+        TransactionManager.initTransaction();
+        TransactionManager.enlist(usedHandler);
+        TransactionManager.closeTransaction();
+
+        //Assert
+        assertEquals(1, usedHandler.initCounter.get());
+        assertEquals(1, usedHandler.closeCounter.get());
+        assertEquals(0, unusedHandler.initCounter.get());
+        assertEquals(0, unusedHandler.closeCounter.get());
+    }
+
+    @Test
+    void enlistRequiresActiveTransaction()
+    {
+        //Arrange
+        var transactionHandler = new CountingTransactionHandler();
+        TransactionManager.registerTransactionHandler(transactionHandler);
+
+        //Act
+        var result = TransactionManager.enlist(transactionHandler);
+
+        //Assert
+        assertFalse(result);
+        assertFalse(TransactionManager.isTransactionActive());
+        assertEquals(0, transactionHandler.initCounter.get());
+    }
+
+    @Test
+    void nestedTransactionJoinsOuterTransaction()
+    {
+        //Arrange
+        var transactionHandler = new CountingTransactionHandler();
+        TransactionManager.registerTransactionHandler(transactionHandler);
+
+        //Act
+        TransactionManager.initTransaction();
+        TransactionManager.enlist(transactionHandler);
+
+        TransactionManager.initTransaction();
+        TransactionManager.enlist(transactionHandler);
+        TransactionManager.closeTransaction();
+
+        var closedByNestedTransaction = transactionHandler.closeCounter.get();
+        TransactionManager.closeTransaction();
+
+        //Assert
+        assertEquals(1, transactionHandler.initCounter.get());
+        assertEquals(0, closedByNestedTransaction);
+        assertEquals(1, transactionHandler.closeCounter.get());
+    }
+
+    @Test
+    void rollbackOnException()
+    {
+        //Arrange
+        var transactionHandler = new CountingTransactionHandler();
+        TransactionManager.registerTransactionHandler(transactionHandler);
+        var objectUnderTest = new TransactionalInvocationHandler();
+
+        //Act
+        assertThrows(IllegalStateException.class, () -> objectUnderTest.invoke(this, () -> {
+            TransactionManager.enlist(transactionHandler);
+            throw new IllegalStateException("Simulated error");
+        }));
+
+        //Assert
+        assertEquals(1, transactionHandler.rollbackCounter.get());
+        assertEquals(1, transactionHandler.closeCounter.get());
+        assertFalse(TransactionManager.isTransactionActive());
+    }
+
+    @Test
+    void sharedResourceIsCommittedOnce()
+    {
+        //Arrange
+        var sharedResource = new Object();
+        var firstHandler = new CountingTransactionHandler(sharedResource);
+        var secondHandler = new CountingTransactionHandler(sharedResource);
+        TransactionManager.registerTransactionHandler(firstHandler);
+        TransactionManager.registerTransactionHandler(secondHandler);
+
+        //Act
+        TransactionManager.initTransaction();
+        TransactionManager.enlist(firstHandler);
+        TransactionManager.enlist(secondHandler);
+        TransactionManager.closeTransaction();
+
+        //Assert
+        assertEquals(1, firstHandler.initCounter.get() + secondHandler.initCounter.get());
+        assertEquals(1, firstHandler.closeCounter.get() + secondHandler.closeCounter.get());
+    }
+
+    @Test
+    void commitInEnlistmentOrder()
+    {
+        //Arrange
+        var closeOrder = new CopyOnWriteArrayList<TransactionHandler>();
+        var firstHandler = new CountingTransactionHandler(closeOrder);
+        var secondHandler = new CountingTransactionHandler(closeOrder);
+        TransactionManager.registerTransactionHandler(firstHandler);
+        TransactionManager.registerTransactionHandler(secondHandler);
+
+        //Act
+        TransactionManager.initTransaction();
+        TransactionManager.enlist(secondHandler);
+        TransactionManager.enlist(firstHandler);
+        TransactionManager.closeTransaction();
+
+        //Assert
+        assertEquals(List.of(secondHandler, firstHandler), closeOrder);
+    }
+
+    @Test
+    void allResourcesAreClosedIfCommitFails()
+    {
+        //Arrange
+        var failingHandler = new CountingTransactionHandler(new IllegalStateException("Simulated commit error"));
+        var secondHandler = new CountingTransactionHandler();
+        var thirdHandler = new CountingTransactionHandler(new IllegalStateException("Simulated second commit error"));
+        TransactionManager.registerTransactionHandler(failingHandler);
+        TransactionManager.registerTransactionHandler(secondHandler);
+        TransactionManager.registerTransactionHandler(thirdHandler);
+
+        //Act
+        TransactionManager.initTransaction();
+        TransactionManager.enlist(failingHandler);
+        TransactionManager.enlist(secondHandler);
+        TransactionManager.enlist(thirdHandler);
+        var exception = assertThrows(IllegalStateException.class, TransactionManager::closeTransaction);
+
+        //Assert - Resources after the failed commit are rolled back and closed
+        assertEquals("Simulated commit error", exception.getMessage());
+        assertEquals(1, exception.getSuppressed().length);
+        assertEquals(0, failingHandler.rollbackCounter.get());
+        assertEquals(1, secondHandler.rollbackCounter.get());
+        assertEquals(1, thirdHandler.rollbackCounter.get());
+        assertEquals(1, failingHandler.closeCounter.get());
+        assertEquals(1, secondHandler.closeCounter.get());
+        assertEquals(1, thirdHandler.closeCounter.get());
+        assertFalse(TransactionManager.isTransactionActive());
+    }
+
+    @Test
+    void continueTransactionInVirtualThread() throws InterruptedException
+    {
+        //Arrange
+        var transactionHandler = new CountingTransactionHandler();
+        TransactionManager.registerTransactionHandler(transactionHandler);
+        TransactionManager.initTransaction();
+        var transactionContext = TransactionManager.currentTransaction().orElseThrow();
+
+        //Act
+        var virtualThread = Thread.ofVirtual().start(() ->
+                TransactionManager.runInTransaction(transactionContext, () -> TransactionManager.enlist(transactionHandler)));
+        virtualThread.join();
+        var closedBeforeOwnerCloses = transactionHandler.closeCounter.get();
+        TransactionManager.closeTransaction();
+
+        //Assert - The handler enlisted in the virtual thread is committed when the owning thread closes the transaction
+        assertEquals(0, closedBeforeOwnerCloses);
+        assertEquals(1, transactionHandler.closeCounter.get());
+        assertEquals(Thread.currentThread(), transactionContext.ownerThread());
+    }
+
+    @Test
+    void transactionsRunInParallel()
+    {
+        //Arrange
+        int threadCount = 8;
+        int invocationsPerThread = 10;
+        long invocationDuration = 20;
+        var transactionHandler = new CountingTransactionHandler();
+        TransactionManager.registerTransactionHandler(transactionHandler);
+        var objectUnderTest = new TransactionalInvocationHandler();
+
+        //Act
+        var startTime = System.nanoTime();
+        try (var executor = Executors.newFixedThreadPool(threadCount))
+        {
+            for (int i = 0; i < threadCount; ++i)
+            {
+                executor.submit(() -> {
+                    for (int j = 0; j < invocationsPerThread; ++j)
+                    {
+                        objectUnderTest.invoke(this, () -> {
+                            TransactionManager.enlist(transactionHandler);
+                            sleep(invocationDuration);
+                        });
+                    }
+                });
+            }
+        }
+        var durationInMillis = (System.nanoTime() - startTime) / 1_000_000;
+
+        //Assert - Serialized transactions would take threadCount * invocationsPerThread * invocationDuration
+        assertEquals(threadCount * invocationsPerThread, transactionHandler.closeCounter.get());
+        assertTrue(durationInMillis < threadCount * invocationsPerThread * invocationDuration / 2);
+    }
+
+    private static void sleep(long millis)
+    {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static class CountingTransactionHandler implements TransactionHandler
+    {
+        private final AtomicInteger initCounter = new AtomicInteger();
+        private final AtomicInteger closeCounter = new AtomicInteger();
+        private final AtomicInteger rollbackCounter = new AtomicInteger();
+        private final Object transactionResource;
+        private final List<TransactionHandler> closeOrder;
+        private RuntimeException closeException;
+
+        CountingTransactionHandler()
+        {
+            this.transactionResource = this;
+            this.closeOrder = new CopyOnWriteArrayList<>();
+        }
+
+        CountingTransactionHandler(RuntimeException closeException)
+        {
+            this();
+            this.closeException = closeException;
+        }
+
+        CountingTransactionHandler(Object transactionResource)
+        {
+            this.transactionResource = transactionResource;
+            this.closeOrder = new CopyOnWriteArrayList<>();
+        }
+
+        CountingTransactionHandler(List<TransactionHandler> closeOrder)
+        {
+            this.transactionResource = this;
+            this.closeOrder = closeOrder;
+        }
+
+        @Override
+        public void initTransaction()
+        {
+            initCounter.incrementAndGet();
+        }
+
+        @Override
+        public void closeTransaction()
+        {
+            closeCounter.incrementAndGet();
+            closeOrder.add(this);
+            if (closeException != null)
+            {
+                throw closeException;
+            }
+        }
+
+        @Override
+        public void rollback()
+        {
+            rollbackCounter.incrementAndGet();
+        }
+
+        @Override
+        public Object transactionResource()
+        {
+            return transactionResource;
+        }
+    }
+}
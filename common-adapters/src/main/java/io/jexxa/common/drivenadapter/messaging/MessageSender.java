@@ -5,6 +5,7 @@ package io.jexxa.common.drivenadapter.messaging;
 import io.jexxa.common.facade.utils.annotation.CheckReturnValue;
 
 import java.util.Properties;
+import java.util.function.Consumer;
 
 public abstract class MessageSender
 {
@@ -22,6 +23,23 @@ public abstract class MessageSender
         return new MessageBuilder(message, this, MessageType.BYTE_MESSAGE);
     }
 
+    /**
+     * Sends all messages that are sent via the given MessageSender within batchOperation as a single batch.
+     * Implementations that support transactions send the entire batch within a single transaction, so that
+     * either all or none of the messages are sent. By default, each message is sent individually.
+     * <br>
+     * Example:
+     * <pre>
+     * messageSender.sendBatch( sender -&gt; events.forEach( event -&gt; sender.send(event).toTopic("Events").asJson() ));
+     * </pre>
+     *
+     * @param batchOperation sends the messages of the batch
+     */
+    public void sendBatch(Consumer<MessageSender> batchOperation)
+    {
+        batchOperation.accept(this);
+    }
+
     /**
      * Sends an asynchronous text message to a queue
      *
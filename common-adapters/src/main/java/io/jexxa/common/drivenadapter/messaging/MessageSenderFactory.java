@@ -31,6 +31,11 @@ public final class MessageSenderFactory
         return createMessageSender(null, properties).getClass();
     }
 
+    public static <T> Class<? extends MessageSender> getMessageSender(Class<T> sendingClass, Properties properties)
+    {
+        return MESSAGE_SENDER_FACTORY.messageSenderType(sendingClass, properties);
+    }
+
     @SuppressWarnings("unused")
     public static <U extends MessageSender, T > void setMessageSender(Class<U> messageSender, Class<T> aggregateType)
     {
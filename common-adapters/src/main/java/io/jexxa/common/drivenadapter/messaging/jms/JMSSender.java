@@ -1,9 +1,11 @@
 package io.jexxa.common.drivenadapter.messaging.jms;
 
 
+import io.jexxa.common.drivenadapter.messaging.DestinationType;
 import io.jexxa.common.drivenadapter.messaging.MessageSender;
 import io.jexxa.common.facade.utils.function.ThrowingConsumer;
 
+import javax.jms.CompletionListener;
 import javax.jms.Connection;
 import javax.jms.DeliveryMode;
 import javax.jms.JMSException;
@@ -14,21 +16,67 @@ import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
 
 import static io.jexxa.common.facade.jms.JMSConnection.createConnection;
+import static io.jexxa.common.facade.jms.JMSProperties.jmsAsyncSend;
+import static io.jexxa.common.facade.jms.JMSProperties.jmsDeliveryMode;
+import static io.jexxa.common.facade.jms.JMSProperties.jmsFlushTimeout;
+import static io.jexxa.common.facade.jms.JMSProperties.jmsMaxInFlight;
+import static io.jexxa.common.facade.jms.JMSProperties.jmsSessionPoolSize;
 import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
 
+/**
+ * MessageSender that sends messages via JMS.
+ * <br>
+ * Since JMS sessions are not thread-safe, JMSSender uses a bounded pool of sessions (see
+ * {@link io.jexxa.common.facade.jms.JMSProperties#jmsSessionPoolSize()}). Each sending thread checks out a session
+ * for a single message, or for an entire batch, so that several threads can send messages concurrently. A
+ * MessageProducer is created once per session and destination and reused for all following messages.
+ * <br>
+ * If asynchronous sending is enabled (see {@link io.jexxa.common.facade.jms.JMSProperties#jmsAsyncSend()}), a
+ * message is sent without waiting for the acknowledgement of the broker. The number of unacknowledged messages is
+ * limited by {@link io.jexxa.common.facade.jms.JMSProperties#jmsMaxInFlight()}. A failed asynchronous send is
+ * reported by the next send or by {@link #flush()}. If the connection is closed while messages are not yet
+ * acknowledged, they are reported as failed as well, because the broker may never acknowledge them.
+ * <br>
+ * Messages sent within {@link #sendBatch(Consumer)} are sent via a transacted session that is committed once
+ * for the entire batch.
+ */
 @SuppressWarnings({"unused", "java:S1133"})
 public class JMSSender extends MessageSender implements AutoCloseable
 {
+    private static final int DEFAULT_MAX_IN_FLIGHT = 1000;
+    private static final int DEFAULT_FLUSH_TIMEOUT = 30_000;
+
     private final Properties properties;
+    private final boolean asyncSend;
+    private final int maxInFlight;
+    private final long flushTimeout;
+    private final AtomicReference<Exception> asyncSendError = new AtomicReference<>();
+    private final JMSSessionPool sessionPool;
+    private final JMSSessionPool transactedSessionPool;
+    private final ThreadLocal<JMSSessionPool.PooledSession> batchSession = new ThreadLocal<>();
 
     private Connection connection;
-    private Session session;
+    // Replaced when the connection is closed, so that completions of the closed connection cannot release new permits
+    private volatile Semaphore inFlightMessages;
 
     public JMSSender(Properties properties)
     {
         this.properties = properties;
+        this.asyncSend = Boolean.parseBoolean(properties.getProperty(jmsAsyncSend(), "false"));
+        this.maxInFlight = readPositiveNumber(properties, jmsMaxInFlight(), DEFAULT_MAX_IN_FLIGHT);
+        this.flushTimeout = readPositiveNumber(properties, jmsFlushTimeout(), DEFAULT_FLUSH_TIMEOUT);
+        this.inFlightMessages = new Semaphore(maxInFlight);
+
+        var deliveryMode = getDeliveryMode(properties);
+        var sessionPoolSize = readPositiveNumber(properties, jmsSessionPoolSize(), Runtime.getRuntime().availableProcessors());
+        this.sessionPool = new JMSSessionPool(sessionPoolSize, false, deliveryMode, this::getConnection);
+        this.transactedSessionPool = new JMSSessionPool(sessionPoolSize, true, deliveryMode, this::getConnection);
 
         Objects.requireNonNull(getConnection()); //Try to create a connection to ensure fail fast
     }
@@ -36,44 +84,144 @@ public class JMSSender extends MessageSender implements AutoCloseable
     @Override
     protected void sendToTopic(String message, String topicName, Properties messageProperties, MessageType messageType)
     {
+        send(message, DestinationType.TOPIC, topicName, messageProperties, messageType);
+    }
+
+    @Override
+    protected void sendToQueue(String message, String queueName, Properties messageProperties, MessageType messageType)
+    {
+        send(message, DestinationType.QUEUE, queueName, messageProperties, messageType);
+    }
+
+    /**
+     * Sends all messages of the batch within a single transacted session that is committed once.
+     * If batchOperation throws an exception, none of the messages of the batch is sent. A nested call joins
+     * the batch that is already active in the current thread.
+     *
+     * @param batchOperation sends the messages of the batch
+     */
+    @Override
+    public void sendBatch(Consumer<MessageSender> batchOperation)
+    {
+        if (batchSession.get() != null)
+        {
+            batchOperation.accept(this);
+            return;
+        }
+
         try
         {
-            var destination = getSession().createTopic(topicName);
-            try (var producer = getSession().createProducer(destination) )
+            var pooledSession = transactedSessionPool.acquire();
+            batchSession.set(pooledSession);
+            try
+            {
+                batchOperation.accept(this);
+                pooledSession.session().commit();
+            }
+            catch (RuntimeException e)
+            {
+                rollback(pooledSession);
+                throw e;
+            }
+            finally
             {
-                sendJMSMessage(message, producer, messageProperties, messageType);
+                batchSession.remove();
+                transactedSessionPool.release(pooledSession);
             }
         }
         catch (JMSException e)
         {
             close();
-            throw new IllegalStateException("Could not send message", e);
+            throw new IllegalStateException("Could not send batch", e);
         }
     }
 
-    @Override
-    protected void sendToQueue(String message, String queueName, Properties messageProperties, MessageType messageType)
+    /**
+     * Waits until all asynchronously sent messages are acknowledged by the broker. If asynchronous sending is
+     * disabled, this method returns immediately.
+     *
+     * @throws IllegalStateException if an asynchronously sent message could not be sent, or if not all messages are
+     * acknowledged within {@link io.jexxa.common.facade.jms.JMSProperties#jmsFlushTimeout()}
+     */
+    public void flush()
+    {
+        if (asyncSend)
+        {
+            var semaphore = inFlightMessages;
+            try {
+                if (!semaphore.tryAcquire(maxInFlight, flushTimeout, TimeUnit.MILLISECONDS))
+                {
+                    throw new IllegalStateException("Sent messages are not acknowledged within " + flushTimeout + " ms");
+                }
+                semaphore.release(maxInFlight);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for sent messages", e);
+            }
+        }
+
+        throwAsyncSendError();
+    }
+
+    /**
+     * Returns the statistics of the sessions used to send single messages.
+     *
+     * @return statistics of the session pool including the number of times a sending thread had to wait for a session
+     */
+    public SessionPoolStatistics getSessionPoolStatistics()
+    {
+        return sessionPool.getStatistics();
+    }
+
+    /**
+     * Returns the statistics of the transacted sessions used by {@link #sendBatch(Consumer)}.
+     *
+     * @return statistics of the session pool including the number of times a sending thread had to wait for a session
+     */
+    public SessionPoolStatistics getTransactedSessionPoolStatistics()
+    {
+        return transactedSessionPool.getStatistics();
+    }
+
+    private void send(String message, DestinationType destinationType, String destinationName, Properties messageProperties, MessageType messageType)
     {
         try
         {
-            var destination = getSession().createQueue(queueName);
-            try (var producer = getSession().createProducer(destination) )
+            var currentBatch = batchSession.get();
+            if (currentBatch != null)
+            {
+                sendJMSMessage(message, currentBatch, destinationType, destinationName, messageProperties, messageType);
+                return;
+            }
+
+            var pooledSession = sessionPool.acquire();
+            try
+            {
+                sendJMSMessage(message, pooledSession, destinationType, destinationName, messageProperties, messageType);
+            }
+            finally
             {
-                sendJMSMessage(message, producer, messageProperties, messageType);
+                sessionPool.release(pooledSession);
             }
         }
         catch (JMSException e)
         {
             close();
-            throw new IllegalStateException("Could not send message ", e);
+            throw new IllegalStateException("Could not send message", e);
         }
     }
 
-    private void sendJMSMessage(String message, MessageProducer messageProducer, Properties messageProperties, MessageType messageType) throws JMSException
+    private void sendJMSMessage(String message,
+                                JMSSessionPool.PooledSession pooledSession,
+                                DestinationType destinationType,
+                                String destinationName,
+                                Properties messageProperties,
+                                MessageType messageType) throws JMSException
     {
-        messageProducer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+        throwAsyncSendError();
 
-        var jmsMessage = createMessage(messageType, message);
+        var messageProducer = pooledSession.getProducer(destinationType, destinationName);
+        var jmsMessage = createMessage(pooledSession.session(), messageType, message);
 
         if (messageProperties != null)
         {
@@ -82,33 +230,64 @@ public class JMSSender extends MessageSender implements AutoCloseable
                 jmsMessage.setStringProperty(entry.getKey().toString(), entry.getValue().toString());
             }
         }
-        messageProducer.send(jmsMessage);
+
+        if (asyncSend)
+        {
+            sendAsync(messageProducer, jmsMessage);
+        } else {
+            messageProducer.send(jmsMessage);
+        }
     }
 
-    private Message createMessage(MessageType messageType, String message) throws JMSException
+    private void sendAsync(MessageProducer messageProducer, Message jmsMessage) throws JMSException
     {
-        if (messageType == MessageType.BYTE_MESSAGE)
+        var semaphore = inFlightMessages;
+        try {
+            semaphore.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for sent messages", e);
+        }
+
+        try {
+            messageProducer.send(jmsMessage, new AsyncSendListener(semaphore));
+        } catch (JMSException | RuntimeException e) {
+            semaphore.release();
+            throw e;
+        }
+    }
+
+    private void throwAsyncSendError()
+    {
+        var exception = asyncSendError.getAndSet(null);
+        if (exception != null)
         {
-            var bytesMessage = getSession().createBytesMessage();
-            bytesMessage.writeUTF(message);
-            return bytesMessage;
+            throw new IllegalStateException("Could not send message", exception);
         }
-        return getSession().createTextMessage(message);
     }
 
+    private static void rollback(JMSSessionPool.PooledSession pooledSession)
+    {
+        try {
+            pooledSession.session().rollback();
+        } catch (JMSException e) {
+            getLogger(JMSSender.class).warn("Could not rollback batch. Reason: {}", e.getMessage());
+        }
+    }
 
-    Session getSession() throws JMSException
+    private static Message createMessage(Session session, MessageType messageType, String message) throws JMSException
     {
-        if (this.session == null)
+        if (messageType == MessageType.BYTE_MESSAGE)
         {
-            this.session = getConnection().createSession(false, Session.AUTO_ACKNOWLEDGE);
+            var bytesMessage = session.createBytesMessage();
+            bytesMessage.writeUTF(message);
+            return bytesMessage;
         }
-
-        return this.session;
+        return session.createTextMessage(message);
     }
 
 
-    public final Connection getConnection()
+    public final synchronized Connection getConnection()
     {
         if (connection == null)
         {
@@ -130,15 +309,79 @@ public class JMSSender extends MessageSender implements AutoCloseable
     }
 
     @Override
-    public void close()
+    public synchronized void close()
     {
-        Optional.ofNullable(session)
-                .ifPresent(ThrowingConsumer.exceptionLogger(Session::close, getLogger(JMSSender.class)));
+        sessionPool.close();
+        transactedSessionPool.close();
 
         Optional.ofNullable(connection)
                 .ifPresent(ThrowingConsumer.exceptionLogger(Connection::close, getLogger(JMSSender.class)));
 
-        session = null;
         connection = null;
+        resetInFlightMessages();
+    }
+
+    private void resetInFlightMessages()
+    {
+        var semaphore = inFlightMessages;
+        var unacknowledged = maxInFlight - semaphore.availablePermits();
+        if (unacknowledged > 0)
+        {
+            asyncSendError.compareAndSet(null, new IllegalStateException("Connection closed before " + unacknowledged + " sent messages were acknowledged"));
+        }
+
+        inFlightMessages = new Semaphore(maxInFlight);
+        // Wake up all threads that wait for the closed connection. They get the error above.
+        semaphore.release(maxInFlight);
+    }
+
+    private static int getDeliveryMode(Properties properties)
+    {
+        var deliveryMode = properties.getProperty(jmsDeliveryMode(), "NON_PERSISTENT").trim();
+
+        return switch (deliveryMode)
+        {
+            case "PERSISTENT" -> DeliveryMode.PERSISTENT;
+            case "NON_PERSISTENT" -> DeliveryMode.NON_PERSISTENT;
+            default -> throw new IllegalArgumentException("Property " + jmsDeliveryMode() + " must be PERSISTENT or NON_PERSISTENT but is " + deliveryMode);
+        };
+    }
+
+    private static int readPositiveNumber(Properties properties, String key, int defaultValue)
+    {
+        try {
+            var value = Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+            if (value <= 0)
+            {
+                throw new IllegalArgumentException("Property " + key + " must be greater than 0");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + key + " must be a number but is " + properties.getProperty(key), e);
+        }
+    }
+
+    private class AsyncSendListener implements CompletionListener
+    {
+        private final Semaphore semaphore;
+
+        AsyncSendListener(Semaphore semaphore)
+        {
+            this.semaphore = semaphore;
+        }
+
+        @Override
+        public void onCompletion(Message message)
+        {
+            semaphore.release();
+        }
+
+        @Override
+        public void onException(Message message, Exception exception)
+        {
+            getLogger(JMSSender.class).error("Could not send message asynchronously. Reason: {}", exception.getMessage());
+            asyncSendError.compareAndSet(null, exception);
+            semaphore.release();
+        }
     }
 }
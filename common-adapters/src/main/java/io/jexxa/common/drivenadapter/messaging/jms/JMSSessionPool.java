@@ -0,0 +1,207 @@
+package io.jexxa.common.drivenadapter.messaging.jms;
+
+import io.jexxa.common.drivenadapter.messaging.DestinationType;
+
+import javax.jms.Connection;
+import javax.jms.JMSException;
+import javax.jms.MessageProducer;
+import javax.jms.Session;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
+
+/**
+ * Bounded pool of JMS sessions together with their message producers.
+ * <p>
+ * Since a JMS session must not be used by several threads at the same time, each sending thread checks out a
+ * session from this pool and returns it after sending. If all sessions are checked out, a thread waits until
+ * a session is returned. Sessions are created lazily, up to maxSize.
+ * <p>
+ * Calling {@link #close()} closes all idle sessions. Sessions that are checked out at this time are closed as soon
+ * as they are returned, so that a new session is created afterward.
+ */
+class JMSSessionPool
+{
+    private static final long RETRY_INTERVAL_MILLIS = 10;
+
+    private final int maxSize;
+    private final boolean transacted;
+    private final int deliveryMode;
+    private final Supplier<Connection> connectionSupplier;
+
+    private final BlockingQueue<PooledSession> idleSessions = new LinkedBlockingQueue<>();
+    private final AtomicInteger openSessions = new AtomicInteger();
+    private final AtomicInteger generation = new AtomicInteger();
+    private final LongAdder poolWaits = new LongAdder();
+    private final LongAdder poolWaitNanos = new LongAdder();
+
+    JMSSessionPool(int maxSize, boolean transacted, int deliveryMode, Supplier<Connection> connectionSupplier)
+    {
+        this.maxSize = maxSize;
+        this.transacted = transacted;
+        this.deliveryMode = deliveryMode;
+        this.connectionSupplier = connectionSupplier;
+    }
+
+    PooledSession acquire() throws JMSException
+    {
+        var pooledSession = idleSessions.poll();
+        if (pooledSession != null)
+        {
+            return pooledSession;
+        }
+
+        if (reserveSession())
+        {
+            return createSession();
+        }
+
+        // All sessions are checked out. We also retry to create a session in case a closed session was removed
+        var startTime = System.nanoTime();
+        poolWaits.increment();
+        try {
+            while (true)
+            {
+                pooledSession = idleSessions.poll(RETRY_INTERVAL_MILLIS, TimeUnit.MILLISECONDS);
+                if (pooledSession != null)
+                {
+                    return pooledSession;
+                }
+
+                if (reserveSession())
+                {
+                    return createSession();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a JMS session", e);
+        } finally {
+            poolWaitNanos.add(System.nanoTime() - startTime);
+        }
+    }
+
+    void release(PooledSession pooledSession)
+    {
+        if (pooledSession.generation() == generation.get())
+        {
+            idleSessions.offer(pooledSession);
+        } else {
+            closeSession(pooledSession);
+        }
+    }
+
+    void close()
+    {
+        generation.incrementAndGet();
+
+        PooledSession pooledSession;
+        while ((pooledSession = idleSessions.poll()) != null)
+        {
+            closeSession(pooledSession);
+        }
+    }
+
+    SessionPoolStatistics getStatistics()
+    {
+        return new SessionPoolStatistics(
+                maxSize,
+                openSessions.get(),
+                idleSessions.size(),
+                poolWaits.sum(),
+                Duration.ofNanos(poolWaitNanos.sum()));
+    }
+
+    private boolean reserveSession()
+    {
+        while (true)
+        {
+            var currentSessions = openSessions.get();
+            if (currentSessions >= maxSize)
+            {
+                return false;
+            }
+            if (openSessions.compareAndSet(currentSessions, currentSessions + 1))
+            {
+                return true;
+            }
+        }
+    }
+
+    private PooledSession createSession() throws JMSException
+    {
+        try {
+            var currentGeneration = generation.get();
+            var session = transacted
+                    ? connectionSupplier.get().createSession(true, Session.SESSION_TRANSACTED)
+                    : connectionSupplier.get().createSession(false, Session.AUTO_ACKNOWLEDGE);
+            return new PooledSession(session, currentGeneration, deliveryMode);
+        } catch (JMSException | RuntimeException e) {
+            openSessions.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private void closeSession(PooledSession pooledSession)
+    {
+        openSessions.decrementAndGet();
+        try {
+            // Producers are closed together with their session
+            pooledSession.session().close();
+        } catch (JMSException e) {
+            getLogger(JMSSessionPool.class).warn("Could not close JMS session. Reason: {}", e.getMessage());
+        }
+    }
+
+    static final class PooledSession
+    {
+        private final Session session;
+        private final int generation;
+        private final int deliveryMode;
+        private final Map<String, MessageProducer> producerCache = new HashMap<>();
+
+        private PooledSession(Session session, int generation, int deliveryMode)
+        {
+            this.session = session;
+            this.generation = generation;
+            this.deliveryMode = deliveryMode;
+        }
+
+        Session session()
+        {
+            return session;
+        }
+
+        int generation()
+        {
+            return generation;
+        }
+
+        MessageProducer getProducer(DestinationType destinationType, String destinationName) throws JMSException
+        {
+            var key = destinationType.name() + ":" + destinationName;
+            var producer = producerCache.get(key);
+
+            if (producer == null)
+            {
+                var destination = destinationType == DestinationType.QUEUE
+                        ? session.createQueue(destinationName)
+                        : session.createTopic(destinationName);
+
+                producer = session.createProducer(destination);
+                producer.setDeliveryMode(deliveryMode);
+                producerCache.put(key, producer);
+            }
+
+            return producer;
+        }
+    }
+}
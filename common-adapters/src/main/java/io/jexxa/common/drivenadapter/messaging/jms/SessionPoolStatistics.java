@@ -0,0 +1,16 @@
+package io.jexxa.common.drivenadapter.messaging.jms;
+
+import java.time.Duration;
+
+/**
+ * Statistics of the sessions used by a {@link JMSSender}.
+ *
+ * @param maxSize maximum number of sessions in the pool
+ * @param openSessions number of currently open sessions, including checked out sessions
+ * @param idleSessions number of open sessions that are currently not used
+ * @param poolWaits number of times a sending thread found no idle session
+ * @param poolWaitTime total time sending threads waited for a session
+ */
+public record SessionPoolStatistics(int maxSize, int openSessions, int idleSessions, long poolWaits, Duration poolWaitTime)
+{
+}
@@ -0,0 +1,62 @@
+package io.jexxa.common.drivenadapter.outbox;
+
+import io.jexxa.common.drivenadapter.outbox.TransactionalOutboxSender.JexxaOutboxMessage;
+
+import java.util.List;
+
+/**
+ * Storage used by the {@link TransactionalOutboxSender} to persist unsent messages.
+ * <p>
+ * In contrast to an IRepository, the storage hands out messages in bounded batches ordered by their
+ * creation. So the message relay never has to load the entire outbox, independent of the size of the backlog.
+ */
+interface IOutboxStorage
+{
+    /**
+     * Adds a message to the outbox.
+     * @param outboxMessage message that should be sent by the message relay
+     */
+    void add(JexxaOutboxMessage outboxMessage);
+
+    /**
+     * Returns the oldest messages of the outbox.
+     *
+     * @param batchSize maximum number of returned messages
+     * @return list of at most batchSize messages in the order of their creation
+     */
+    List<JexxaOutboxMessage> nextBatch(int batchSize);
+
+    /**
+     * Removes all given messages from the outbox.
+     * @param outboxMessages messages that were successfully sent
+     */
+    void remove(List<JexxaOutboxMessage> outboxMessages);
+
+    /**
+     * Releases messages returned by {@link #nextBatch(int)} that could not be sent, so that they are part of
+     * the next batch again.
+     *
+     * @param outboxMessages messages that could not be sent
+     */
+    default void release(List<JexxaOutboxMessage> outboxMessages)
+    {
+        // By default, messages are not claimed so that there is nothing to release
+    }
+
+    /**
+     * Returns the number of messages that are not sent yet.
+     * @return number of messages in the outbox
+     */
+    long size();
+
+    /**
+     * Returns the storage that is used by the message relay. The message relay reads and removes messages outside
+     * the transaction of the writers, so that writers never wait for the message relay.
+     *
+     * @return storage used by the message relay. By default, this is the same storage.
+     */
+    default IOutboxStorage relayStorage()
+    {
+        return this;
+    }
+}
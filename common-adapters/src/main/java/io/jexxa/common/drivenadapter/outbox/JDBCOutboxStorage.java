@@ -0,0 +1,486 @@
+package io.jexxa.common.drivenadapter.outbox;
+
+import io.jexxa.common.drivenadapter.messaging.MessageSender.MessageType;
+import io.jexxa.common.drivenadapter.outbox.TransactionalOutboxSender.DestinationType;
+import io.jexxa.common.drivenadapter.outbox.TransactionalOutboxSender.JexxaOutboxMessage;
+import io.jexxa.common.drivenadapter.persistence.repository.jdbc.JDBCRepository;
+import io.jexxa.common.facade.jdbc.JDBCProperties;
+import io.jexxa.common.facade.jdbc.JDBCQuery;
+import io.jexxa.common.facade.jdbc.builder.JDBCObject;
+import io.jexxa.common.facade.jdbc.builder.SQLDataType;
+import io.jexxa.common.facade.jdbc.builder.SQLOrder;
+import io.jexxa.common.facade.jdbc.database.DatabaseManager;
+import io.jexxa.common.facade.jdbc.database.IDatabase;
+import org.slf4j.Logger;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.UUID;
+
+import static io.jexxa.common.drivenadapter.outbox.TransactionalOutboxProperties.outboxClaiming;
+import static io.jexxa.common.drivenadapter.outbox.TransactionalOutboxProperties.outboxLeaseDuration;
+import static io.jexxa.common.facade.jdbc.builder.JDBCTableBuilder.SQLConstraint.PRIMARY_KEY;
+import static io.jexxa.common.facade.jdbc.builder.SQLDataType.JSONB;
+import static io.jexxa.common.facade.jdbc.builder.SQLDataType.NUMERIC;
+import static io.jexxa.common.facade.jdbc.builder.SQLDataType.TEXT;
+import static io.jexxa.common.facade.jdbc.builder.SQLDataType.TIMESTAMP;
+import static io.jexxa.common.facade.jdbc.builder.SQLDataType.VARCHAR;
+import static io.jexxa.common.facade.json.JSONManager.getJSONConverter;
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
+
+/**
+ * Outbox storage that uses a dedicated table with a column for each attribute of a message.
+ * <p>
+ * Messages are ordered by a sequence id generated by the database. Since the sequence id is the primary key, a batch
+ * is read as a range of the primary key index and removed with a single statement.
+ * <p>
+ * Messages of an outbox that was stored by a previous version in a key/value table (see
+ * {@link io.jexxa.common.drivenadapter.persistence.repository.jdbc.JDBCKeyValueRepository}) are moved into the
+ * dedicated table during initialization. Several instances can start and migrate the same table at the same time.
+ * <p>
+ * The message relay uses a separate instance with its own connection, which is not registered at the
+ * TransactionManager. So, reading and removing sent messages never joins or blocks the transaction of a writer.
+ * <p>
+ * If claiming is enabled (see {@link TransactionalOutboxProperties#outboxClaiming()}), several message relays can
+ * share the same table because each relay claims a disjoint batch:
+ * <ul>
+ *     <li>If the database supports SKIP LOCKED, a batch is locked by the transaction of the relay until it is removed.</li>
+ *     <li>Otherwise, a batch is leased by writing a lease token and an expiration time into the table.
+ *     If a relay does not remove its batch before the lease expires, the batch can be claimed by another relay.</li>
+ * </ul>
+ */
+class JDBCOutboxStorage extends JDBCRepository implements IOutboxStorage
+{
+    private static final Logger LOGGER = getLogger(JDBCOutboxStorage.class);
+    private static final String TABLE_SUFFIX = "_messages";
+    private static final int MIGRATION_BATCH_SIZE = 100;
+    private static final long DEFAULT_LEASE_DURATION = 60_000;
+    private static final SQLDataType MESSAGE_ID_TYPE = new SQLDataType("VARCHAR(36) ");
+    private static final SQLDataType ENUM_TYPE = new SQLDataType("VARCHAR(16) ");
+    private static final SQLDataType LEASE_UNTIL_TYPE = new SQLDataType("BIGINT ");
+
+    enum ClaimMode { NONE, SKIP_LOCKED, LEASE }
+
+    enum OutboxSchema
+    {
+        SEQUENCE_ID,
+        MESSAGE_ID,
+        CREATED_AT,
+        DESTINATION,
+        DESTINATION_TYPE,
+        MESSAGE_TYPE,
+        HEADERS,
+        PAYLOAD,
+        LEASE_TOKEN,
+        LEASE_UNTIL
+    }
+
+    /** Schema of the key/value table used by previous versions */
+    enum LegacyOutboxSchema
+    {
+        REPOSITORY_KEY,
+        REPOSITORY_VALUE
+    }
+
+    private final String storageName;
+    private final IDatabase database;
+    private final ClaimMode claimMode;
+    private final long leaseDuration;
+    private String leaseToken;
+
+    /**
+     * @param storageName name of the outbox. The messages are stored in table {@code storageName + "_messages"}.
+     *                    A key/value table with name {@code storageName} is migrated during {@link #init()}.
+     * @param properties properties including the JDBC connection
+     */
+    JDBCOutboxStorage(String storageName, Properties properties)
+    {
+        this(storageName, properties, ClaimMode.NONE);
+    }
+
+    private JDBCOutboxStorage(String storageName, Properties properties, ClaimMode claimMode)
+    {
+        super(properties);
+        this.storageName = Objects.requireNonNull(storageName);
+        this.database = DatabaseManager.getDatabase(properties.getProperty(JDBCProperties.jdbcUrl()));
+        this.claimMode = claimMode;
+        this.leaseDuration = getLeaseDuration(properties);
+    }
+
+    public void init()
+    {
+        initJDBCRepository();
+        autocreateTable();
+        migrateLegacyTable();
+    }
+
+    public String tableName()
+    {
+        return storageName + TABLE_SUFFIX;
+    }
+
+    @Override
+    public void add(JexxaOutboxMessage outboxMessage)
+    {
+        Objects.requireNonNull(outboxMessage);
+
+        getConnection().command(OutboxSchema.class)
+                .insertInto(tableName())
+                .columns(OutboxSchema.MESSAGE_ID.name(), OutboxSchema.CREATED_AT.name(),
+                        OutboxSchema.DESTINATION.name(), OutboxSchema.DESTINATION_TYPE.name(),
+                        OutboxSchema.MESSAGE_TYPE.name(), OutboxSchema.HEADERS.name(),
+                        OutboxSchema.PAYLOAD.name(), OutboxSchema.LEASE_UNTIL.name())
+                .values(new JDBCObject[]{
+                        new JDBCObject(outboxMessage.messageId().toString(), MESSAGE_ID_TYPE),
+                        new JDBCObject(Timestamp.from(Instant.now()), TIMESTAMP),
+                        new JDBCObject(outboxMessage.destination(), TEXT),
+                        new JDBCObject(outboxMessage.destinationType().name(), ENUM_TYPE),
+                        new JDBCObject(outboxMessage.messageType().name(), ENUM_TYPE),
+                        new JDBCObject(getJSONConverter().toJson(outboxMessage.messageProperties()), database.matchingValue(JSONB)),
+                        new JDBCObject(outboxMessage.message(), TEXT),
+                        new JDBCObject(0L, NUMERIC)})
+                .create()
+                .asUpdate();
+    }
+
+    @Override
+    public IOutboxStorage relayStorage()
+    {
+        return new JDBCOutboxStorage(storageName, properties(), getClaimMode(properties()));
+    }
+
+    @Override
+    public List<JexxaOutboxMessage> nextBatch(int batchSize)
+    {
+        return switch (claimMode)
+        {
+            case NONE -> selectBatch(batchSize);
+            case SKIP_LOCKED -> lockBatch(batchSize);
+            case LEASE -> leaseBatch(batchSize);
+        };
+    }
+
+    @Override
+    public void remove(List<JexxaOutboxMessage> outboxMessages)
+    {
+        if (!outboxMessages.isEmpty())
+        {
+            getConnection().command(OutboxSchema.class)
+                    .deleteFrom(tableName())
+                    .where(OutboxSchema.MESSAGE_ID)
+                    .isIn(toMessageIds(outboxMessages))
+                    .create()
+                    .asIgnore();
+        }
+
+        if (claimMode == ClaimMode.SKIP_LOCKED)
+        {
+            closeTransaction(); // Removes the lock of the batch
+        }
+    }
+
+    @Override
+    public void release(List<JexxaOutboxMessage> outboxMessages)
+    {
+        if (claimMode == ClaimMode.SKIP_LOCKED)
+        {
+            rollback();
+            closeTransaction();
+        }
+
+        if (claimMode == ClaimMode.LEASE && !outboxMessages.isEmpty())
+        {
+            getConnection().command(OutboxSchema.class)
+                    .update(tableName())
+                    .set(OutboxSchema.LEASE_UNTIL, new JDBCObject(0L, NUMERIC))
+                    .where(OutboxSchema.LEASE_TOKEN)
+                    .isEqual(leaseToken)
+                    .create()
+                    .asIgnore();
+        }
+    }
+
+    @Override
+    public long size()
+    {
+        return getConnection().query(OutboxSchema.class)
+                .selectCount()
+                .from(tableName())
+                .create()
+                .asLong()
+                .findFirst()
+                .orElse(0L);
+    }
+
+    private List<JexxaOutboxMessage> selectBatch(int batchSize)
+    {
+        var query = getConnection().query(OutboxSchema.class)
+                .select(OutboxSchema.MESSAGE_ID, OutboxSchema.DESTINATION, OutboxSchema.DESTINATION_TYPE,
+                        OutboxSchema.MESSAGE_TYPE, OutboxSchema.HEADERS, OutboxSchema.PAYLOAD)
+                .from(tableName())
+                .orderBy(OutboxSchema.SEQUENCE_ID, SQLOrder.ASC)
+                .limit(batchSize)
+                .create();
+
+        return toOutboxMessages(query);
+    }
+
+    private List<JexxaOutboxMessage> lockBatch(int batchSize)
+    {
+        // The transaction is closed when the batch is removed or released
+        initTransaction();
+
+        var query = getConnection().query(OutboxSchema.class)
+                .select(OutboxSchema.MESSAGE_ID, OutboxSchema.DESTINATION, OutboxSchema.DESTINATION_TYPE,
+                        OutboxSchema.MESSAGE_TYPE, OutboxSchema.HEADERS, OutboxSchema.PAYLOAD)
+                .from(tableName())
+                .orderBy(OutboxSchema.SEQUENCE_ID, SQLOrder.ASC)
+                .limit(batchSize)
+                .forUpdateSkipLocked()
+                .create();
+
+        try {
+            return toOutboxMessages(query);
+        } catch (RuntimeException e) {
+            release(List.of());
+            throw e;
+        }
+    }
+
+    private List<JexxaOutboxMessage> leaseBatch(int batchSize)
+    {
+        var now = System.currentTimeMillis();
+
+        var candidates = getConnection().query(OutboxSchema.class)
+                .select(OutboxSchema.SEQUENCE_ID)
+                .from(tableName())
+                .where(OutboxSchema.LEASE_UNTIL)
+                .isLessThan(now)
+                .orderBy(OutboxSchema.SEQUENCE_ID, SQLOrder.ASC)
+                .limit(batchSize)
+                .create()
+                .asLong()
+                .map( sequenceId -> new JDBCObject(sequenceId, NUMERIC))
+                .toArray(JDBCObject[]::new);
+
+        if (candidates.length == 0)
+        {
+            return List.of();
+        }
+
+        // If another relay claims a candidate in the meantime, its lease is no longer expired, so that it is skipped here
+        leaseToken = UUID.randomUUID().toString();
+        getConnection().command(OutboxSchema.class)
+                .update(tableName())
+                .set(new String[]{OutboxSchema.LEASE_TOKEN.name(), OutboxSchema.LEASE_UNTIL.name()},
+                        new JDBCObject[]{new JDBCObject(leaseToken, VARCHAR), new JDBCObject(now + leaseDuration, NUMERIC)})
+                .where(OutboxSchema.SEQUENCE_ID)
+                .isIn(candidates)
+                .and(OutboxSchema.LEASE_UNTIL)
+                .isLessThan(now)
+                .create()
+                .asIgnore();
+
+        var query = getConnection().query(OutboxSchema.class)
+                .select(OutboxSchema.MESSAGE_ID, OutboxSchema.DESTINATION, OutboxSchema.DESTINATION_TYPE,
+                        OutboxSchema.MESSAGE_TYPE, OutboxSchema.HEADERS, OutboxSchema.PAYLOAD)
+                .from(tableName())
+                .where(OutboxSchema.LEASE_TOKEN)
+                .isEqual(leaseToken)
+                .orderBy(OutboxSchema.SEQUENCE_ID, SQLOrder.ASC)
+                .create();
+
+        return toOutboxMessages(query);
+    }
+
+    private void autocreateTable()
+    {
+        try {
+            getConnection().tableCommand(OutboxSchema.class)
+                    .createTableIfNotExists(tableName())
+                    .addColumn(OutboxSchema.SEQUENCE_ID, database.matchingIdentity())
+                    .addConstraint(PRIMARY_KEY)
+                    .addColumn(OutboxSchema.MESSAGE_ID, MESSAGE_ID_TYPE)
+                    .addColumn(OutboxSchema.CREATED_AT, TIMESTAMP)
+                    .addColumn(OutboxSchema.DESTINATION, TEXT)
+                    .addColumn(OutboxSchema.DESTINATION_TYPE, ENUM_TYPE)
+                    .addColumn(OutboxSchema.MESSAGE_TYPE, ENUM_TYPE)
+                    .addColumn(OutboxSchema.HEADERS, database.matchingValue(JSONB))
+                    .addColumn(OutboxSchema.PAYLOAD, TEXT)
+                    .addColumn(OutboxSchema.LEASE_TOKEN, MESSAGE_ID_TYPE)
+                    .addColumn(OutboxSchema.LEASE_UNTIL, LEASE_UNTIL_TYPE)
+                    .create()
+                    .asIgnore();
+
+            // Removing a batch and migrating messages from a legacy table requires a unique message id
+            getConnection().command(OutboxSchema.class)
+                    .createUniqueIndex(tableName() + "_message_id")
+                    .on(tableName(), OutboxSchema.MESSAGE_ID.name())
+                    .create()
+                    .asIgnore();
+        }
+        catch (IllegalArgumentException _)
+        {
+            LOGGER.debug("Could not create table {} => Assume that table already exists", tableName());
+        }
+    }
+
+    /**
+     * Moves the messages of the legacy table into the dedicated table. Several instances can migrate the same table
+     * concurrently, because a message is only moved by the instance whose transaction deletes it from the legacy
+     * table. A message that already exists in the dedicated table is not inserted again.
+     * <p>
+     * The legacy table does not store the creation time of a message. So, messages are moved in the order in which
+     * the database stores them, which corresponds to the order of creation for heap-organized tables.
+     */
+    private void migrateLegacyTable()
+    {
+        if (!legacyTableExists())
+        {
+            return;
+        }
+
+        var migratedMessages = 0;
+        List<JexxaOutboxMessage> legacyMessages;
+        do {
+            initTransaction();
+            try {
+                legacyMessages = getConnection().query(LegacyOutboxSchema.class)
+                        .select(LegacyOutboxSchema.REPOSITORY_VALUE)
+                        .from(storageName)
+                        .limit(MIGRATION_BATCH_SIZE)
+                        .create()
+                        .asString()
+                        .flatMap(Optional::stream)
+                        .map( element -> getJSONConverter().fromJson(element, JexxaOutboxMessage.class))
+                        .toList();
+
+                for (var legacyMessage : legacyMessages)
+                {
+                    if (claimLegacyMessage(legacyMessage) && !contains(legacyMessage))
+                    {
+                        add(legacyMessage);
+                        ++migratedMessages;
+                    }
+                }
+                closeTransaction();
+            } catch (RuntimeException e) {
+                rollback();
+                closeTransaction();
+                throw e;
+            }
+        } while (legacyMessages.size() == MIGRATION_BATCH_SIZE);
+
+        if (migratedMessages > 0)
+        {
+            LOGGER.info("Moved {} unsent messages from table {} into table {}", migratedMessages, storageName, tableName());
+        }
+    }
+
+    /**
+     * Deletes the message from the legacy table. If another instance deletes the same message concurrently, the
+     * database blocks until its transaction is finished, so that only one instance claims the message.
+     *
+     * @return true if the message was deleted by this call
+     */
+    private boolean claimLegacyMessage(JexxaOutboxMessage legacyMessage)
+    {
+        var key = new JDBCObject(getJSONConverter().toJson(legacyMessage.messageId()), database.matchingPrimaryKey(JSONB));
+
+        return getConnection().command(LegacyOutboxSchema.class)
+                .deleteFrom(storageName)
+                .where(LegacyOutboxSchema.REPOSITORY_KEY)
+                .isEqual(key)
+                .create()
+                .asRowCount() > 0;
+    }
+
+    private boolean contains(JexxaOutboxMessage outboxMessage)
+    {
+        return getConnection().query(OutboxSchema.class)
+                .selectCount()
+                .from(tableName())
+                .where(OutboxSchema.MESSAGE_ID)
+                .isEqual(outboxMessage.messageId().toString())
+                .create()
+                .asLong()
+                .findFirst()
+                .orElse(0L) > 0;
+    }
+
+    private boolean legacyTableExists()
+    {
+        try {
+            getConnection().query(LegacyOutboxSchema.class)
+                    .selectCount()
+                    .from(storageName)
+                    .create()
+                    .asLong()
+                    .findFirst();
+            return true;
+        } catch (IllegalStateException | IllegalArgumentException _) {
+            return false;
+        }
+    }
+
+    private static JDBCObject[] toMessageIds(List<JexxaOutboxMessage> outboxMessages)
+    {
+        return outboxMessages.stream()
+                .map( outboxMessage -> new JDBCObject(outboxMessage.messageId().toString(), MESSAGE_ID_TYPE))
+                .toArray(JDBCObject[]::new);
+    }
+
+    private static List<JexxaOutboxMessage> toOutboxMessages(JDBCQuery query)
+    {
+        return query
+                .as(JDBCOutboxStorage::toOutboxMessage)
+                .toList();
+    }
+
+    private static JexxaOutboxMessage toOutboxMessage(ResultSet resultSet) throws SQLException
+    {
+        return new JexxaOutboxMessage(
+                UUID.fromString(resultSet.getString(OutboxSchema.MESSAGE_ID.name())),
+                resultSet.getString(OutboxSchema.PAYLOAD.name()),
+                resultSet.getString(OutboxSchema.DESTINATION.name()),
+                getJSONConverter().fromJson(resultSet.getString(OutboxSchema.HEADERS.name()), Properties.class),
+                MessageType.valueOf(resultSet.getString(OutboxSchema.MESSAGE_TYPE.name())),
+                DestinationType.valueOf(resultSet.getString(OutboxSchema.DESTINATION_TYPE.name()))
+        );
+    }
+
+    private static ClaimMode getClaimMode(Properties properties)
+    {
+        if (!Boolean.parseBoolean(properties.getProperty(outboxClaiming(), "false")))
+        {
+            return ClaimMode.NONE;
+        }
+
+        if (DatabaseManager.getDatabase(properties.getProperty(JDBCProperties.jdbcUrl())).supportsSkipLocked())
+        {
+            return ClaimMode.SKIP_LOCKED;
+        }
+
+        return ClaimMode.LEASE;
+    }
+
+    private static long getLeaseDuration(Properties properties)
+    {
+        try {
+            var leaseDuration = Long.parseLong(properties.getProperty(outboxLeaseDuration(), String.valueOf(DEFAULT_LEASE_DURATION)).trim());
+            if (leaseDuration <= 0)
+            {
+                throw new IllegalArgumentException("Property " + outboxLeaseDuration() + " must be greater than 0");
+            }
+            return leaseDuration;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + outboxLeaseDuration() + " must be a number but is " + properties.getProperty(outboxLeaseDuration()), e);
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package io.jexxa.common.drivenadapter.outbox;
+
+import io.jexxa.adapterapi.invocation.transaction.TransactionContext;
+import io.jexxa.adapterapi.invocation.transaction.TransactionHandler;
+import io.jexxa.adapterapi.invocation.transaction.TransactionManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
+
+/**
+ * Triggers the message relay of a {@link TransactionalOutboxSender} on its own thread.
+ * <p>
+ * Wake-ups caused by new messages are coalesced, so that a burst of messages results in a single run of the
+ * message relay. A run is triggered at the latest after maxLatency, or immediately if maxBatch messages are pending.
+ * Since new messages become visible to the message relay only after the writing transaction is committed, this
+ * scheduler enlists into the transaction of the writing thread, counts the messages of this transaction, and
+ * signals them when the transaction is closed. Only messages added outside a transaction are signaled immediately.
+ * <p>
+ * In addition, the outbox is polled. The poll interval is doubled up to maxPollInterval each time the outbox was
+ * empty and is reset to minPollInterval as soon as messages are relayed.
+ */
+class OutboxRelayScheduler implements TransactionHandler
+{
+    private static final long NO_WAKE_UP = Long.MIN_VALUE;
+
+    private final ScheduledThreadPoolExecutor executor = new ScheduledThreadPoolExecutor(1);
+    private final LongSupplier messageRelay;
+    private final long maxLatency;
+    private final int maxBatch;
+    private final long minPollInterval;
+    private final long maxPollInterval;
+
+    private final AtomicInteger pendingMessages = new AtomicInteger();
+    private final Map<TransactionContext, AtomicInteger> transactionMessages = new ConcurrentHashMap<>();
+    private final AtomicLong scheduledWakeUp = new AtomicLong(NO_WAKE_UP);
+    private long pollInterval;
+
+    /**
+     * @param messageRelay relays all messages of the outbox and returns the number of relayed messages
+     * @param maxLatency maximum time in milliseconds until a new message triggers the message relay
+     * @param maxBatch number of pending messages that trigger the message relay immediately
+     * @param minPollInterval poll interval in milliseconds as long as messages are relayed
+     * @param maxPollInterval maximum poll interval in milliseconds if the outbox is empty
+     */
+    OutboxRelayScheduler(LongSupplier messageRelay, long maxLatency, int maxBatch, long minPollInterval, long maxPollInterval)
+    {
+        this.messageRelay = messageRelay;
+        this.maxLatency = maxLatency;
+        this.maxBatch = maxBatch;
+        this.minPollInterval = minPollInterval;
+        this.maxPollInterval = Math.max(minPollInterval, maxPollInterval);
+        this.pollInterval = minPollInterval;
+
+        // Pending wake-ups and polls must not delay a shutdown
+        executor.setExecuteExistingDelayedTasksAfterShutdownPolicy(false);
+    }
+
+    void start()
+    {
+        schedule(this::poll, pollInterval);
+    }
+
+    void messageAdded()
+    {
+        var transaction = TransactionManager.currentTransaction();
+        if (transaction.isPresent() && (TransactionManager.enlist(this) || TransactionManager.isEnlisted(this)))
+        {
+            transactionMessages.computeIfAbsent(transaction.get(), _ -> new AtomicInteger()).incrementAndGet();
+            return;
+        }
+
+        wakeUp(pendingMessages.incrementAndGet());
+    }
+
+    void shutdown()
+    {
+        try {
+            executor.shutdown();
+            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
+                getLogger(getClass()).warn("Could not successfully stop running operations -> Force shutdown");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            getLogger(getClass()).warn("ExecutorService could not be stopped -> Interrupt thread.", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void initTransaction()
+    {
+        // Nothing to do. Messages of the transaction are signaled when the transaction is closed
+    }
+
+    @Override
+    public void closeTransaction()
+    {
+        var committedMessages = TransactionManager.currentTransaction()
+                .map(transactionMessages::remove)
+                .map(AtomicInteger::get)
+                .orElse(0);
+
+        wakeUp(pendingMessages.addAndGet(committedMessages));
+    }
+
+    @Override
+    public void rollback()
+    {
+        // Messages of a rolled back transaction are not found by the message relay, so that they are not signaled
+        TransactionManager.currentTransaction().ifPresent(transactionMessages::remove);
+    }
+
+    private void wakeUp(int pending)
+    {
+        var delay = pending >= maxBatch ? 0 : maxLatency;
+        var deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay);
+
+        while (true)
+        {
+            var currentWakeUp = scheduledWakeUp.get();
+            if (currentWakeUp != NO_WAKE_UP && currentWakeUp - deadline <= 0)
+            {
+                return; // An earlier run is already scheduled
+            }
+
+            if (scheduledWakeUp.compareAndSet(currentWakeUp, deadline))
+            {
+                schedule(() -> relay(deadline), delay);
+                return;
+            }
+        }
+    }
+
+    private void relay(long deadline)
+    {
+        // A wake-up that was replaced by an earlier one is skipped
+        if (scheduledWakeUp.compareAndSet(deadline, NO_WAKE_UP))
+        {
+            pendingMessages.set(0);
+            if (messageRelay.getAsLong() > 0)
+            {
+                pollInterval = minPollInterval;
+            }
+        }
+    }
+
+    private void poll()
+    {
+        pendingMessages.set(0);
+        if (messageRelay.getAsLong() > 0)
+        {
+            pollInterval = minPollInterval;
+        } else {
+            pollInterval = Math.min(pollInterval * 2, maxPollInterval);
+        }
+
+        schedule(this::poll, pollInterval);
+    }
+
+    private void schedule(Runnable runnable, long delay)
+    {
+        try {
+            executor.schedule(runnable, delay, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException _) {
+            // Scheduler is already shut down. Remaining messages are relayed after restart
+            getLogger(getClass()).debug("Message relay is already stopped");
+        }
+    }
+}
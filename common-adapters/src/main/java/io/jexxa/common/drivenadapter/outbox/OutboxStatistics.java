@@ -0,0 +1,15 @@
+package io.jexxa.common.drivenadapter.outbox;
+
+import java.time.Instant;
+
+/**
+ * Statistics of the message relay of a {@link TransactionalOutboxSender}.
+ *
+ * @param relayedMessages total number of messages that were forwarded by the message relay
+ * @param messagesPerSecond throughput of the last run of the message relay that forwarded messages
+ * @param backlog number of messages that are currently stored in the outbox
+ * @param lastRelay point in time of the last run of the message relay that forwarded messages, or null if nothing was forwarded yet
+ */
+public record OutboxStatistics(long relayedMessages, double messagesPerSecond, long backlog, Instant lastRelay)
+{
+}
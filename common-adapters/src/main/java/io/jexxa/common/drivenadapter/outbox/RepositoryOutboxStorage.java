@@ -0,0 +1,54 @@
+package io.jexxa.common.drivenadapter.outbox;
+
+import io.jexxa.common.drivenadapter.outbox.TransactionalOutboxSender.JexxaOutboxMessage;
+import io.jexxa.common.drivenadapter.persistence.repository.IRepository;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Outbox storage that can be used with any {@link IRepository}.
+ * <p>
+ * Since an IRepository does not support ordered or bounded queries, each batch is selected from all stored messages.
+ * This is fine for an IMDBRepository used in tests, but should not be used for a large backlog in production.
+ * Messages are ordered by their id, which is time-ordered (see {@link TransactionalOutboxSender}).
+ */
+class RepositoryOutboxStorage implements IOutboxStorage
+{
+    private final IRepository<JexxaOutboxMessage, UUID> outboxRepository;
+
+    RepositoryOutboxStorage(IRepository<JexxaOutboxMessage, UUID> outboxRepository)
+    {
+        this.outboxRepository = Objects.requireNonNull(outboxRepository);
+    }
+
+    @Override
+    public void add(JexxaOutboxMessage outboxMessage)
+    {
+        outboxRepository.add(outboxMessage);
+    }
+
+    @Override
+    public List<JexxaOutboxMessage> nextBatch(int batchSize)
+    {
+        return outboxRepository.get()
+                .stream()
+                .sorted(Comparator.comparing(JexxaOutboxMessage::messageId))
+                .limit(batchSize)
+                .toList();
+    }
+
+    @Override
+    public void remove(List<JexxaOutboxMessage> outboxMessages)
+    {
+        outboxMessages.forEach(outboxMessage -> outboxRepository.remove(outboxMessage.messageId()));
+    }
+
+    @Override
+    public long size()
+    {
+        return outboxRepository.get().size();
+    }
+}
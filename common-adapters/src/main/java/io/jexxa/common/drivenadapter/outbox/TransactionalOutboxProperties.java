@@ -4,9 +4,38 @@ import io.jexxa.common.facade.utils.properties.PropertiesPrefix;
 
 public final class TransactionalOutboxProperties {
     public static final String OUTBOX_TABLE = "outbox.table";
+    public static final String OUTBOX_BATCH_SIZE = "outbox.batch.size";
+    public static final String OUTBOX_MAX_LATENCY = "outbox.max.latency";
+    public static final String OUTBOX_MAX_BATCH = "outbox.max.batch";
+    public static final String OUTBOX_POLL_INTERVAL = "outbox.poll.interval";
+    public static final String OUTBOX_MAX_POLL_INTERVAL = "outbox.max.poll.interval";
+    public static final String OUTBOX_CLAIMING = "outbox.claiming";
+    public static final String OUTBOX_LEASE_DURATION = "outbox.lease.duration";
 
+    /** Defines the name of the outbox. The messages are stored in table `outbox.table`_messages. Default is JexxaOutboxMessage */
     public static String outboxTable() { return PropertiesPrefix.globalPrefix() + OUTBOX_TABLE; }
 
+    /** Defines the maximum number of messages that are read, forwarded, and removed from the outbox within a single transaction. Default is 100 */
+    public static String outboxBatchSize() { return PropertiesPrefix.globalPrefix() + OUTBOX_BATCH_SIZE; }
+
+    /** Defines the maximum time in milliseconds until a new message triggers the message relay. Default is 0 */
+    public static String outboxMaxLatency() { return PropertiesPrefix.globalPrefix() + OUTBOX_MAX_LATENCY; }
+
+    /** Defines the number of new messages that trigger the message relay immediately, even if the max latency is not reached. Default is the batch size */
+    public static String outboxMaxBatch() { return PropertiesPrefix.globalPrefix() + OUTBOX_MAX_BATCH; }
+
+    /** Defines the interval in milliseconds in which the outbox is polled as long as messages are found. Default is 300 */
+    public static String outboxPollInterval() { return PropertiesPrefix.globalPrefix() + OUTBOX_POLL_INTERVAL; }
+
+    /** Defines the maximum interval in milliseconds in which an empty outbox is polled. Default is 5000 */
+    public static String outboxMaxPollInterval() { return PropertiesPrefix.globalPrefix() + OUTBOX_MAX_POLL_INTERVAL; }
+
+    /** If set to true, multiple message relays can share the same outbox table because each relay claims disjoint batches of messages. Default is false */
+    public static String outboxClaiming() { return PropertiesPrefix.globalPrefix() + OUTBOX_CLAIMING; }
+
+    /** Defines the time in milliseconds a claimed batch is leased to a message relay on databases without support for SKIP LOCKED. Default is 60000 */
+    public static String outboxLeaseDuration() { return PropertiesPrefix.globalPrefix() + OUTBOX_LEASE_DURATION; }
+
     private TransactionalOutboxProperties()
     {
         //private constructor
@@ -1,26 +1,31 @@
 package io.jexxa.common.drivenadapter.outbox;
 
 import io.jexxa.adapterapi.JexxaContext;
-import io.jexxa.adapterapi.invocation.InvocationManager;
-import io.jexxa.adapterapi.invocation.InvocationTargetRuntimeException;
+import io.jexxa.adapterapi.invocation.transaction.TransactionManager;
 import io.jexxa.common.drivenadapter.messaging.MessageBuilder;
 import io.jexxa.common.drivenadapter.messaging.MessageSender;
 import io.jexxa.common.drivenadapter.messaging.jms.JMSSender;
-import io.jexxa.common.drivenadapter.persistence.repository.IRepository;
+import io.jexxa.common.drivenadapter.persistence.RepositoryFactory;
 import io.jexxa.common.drivenadapter.persistence.repository.imdb.IMDBRepository;
 import io.jexxa.common.drivenadapter.persistence.repository.jdbc.JDBCKeyValueRepository;
 import io.jexxa.common.facade.logger.SLF4jLogger;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 
 import static io.jexxa.common.drivenadapter.messaging.MessageSenderFactory.createMessageSender;
+import static io.jexxa.common.drivenadapter.messaging.MessageSenderFactory.getMessageSender;
 import static io.jexxa.common.drivenadapter.messaging.MessageSenderFactory.setMessageSender;
+import static io.jexxa.common.drivenadapter.outbox.TransactionalOutboxProperties.outboxBatchSize;
+import static io.jexxa.common.drivenadapter.outbox.TransactionalOutboxProperties.outboxMaxBatch;
+import static io.jexxa.common.drivenadapter.outbox.TransactionalOutboxProperties.outboxMaxLatency;
+import static io.jexxa.common.drivenadapter.outbox.TransactionalOutboxProperties.outboxMaxPollInterval;
+import static io.jexxa.common.drivenadapter.outbox.TransactionalOutboxProperties.outboxPollInterval;
 import static io.jexxa.common.drivenadapter.outbox.TransactionalOutboxProperties.outboxTable;
 import static io.jexxa.common.drivenadapter.persistence.RepositoryFactory.createRepository;
 import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
@@ -31,14 +36,34 @@ import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
  * This class encapsulates both parts, storing messages to a database within the transaction of the incoming method call
  * and the message relay part.
  * <br>
- * In the current implementation, we check each 300 ms if a new message is available that is then forwarded.
+ * In the current implementation, new messages wake up the message relay. Wake-ups are coalesced so that a burst of
+ * messages results in a single run of the message relay (see {@link OutboxRelayScheduler}). Additionally, the outbox
+ * is polled with an interval that backs off as long as the outbox is empty.
+ * <br>
+ * The message relay reads the outbox in batches ordered by the creation of the messages. Each batch is forwarded
+ * and removed from the outbox within its own transaction, so that the memory consumption is bounded by the
+ * batch size (see {@link TransactionalOutboxProperties#outboxBatchSize()}) and not by the size of the backlog.
+ * <br>
+ * Storing a message does not synchronize with the message relay. The message relay runs on its own thread and uses
+ * its own storage (see {@link IOutboxStorage#relayStorage()}), so that the latency of sending a message depends only
+ * on inserting it into the outbox and not on the round-trip to the message broker.
  */
 public class TransactionalOutboxSender extends MessageSender {
+    private static final int DEFAULT_BATCH_SIZE = 100;
+    private static final long DEFAULT_MAX_LATENCY = 0;
+    private static final long DEFAULT_POLL_INTERVAL = 300;
+    private static final long DEFAULT_MAX_POLL_INTERVAL = 5000;
     private static final List<TransactionalOutboxSender> TRANSACTIONAL_OUTBOX_SENDERS = new ArrayList<>();
+    private static final AtomicLong LAST_MESSAGE_TIMESTAMP = new AtomicLong();
     private static boolean cleanupRegistered = false;
-    private final ScheduledExecutorService executor = Executors.newScheduledThreadPool(1);
-    private IRepository<JexxaOutboxMessage, UUID> outboxRepository;
+    private final AtomicLong relayedMessages = new AtomicLong();
+    private IOutboxStorage outboxStorage;
+    private IOutboxStorage relayStorage;
     private MessageSender messageSender;
+    private OutboxRelayScheduler relayScheduler;
+    private final int batchSize;
+    private volatile double messagesPerSecond;
+    private volatile Instant lastRelay;
 
 
     @SuppressWarnings("unused") // factory method used by MessageSenderFactory
@@ -58,8 +83,10 @@ public class TransactionalOutboxSender extends MessageSender {
     private TransactionalOutboxSender(Properties properties)
     {
         validateProperties(properties);
+        this.batchSize = (int) readPositiveNumber(properties, outboxBatchSize(), DEFAULT_BATCH_SIZE);
         setupMessageStorage(properties);
         setupMessageSender(properties);
+        setupRelayScheduler(properties);
     }
 
     public static void cleanup()
@@ -69,17 +96,7 @@ public class TransactionalOutboxSender extends MessageSender {
     }
 
     void internalCleanup() {
-        try {
-            executor.shutdown();
-            if (!executor.awaitTermination(1, TimeUnit.SECONDS)) {
-                getLogger(this.getClass()).warn("Could not successfully stop running operations -> Force shutdown");
-                executor.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            executor.shutdownNow();
-            getLogger(TransactionalOutboxSender.class).warn("ExecutorService could not be stopped -> Interrupt thread.", e);
-            Thread.currentThread().interrupt();
-        }
+        relayScheduler.shutdown();
 
         if (messageSender instanceof AutoCloseable autoCloseable)
         {
@@ -94,58 +111,132 @@ public class TransactionalOutboxSender extends MessageSender {
 
     /**
      * This method is the entry point for the message relay part of the transactional outbox pattern.
-     * It calls method {@link #sendOutboxMessages()} in a transaction managed by the invocation manager
+     * It calls method {@link #sendOutboxMessages()} until the outbox is drained.
+     * <br>
+     * Since a batch is removed from the outbox only after all of its messages are sent, a failure results in
+     * resending the batch. So receivers must handle duplicate messages, e.g., by using an IdempotentListener.
      */
-    @SuppressWarnings("java:S1181")
     public void transactionalSend()
+    {
+        relayMessages();
+    }
+
+    @SuppressWarnings("java:S1181")
+    private long relayMessages()
     {
         try {
-            var handler = InvocationManager.getInvocationHandler(this);
-            handler.invoke(this, this::sendOutboxMessages);
-        } catch (InvocationTargetRuntimeException e)
-        {
-            getLogger(getClass()).warn("Could not send outbox messages. Reason: {}", e.getTargetException().getMessage());
-            getLogger(getClass()).debug("Stack Trace", e);
+            var startTime = System.nanoTime();
+            var relayedInThisRun = 0L;
+            int relayedInBatch;
+            do {
+                relayedInBatch = sendOutboxMessages();
+                relayedInThisRun += relayedInBatch;
+            } while (relayedInBatch == batchSize);
+
+            updateStatistics(relayedInThisRun, System.nanoTime() - startTime);
+            return relayedInThisRun;
         } catch (Throwable e)
         {
             getLogger(getClass()).error("{} occurred in transactionalSend. Reason: {}", e.getClass().getSimpleName(), e.getMessage());
             getLogger(getClass()).debug("Stack Trace", e);
+            return 0;
         }
     }
 
+    /**
+     * Returns the statistics of the message relay. Note: The backlog is determined by querying the outbox.
+     *
+     * @return current statistics of the message relay
+     */
+    public OutboxStatistics getStatistics()
+    {
+        return new OutboxStatistics(relayedMessages.get(), messagesPerSecond, relayStorage.size(), lastRelay);
+    }
+
     @Override
-    protected synchronized void sendToQueue(String message, String destination, Properties messageProperties, MessageType messageType) {
-        outboxRepository.add(new JexxaOutboxMessage(
-                UUID.randomUUID(), message,
+    protected void sendToQueue(String message, String destination, Properties messageProperties, MessageType messageType) {
+        outboxStorage.add(new JexxaOutboxMessage(
+                newMessageId(), message,
                 destination, messageProperties,
                 messageType, DestinationType.QUEUE));
-        executor.schedule( this::transactionalSend,0, TimeUnit.MICROSECONDS);
+        relayScheduler.messageAdded();
     }
 
     @Override
-    protected synchronized void sendToTopic(String message, String destination, Properties messageProperties, MessageType messageType) {
-        outboxRepository.add(new JexxaOutboxMessage(
-                UUID.randomUUID(), message,
+    protected void sendToTopic(String message, String destination, Properties messageProperties, MessageType messageType) {
+        outboxStorage.add(new JexxaOutboxMessage(
+                newMessageId(), message,
                 destination, messageProperties,
                 messageType, DestinationType.TOPIC));
-        executor.schedule( this::transactionalSend,0, TimeUnit.MICROSECONDS);
+        relayScheduler.messageAdded();
     }
 
-    private synchronized void sendOutboxMessages()
+    /**
+     * Forwards the oldest messages of the outbox as a single batch and removes them afterward.
+     *
+     * @return number of forwarded messages. If this number is less than the batch size, the outbox is drained.
+     */
+    private int sendOutboxMessages()
     {
-        outboxRepository.get().stream()
-            .filter(outboxMessage -> outboxMessage.destinationType.equals(DestinationType.QUEUE))
-            .forEach(outboxMessage -> {
-                sendToQueue(outboxMessage);
-                outboxRepository.remove(outboxMessage.messageId());
-            });
+        var outboxMessages = relayStorage.nextBatch(batchSize);
+        if (outboxMessages.isEmpty())
+        {
+            return 0; // Avoids a round-trip to the message broker on each poll of an empty outbox
+        }
+
+        try {
+            messageSender.sendBatch(_ -> outboxMessages.forEach(outboxMessage -> {
+                if (outboxMessage.destinationType().equals(DestinationType.QUEUE))
+                {
+                    sendToQueue(outboxMessage);
+                } else {
+                    sendToTopic(outboxMessage);
+                }
+            }));
+
+            // A batch must only be removed if all messages are acknowledged by the broker
+            if (messageSender instanceof JMSSender jmsSender)
+            {
+                jmsSender.flush();
+            }
 
-        outboxRepository.get().stream()
-            .filter(outboxMessage -> outboxMessage.destinationType.equals(DestinationType.TOPIC))
-            .forEach(outboxMessage -> {
-                sendToTopic(outboxMessage);
-                outboxRepository.remove(outboxMessage.messageId());
-            });
+            relayStorage.remove(outboxMessages);
+        } catch (RuntimeException e) {
+            relayStorage.release(outboxMessages);
+            throw e;
+        }
+
+        return outboxMessages.size();
+    }
+
+    private void updateStatistics(long relayedInThisRun, long durationInNanos)
+    {
+        if (relayedInThisRun == 0)
+        {
+            return;
+        }
+
+        relayedMessages.addAndGet(relayedInThisRun);
+        messagesPerSecond = relayedInThisRun / Math.max(durationInNanos / 1_000_000_000.0, Double.MIN_NORMAL);
+        lastRelay = Instant.now();
+
+        getLogger(getClass()).debug("Relayed {} messages with {} messages/s", relayedInThisRun, Math.round(messagesPerSecond));
+    }
+
+    /**
+     * Creates a time-ordered UUID (version 7). The JDBC outbox orders messages by its SEQUENCE_ID column and uses the
+     * id only to identify a message, e.g., as domain_event_id for idempotent receivers. An outbox stored in an
+     * IRepository has no such column, so that {@link RepositoryOutboxStorage} orders messages by this id.
+     * Within the same millisecond, the ids are ordered by a sequence number.
+     */
+    private static UUID newMessageId()
+    {
+        var currentTimestamp = System.currentTimeMillis() << 12;
+        var timestamp = LAST_MESSAGE_TIMESTAMP.updateAndGet(lastTimestamp -> Math.max(lastTimestamp + 1, currentTimestamp));
+
+        var mostSigBits = ((timestamp >>> 12) << 16) | 0x7000L | (timestamp & 0xFFFL);
+        var leastSigBits = (ThreadLocalRandom.current().nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(mostSigBits, leastSigBits);
     }
 
     @SuppressWarnings("ResultOfMethodCallIgnored")
@@ -193,31 +284,80 @@ public class TransactionalOutboxSender extends MessageSender {
         }
     }
 
+    private static long readNumber(Properties properties, String key, long defaultValue) {
+        if (!properties.containsKey(key))
+        {
+            return defaultValue;
+        }
+
+        try {
+            return Long.parseLong(properties.getProperty(key).trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + key + " must be a number but is " + properties.getProperty(key), e);
+        }
+    }
+
+    private static long readPositiveNumber(Properties properties, String key, long defaultValue) {
+        var value = readNumber(properties, key, defaultValue);
+        if (value <= 0 || value > Integer.MAX_VALUE)
+        {
+            throw new IllegalArgumentException("Property " + key + " must be greater than 0");
+        }
+        return value;
+    }
+
     private void setupMessageStorage(Properties properties) {
-        this.outboxRepository = createRepository(JexxaOutboxMessage.class
+        var hasOutboxTable = properties.containsKey(outboxTable()) && !properties.getProperty(outboxTable()).isEmpty();
+
+        if (JDBCKeyValueRepository.class.isAssignableFrom(RepositoryFactory.getRepository(JexxaOutboxMessage.class, properties)))
+        {
+            var storageName = hasOutboxTable ? properties.getProperty(outboxTable()) : JexxaOutboxMessage.class.getSimpleName();
+            var jdbcOutboxStorage = new JDBCOutboxStorage(storageName, properties);
+            jdbcOutboxStorage.init();
+
+            this.outboxStorage = jdbcOutboxStorage;
+            this.relayStorage = jdbcOutboxStorage.relayStorage();
+            return;
+        }
+
+        var outboxRepository = createRepository(JexxaOutboxMessage.class
                 , JexxaOutboxMessage::messageId
                 , properties );
 
-        if (this.outboxRepository instanceof IMDBRepository<JexxaOutboxMessage, UUID>) {
+        if (outboxRepository instanceof IMDBRepository<JexxaOutboxMessage, UUID>) {
             SLF4jLogger.getLogger(TransactionalOutboxSender.class).warn("Your TransactionalOutboxSender uses an IMDBRepository for persisting unsent messages. This might be fine for testing purposes. In production environment define a JDBC connection for proper message resend.");
         }
 
-        //Configure table name
-        if (this.outboxRepository instanceof JDBCKeyValueRepository<JexxaOutboxMessage, UUID>
-                && (properties.containsKey(outboxTable())
-                && !properties.getProperty(outboxTable()).isEmpty()))
-        {
-            ((JDBCKeyValueRepository<JexxaOutboxMessage, UUID >)(this.outboxRepository))
-                    .tableName(properties.getProperty(outboxTable()));
-        }
+        this.outboxStorage = new RepositoryOutboxStorage(outboxRepository);
+        this.relayStorage = outboxStorage.relayStorage();
     }
 
     private void setupMessageSender(Properties properties) {
-        setMessageSender(JMSSender.class, TransactionalOutboxSender.class); // Ensure that we get a JMSSender for internal sending
+        // Ensure that we get a JMSSender for internal sending. A specialized JMSSender registered for this class is kept.
+        if (!JMSSender.class.isAssignableFrom(getMessageSender(TransactionalOutboxSender.class, properties)))
+        {
+            setMessageSender(JMSSender.class, TransactionalOutboxSender.class);
+        }
 
         this.messageSender = createMessageSender(TransactionalOutboxSender.class, properties);
+    }
+
+    private void setupRelayScheduler(Properties properties) {
+        var maxLatency = readNumber(properties, outboxMaxLatency(), DEFAULT_MAX_LATENCY);
+        if (maxLatency < 0)
+        {
+            throw new IllegalArgumentException("Property " + outboxMaxLatency() + " must not be negative");
+        }
+
+        this.relayScheduler = new OutboxRelayScheduler(this::relayMessages
+                , maxLatency
+                , (int) readPositiveNumber(properties, outboxMaxBatch(), batchSize)
+                , readPositiveNumber(properties, outboxPollInterval(), DEFAULT_POLL_INTERVAL)
+                , readPositiveNumber(properties, outboxMaxPollInterval(), DEFAULT_MAX_POLL_INTERVAL));
 
-        executor.schedule( this::transactionalSend, 300, TimeUnit.MILLISECONDS);
+        // Signals messages to the message relay as soon as the writing transaction is closed
+        TransactionManager.registerTransactionHandler(relayScheduler);
+        relayScheduler.start();
     }
 
     enum DestinationType{ TOPIC, QUEUE }
@@ -118,6 +118,11 @@ public final class RepositoryFactory
         return getRepositoryType(null, properties);
     }
 
+    public static <T> Class<?> getRepository(Class<T> aggregateClazz, Properties properties)
+    {
+        return getRepositoryType(aggregateClazz, properties);
+    }
+
     @SuppressWarnings("unchecked")
     @CheckReturnValue
     private <T,K> IRepository<T,K> getRepositoryType(
@@ -0,0 +1,56 @@
+package io.jexxa.common.drivenadapter.persistence.objectstore.imdb;
+
+import io.jexxa.common.drivenadapter.persistence.objectstore.metadata.NumericTag;
+
+import java.util.stream.Stream;
+
+/**
+ * Sorted index of the keys of all aggregates by the value of a {@link NumericTag}.
+ * <p>
+ * Values are ordered by {@link NumericTag#compare(Number, Number)}, so that they are ordered independent of their
+ * numeric type, and numbers of the same primitive type are compared without allocation.
+ */
+class IMDBNumericIndex<T, K> extends IMDBSortedIndex<T, K, Number>
+{
+    private final NumericTag<T, ?> numericTag;
+
+    IMDBNumericIndex(NumericTag<T, ?> numericTag)
+    {
+        super(NumericTag::compare);
+        this.numericTag = numericTag;
+    }
+
+    @Override
+    protected Number getValue(T aggregate)
+    {
+        return numericTag.getFromAggregate(aggregate);
+    }
+
+    Stream<K> isNotEqualTo(Number value)
+    {
+        return Stream.of(
+                        flatten(getSortedKeys().headMap(value, false)),
+                        flatten(getSortedKeys().tailMap(value, false)),
+                        isNull())
+                .flatMap(keys -> keys);
+    }
+
+    Stream<K> isGreaterThan(Number value, boolean inclusive)
+    {
+        return flatten(getSortedKeys().tailMap(value, inclusive));
+    }
+
+    Stream<K> isLessThan(Number value, boolean inclusive)
+    {
+        return flatten(getSortedKeys().headMap(value, inclusive));
+    }
+
+    Stream<K> getRange(Number startValue, Number endValue, boolean endInclusive)
+    {
+        if (compare(startValue, endValue) > 0)
+        {
+            return Stream.empty();
+        }
+        return flatten(getSortedKeys().subMap(startValue, true, endValue, endInclusive));
+    }
+}
@@ -4,24 +4,26 @@ package io.jexxa.common.drivenadapter.persistence.objectstore.imdb;
 import io.jexxa.common.drivenadapter.persistence.objectstore.metadata.NumericTag;
 import io.jexxa.common.drivenadapter.persistence.objectstore.INumericQuery;
 
-import java.math.BigDecimal;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates a numeric query by using the sorted index of the numeric tag, so that only matching aggregates are read.
+ * Aggregates without a value are ordered last, both in ascending and descending order.
+ */
 class IMDBNumericQuery<T, K, S> implements INumericQuery<T, S>
 {
     private final NumericTag<T, S> numericTag;
     private final IMDBObjectStore<T, K, ?> objectStore;
+    private final Supplier<IMDBNumericIndex<T, K>> numericIndex;
 
-    private Map<K, T> getOwnAggregateMap()
-    {
-        return objectStore.getAggregates();
-    }
-
-    IMDBNumericQuery(IMDBObjectStore<T, K, ?> objectStore, NumericTag<T, S> numericTag, Class<S> queryType)
+    IMDBNumericQuery(IMDBObjectStore<T, K, ?> objectStore, Supplier<IMDBNumericIndex<T, K>> numericIndex, NumericTag<T, S> numericTag, Class<S> queryType)
     {
         this.objectStore = objectStore;
+        this.numericIndex = numericIndex;
         this.numericTag = numericTag;
         Objects.requireNonNull( queryType );//Type required for java type inference
     }
@@ -29,202 +31,110 @@ class IMDBNumericQuery<T, K, S> implements INumericQuery<T, S>
     @Override
     public List<T> isGreaterOrEqualThan(S startValue)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> numericTag.getFromAggregate(element) != null)
-                .filter(element -> compareToValue(element, startValue) >= 0)
-                .toList();
+        return getAggregates(numericIndex.get().isGreaterThan(toNumber(startValue), true));
     }
 
     @Override
     public List<T> isGreaterThan(S value)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> numericTag.getFromAggregate(element) != null)
-                .filter(element -> compareToValue(element, value) > 0)
-                .toList();
+        return getAggregates(numericIndex.get().isGreaterThan(toNumber(value), false));
     }
 
     @Override
     public List<T> getRangeClosed(S startValue, S endValue)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> numericTag.getFromAggregate(element) != null)
-                .filter(element -> compareToValue(element, startValue) >= 0)
-                .filter(element -> compareToValue(element, endValue) <= 0)
-                .toList();
+        return getAggregates(numericIndex.get().getRange(toNumber(startValue), toNumber(endValue), true));
     }
 
     @Override
     public List<T> getRange(S startValue, S endValue)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> numericTag.getFromAggregate(element) != null)
-                .filter(element -> compareToValue(element, startValue) >= 0)
-                .filter(element -> compareToValue(element, endValue) < 0)
-                .toList();
+        return getAggregates(numericIndex.get().getRange(toNumber(startValue), toNumber(endValue), false));
     }
 
     @Override
     public List<T> isLessOrEqualThan(S endValue)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> numericTag.getFromAggregate(element) != null)
-                .filter(element -> compareToValue(element, endValue) <= 0)
-                .toList();
+        return getAggregates(numericIndex.get().isLessThan(toNumber(endValue), true));
     }
 
     @Override
     public List<T> isLessThan(S endValue)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> numericTag.getFromAggregate(element) != null)
-                .filter(element -> compareToValue(element, endValue) < 0)
-                .toList();
+        return getAggregates(numericIndex.get().isLessThan(toNumber(endValue), false));
     }
 
     @Override
     public List<T> getAscending(int amount)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .sorted(this::compareToAggregate)
-                .limit(amount)
-                .toList();
+        return getAggregates(numericIndex.get().getAscending(), amount);
     }
 
     @Override
     public List<T> getAscending()
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .sorted(this::compareToAggregate)
-                .toList();
+        return getAggregates(numericIndex.get().getAscending());
     }
 
     @Override
     public List<T> getDescending(int amount)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .sorted((element1, element2) -> compareToAggregate(element2, element1))
-                .limit(amount)
-                .toList();
+        return getAggregates(numericIndex.get().getDescending(), amount);
     }
 
     @Override
     public List<T> getDescending()
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .sorted((element1, element2) -> compareToAggregate(element2, element1))
-                .toList();
+        return getAggregates(numericIndex.get().getDescending());
     }
 
     @Override
     public List<T> isEqualTo(S value)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter(element-> compareToValue(element, value) == 0)
-                .toList();
+        return getAggregates(numericIndex.get().isEqualTo(toNumber(value)));
     }
 
     @Override
     public List<T> isNotEqualTo(S value)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter(element-> compareToValue(element, value) != 0)
-                .toList();
+        return getAggregates(numericIndex.get().isNotEqualTo(toNumber(value)));
     }
 
     @Override
     public List<T> isNull()
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> numericTag.getFromAggregate(element) == null)
-                .toList();
+        return getAggregates(numericIndex.get().isNull());
     }
 
     @Override
     public List<T> isNotNull()
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> numericTag.getFromAggregate(element) != null)
-                .toList();
+        return getAggregates(numericIndex.get().isNotNull());
     }
 
-    private int compareToValue(T aggregate, S value)
+    private Number toNumber(S value)
     {
-        Objects.requireNonNull(aggregate);
-        Objects.requireNonNull(value);
-
-        var aggregateValue = numericTag.getFromAggregate(aggregate);
-
-        if(aggregateValue == null)
-        {
-            return 1;
-        }
-
-        return typeSpecificCompareTo(aggregateValue, numericTag.getFromValue(value));
+        return Objects.requireNonNull(numericTag.getFromValue(Objects.requireNonNull(value)));
     }
 
-    protected int typeSpecificCompareTo(Number value1, Number value2)
+    private List<T> getAggregates(Stream<K> keys)
     {
-        //Handle both != null
-        var aggregateValue1BD = new BigDecimal( value1.toString() );
-        var aggregateValue2BD = new BigDecimal( value2.toString() );
-        return aggregateValue1BD.compareTo(aggregateValue2BD);
+        return keys.map(objectStore::get)
+                .flatMap(Optional::stream)
+                .toList();
     }
-    /**
-     * Compares the value of the two aggregates which each other
-     *
-     * @param aggregate1 first aggregate
-     * @param aggregate2 second aggregate
-     * @return 0: If the value of aggregate1 is equal to value aggregate2 <br>
-     *     -1: If value of aggregate1 &lt; value of aggregate2 <br>
-     *     1: If value of aggregate1 &gt; value of aggregate2 <br>
-     *     1: If one of the given values is null <br>
-     */
-    @SuppressWarnings("DuplicatedCode")
-    private int compareToAggregate(T aggregate1, T aggregate2)
-    {
-        Objects.requireNonNull(aggregate1);
-        Objects.requireNonNull(aggregate2);
-
-        var aggregateValue1 = numericTag.getFromAggregate(aggregate1);
-        var aggregateValue2 = numericTag.getFromAggregate(aggregate2);
 
-        if ( aggregateValue1 == null && aggregateValue2 == null)
-        {
-            return 0;
-        } else if ( aggregateValue1 == null || aggregateValue2 == null)
+    // An aggregate that is removed after its key was read is skipped, so that the limit is applied to found aggregates
+    private List<T> getAggregates(Stream<K> keys, int amount)
+    {
+        if (amount <= 0)
         {
-            return 1;
+            return List.of();
         }
 
-        return typeSpecificCompareTo( aggregateValue1, aggregateValue2);
+        return keys.map(objectStore::get)
+                .flatMap(Optional::stream)
+                .limit(amount)
+                .toList();
     }
 }
@@ -9,19 +9,21 @@ import io.jexxa.common.drivenadapter.persistence.objectstore.IObjectStore;
 import io.jexxa.common.drivenadapter.persistence.objectstore.IStringQuery;
 import io.jexxa.common.drivenadapter.persistence.objectstore.metadata.MetadataSchema;
 import io.jexxa.common.drivenadapter.persistence.repository.imdb.IMDBRepository;
-import io.jexxa.common.facade.json.JSONManager;
 
 
 import java.util.EnumSet;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
-import java.util.stream.Collectors;
 
 @SuppressWarnings("rawtypes")
 public class IMDBObjectStore<T, K, M extends Enum<M> & MetadataSchema>  extends IMDBRepository<T, K> implements IObjectStore<T, K, M>
 {
+    private static final Map<Enum<?>, StringIndexMode> STRING_INDEX_MODES = new ConcurrentHashMap<>();
+
     private final Set<M> metaData;
 
     @SuppressWarnings("unused")
@@ -58,7 +60,7 @@ public class IMDBObjectStore<T, K, M extends Enum<M> & MetadataSchema>  extends
         //noinspection unchecked
         NumericTag<T, S> numericTag = (NumericTag) metaTag.getTag();
 
-        return new IMDBNumericQuery<>(this, numericTag, queryType);
+        return new IMDBNumericQuery<>(this, () -> getNumericIndex(metaTag, numericTag), numericTag, queryType);
     }
 
     @Override
@@ -73,17 +75,44 @@ public class IMDBObjectStore<T, K, M extends Enum<M> & MetadataSchema>  extends
         //noinspection unchecked
         StringTag<T, S> stringTag = (StringTag) metaTag.getTag();
 
-        return new IMDBStringQuery<>(this, stringTag, queryType);
+        return new IMDBStringQuery<>(this, () -> getStringIndex(metaTag, stringTag), stringTag, queryType);
+    }
+
+
+    /**
+     * Defines which string queries are supported by the index of given string tag. By default, the index supports
+     * beginsWith, endsWith and isEqualTo, see {@link StringIndexMode#SUFFIX}. If the index of the tag already exists,
+     * it is rebuilt with the next query.
+     *
+     * @param metaTag string tag of a metadata schema
+     * @param stringIndexMode defines the supported queries and thus the memory cost of the index
+     */
+    public static <M extends Enum<M> & MetadataSchema> void setStringIndexMode(M metaTag, StringIndexMode stringIndexMode)
+    {
+        Objects.requireNonNull(stringIndexMode);
+        if ( !(metaTag.getTag() instanceof StringTag) )
+        {
+            throw new IllegalArgumentException(metaTag.name() + " is not a string tag");
+        }
+
+        STRING_INDEX_MODES.put(metaTag, stringIndexMode);
+        removeIndex(metaTag);
     }
 
+    /**
+     * Returns the sorted index of given numeric tag. The index is created with the first query of this tag.
+     */
+    private IMDBNumericIndex<T, K> getNumericIndex(M metaTag, NumericTag<T, ?> numericTag)
+    {
+        return getIndex(metaTag, () -> new IMDBNumericIndex<>(numericTag));
+    }
 
-    Map<K, T> getAggregates()
+    /**
+     * Returns the index of given string tag. The index is created with the first query of this tag.
+     */
+    private IMDBStringIndex<T, K> getStringIndex(M metaTag, StringTag<T, ?> stringTag)
     {
-        Map<K, String> myggregateMap = getAggregateMap(getAggregateClazz());
-        return myggregateMap
-                .entrySet()
-                .stream()
-                .collect(Collectors.toMap(Map.Entry::getKey, entry -> JSONManager.getJSONConverter().fromJson(entry.getValue(), getAggregateClazz())));
+        return getIndex(metaTag, () -> new IMDBStringIndex<>(stringTag, STRING_INDEX_MODES.getOrDefault(metaTag, StringIndexMode.SUFFIX)));
     }
 
 }
@@ -0,0 +1,160 @@
+package io.jexxa.common.drivenadapter.persistence.objectstore.imdb;
+
+import io.jexxa.common.drivenadapter.persistence.repository.imdb.IAggregateIndex;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+
+/**
+ * Sorted index of the keys of all aggregates by a value of the aggregate. Keys of aggregates without a value are
+ * kept separately and returned after all other keys, both in ascending and descending order.
+ * <p>
+ * Subclasses define the indexed value and can maintain additional structures for the same value.
+ *
+ * @param <T> Defines the type of the aggregate
+ * @param <K> Defines the type of the key
+ * @param <V> Defines the type of the indexed value
+ */
+abstract class IMDBSortedIndex<T, K, V> implements IAggregateIndex<T, K>
+{
+    private final NavigableMap<V, Set<K>> sortedKeys;
+    private final Map<K, V> indexedValues = new ConcurrentHashMap<>();
+    private final Set<K> keysWithoutValue = ConcurrentHashMap.newKeySet();
+
+    protected IMDBSortedIndex(Comparator<? super V> valueComparator)
+    {
+        this.sortedKeys = new ConcurrentSkipListMap<>(valueComparator);
+    }
+
+    /**
+     * Returns the indexed value of given aggregate, or null if the aggregate has no value
+     */
+    protected abstract V getValue(T aggregate);
+
+    /**
+     * Called when a value is added to the index, while the index is locked
+     */
+    protected void onPut(K key, V value)
+    {
+        // No additional structures by default
+    }
+
+    /**
+     * Called when a value is removed from the index, while the index is locked
+     */
+    protected void onRemove(K key, V value)
+    {
+        // No additional structures by default
+    }
+
+    // Changes are synchronized, so that a set of keys is never removed while a key is added to it
+    @Override
+    public synchronized void put(K key, T aggregate)
+    {
+        remove(key);
+
+        var value = getValue(aggregate);
+        if (value == null)
+        {
+            keysWithoutValue.add(key);
+            return;
+        }
+
+        indexedValues.put(key, value);
+        addKey(sortedKeys, value, key);
+        onPut(key, value);
+    }
+
+    @Override
+    public synchronized void remove(K key)
+    {
+        keysWithoutValue.remove(key);
+
+        var value = indexedValues.remove(key);
+        if (value != null)
+        {
+            removeKey(sortedKeys, value, key);
+            onRemove(key, value);
+        }
+    }
+
+    Stream<K> isEqualTo(V value)
+    {
+        return sortedKeys.getOrDefault(value, Set.of()).stream();
+    }
+
+    Stream<K> isNull()
+    {
+        return keysWithoutValue.stream();
+    }
+
+    Stream<K> isNotNull()
+    {
+        return flatten(sortedKeys);
+    }
+
+    Stream<K> getAscending()
+    {
+        return Stream.concat(flatten(sortedKeys), keysWithoutValue.stream());
+    }
+
+    Stream<K> getDescending()
+    {
+        return Stream.concat(flatten(sortedKeys.descendingMap()), keysWithoutValue.stream());
+    }
+
+    protected int compare(V value1, V value2)
+    {
+        return sortedKeys.comparator().compare(value1, value2);
+    }
+
+    protected NavigableMap<V, Set<K>> getSortedKeys()
+    {
+        return sortedKeys;
+    }
+
+    /**
+     * Returns the indexed value of given key, or null if the key is not indexed or has no value
+     */
+    protected V getIndexedValue(K key)
+    {
+        return indexedValues.get(key);
+    }
+
+    /**
+     * Returns all indexed keys with a value, so that a query that is not supported by the index can be evaluated
+     * without reading the aggregates
+     */
+    protected Stream<Map.Entry<K, V>> getIndexedValues()
+    {
+        return indexedValues.entrySet().stream();
+    }
+
+    protected static <V, K> void addKey(Map<V, Set<K>> keyMap, V value, K key)
+    {
+        keyMap.computeIfAbsent(value, _ -> ConcurrentHashMap.newKeySet()).add(key);
+    }
+
+    protected static <V, K> void removeKey(Map<V, Set<K>> keyMap, V value, K key)
+    {
+        var keys = keyMap.get(value);
+        if (keys != null)
+        {
+            keys.remove(key);
+            if (keys.isEmpty())
+            {
+                keyMap.remove(value);
+            }
+        }
+    }
+
+    protected static <V, K> Stream<K> flatten(Map<V, Set<K>> keyMap)
+    {
+        return keyMap.values().stream().flatMap(Set::stream);
+    }
+}
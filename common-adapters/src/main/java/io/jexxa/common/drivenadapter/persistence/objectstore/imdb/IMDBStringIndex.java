@@ -0,0 +1,136 @@
+package io.jexxa.common.drivenadapter.persistence.objectstore.imdb;
+
+import io.jexxa.common.drivenadapter.persistence.objectstore.metadata.StringTag;
+
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Sorted index of the keys of all aggregates by the value of a {@link StringTag}. Depending on the
+ * {@link StringIndexMode}, the index also includes the reversed values and an inverted index of all trigrams.
+ */
+class IMDBStringIndex<T, K> extends IMDBSortedIndex<T, K, String>
+{
+    private static final int NGRAM_LENGTH = 3;
+
+    private final StringTag<T, ?> stringTag;
+    private final NavigableMap<String, Set<K>> reversedKeys;
+    private final Map<String, Set<K>> ngramKeys;
+
+    IMDBStringIndex(StringTag<T, ?> stringTag, StringIndexMode stringIndexMode)
+    {
+        super(Comparator.naturalOrder());
+        this.stringTag = stringTag;
+        this.reversedKeys = stringIndexMode == StringIndexMode.PREFIX ? null : new ConcurrentSkipListMap<>();
+        this.ngramKeys = stringIndexMode == StringIndexMode.NGRAM ? new ConcurrentHashMap<>() : null;
+    }
+
+    @Override
+    protected String getValue(T aggregate)
+    {
+        return stringTag.getFromAggregate(aggregate);
+    }
+
+    @Override
+    protected void onPut(K key, String value)
+    {
+        if (reversedKeys != null)
+        {
+            addKey(reversedKeys, reverse(value), key);
+        }
+        if (ngramKeys != null)
+        {
+            ngrams(value).forEach(ngram -> addKey(ngramKeys, ngram, key));
+        }
+    }
+
+    @Override
+    protected void onRemove(K key, String value)
+    {
+        if (reversedKeys != null)
+        {
+            removeKey(reversedKeys, reverse(value), key);
+        }
+        if (ngramKeys != null)
+        {
+            ngrams(value).forEach(ngram -> removeKey(ngramKeys, ngram, key));
+        }
+    }
+
+    Stream<K> beginsWith(String prefix)
+    {
+        return beginsWith(getSortedKeys(), prefix);
+    }
+
+    Stream<K> endsWith(String suffix)
+    {
+        if (reversedKeys == null)
+        {
+            return scan(value -> value.endsWith(suffix));
+        }
+        return beginsWith(reversedKeys, reverse(suffix));
+    }
+
+    Stream<K> includes(String value)
+    {
+        if (ngramKeys == null || value.length() < NGRAM_LENGTH)
+        {
+            return scan(indexedValue -> indexedValue.contains(value));
+        }
+
+        // Only keys that include all trigrams of the value can include the value. Starting with the smallest
+        // set of keys keeps the number of candidates low, which are then verified by their indexed value.
+        var keySets = ngrams(value).stream()
+                .map(ngram -> ngramKeys.getOrDefault(ngram, Set.of()))
+                .sorted(Comparator.comparingInt(Set::size))
+                .toList();
+
+        return keySets.getFirst().stream()
+                .filter(key -> keySets.stream().skip(1).allMatch(keys -> keys.contains(key)))
+                .filter(key -> {
+                    var indexedValue = getIndexedValue(key);
+                    return indexedValue != null && indexedValue.contains(value);
+                });
+    }
+
+    Stream<K> notIncludes(String value)
+    {
+        return scan(indexedValue -> !indexedValue.contains(value));
+    }
+
+    private Stream<K> scan(Predicate<String> predicate)
+    {
+        return getIndexedValues()
+                .filter(entry -> predicate.test(entry.getValue()))
+                .map(Map.Entry::getKey);
+    }
+
+    private static <K> Stream<K> beginsWith(NavigableMap<String, Set<K>> keyMap, String prefix)
+    {
+        return keyMap.tailMap(prefix, true).entrySet().stream()
+                .takeWhile(entry -> entry.getKey().startsWith(prefix))
+                .flatMap(entry -> entry.getValue().stream());
+    }
+
+    private static String reverse(String value)
+    {
+        return new StringBuilder(value).reverse().toString();
+    }
+
+    private static Set<String> ngrams(String value)
+    {
+        var ngrams = new HashSet<String>();
+        for (var i = 0; i + NGRAM_LENGTH <= value.length(); ++i)
+        {
+            ngrams.add(value.substring(i, i + NGRAM_LENGTH));
+        }
+        return ngrams;
+    }
+}
@@ -4,23 +4,26 @@ package io.jexxa.common.drivenadapter.persistence.objectstore.imdb;
 import io.jexxa.common.drivenadapter.persistence.objectstore.IStringQuery;
 import io.jexxa.common.drivenadapter.persistence.objectstore.metadata.StringTag;
 
-import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
-
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Evaluates a string query by using the index of the string tag, so that only matching aggregates are read.
+ * Aggregates without a value are ordered last, both in ascending and descending order.
+ */
 class IMDBStringQuery<T, K, S> implements IStringQuery<T, S>
 {
     private final StringTag<T, S> stringTag;
     private final IMDBObjectStore<T, K, ?> objectStore;
-    private Map<K, T> getOwnAggregateMap()
-    {
-        return objectStore.getAggregates();
-    }
+    private final Supplier<IMDBStringIndex<T, K>> stringIndex;
 
-    IMDBStringQuery(IMDBObjectStore<T, K, ?> objectStore, StringTag<T, S> stringTag, Class<S> queryType)
+    IMDBStringQuery(IMDBObjectStore<T, K, ?> objectStore, Supplier<IMDBStringIndex<T, K>> stringIndex, StringTag<T, S> stringTag, Class<S> queryType)
     {
         this.objectStore = objectStore;
+        this.stringIndex = stringIndex;
         this.stringTag = stringTag;
         Objects.requireNonNull( queryType );//Type required for java type inference
     }
@@ -29,151 +32,92 @@ class IMDBStringQuery<T, K, S> implements IStringQuery<T, S>
     @Override
     public List<T> beginsWith(S value)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> stringTag.getFromAggregate(element) != null)
-                .filter( element -> stringTag.getFromAggregate(element).startsWith(stringTag.getFromValue(value)))
-                .toList();
+        return getAggregates(stringIndex.get().beginsWith(toString(value)));
     }
 
     @Override
     public List<T> endsWith(S value)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> stringTag.getFromAggregate(element) != null)
-                .filter( element -> stringTag.getFromAggregate(element).endsWith(stringTag.getFromValue(value)))
-                .toList();
+        return getAggregates(stringIndex.get().endsWith(toString(value)));
     }
 
     @Override
     public List<T> includes(S value)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> stringTag.getFromAggregate(element) != null)
-                .filter( element -> stringTag.getFromAggregate(element).contains(stringTag.getFromValue(value)))
-                .toList();
+        return getAggregates(stringIndex.get().includes(toString(value)));
     }
 
     @Override
     public List<T> isEqualTo(S value)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> stringTag.getFromAggregate(element) != null)
-                .filter( element -> stringTag.getFromAggregate(element).equals(stringTag.getFromValue(value)))
-                .toList();
+        return getAggregates(stringIndex.get().isEqualTo(toString(value)));
     }
 
     @Override
     public List<T> notIncludes(S value)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> stringTag.getFromAggregate(element) != null)
-                .filter( element -> !stringTag.getFromAggregate(element).contains(stringTag.getFromValue(value)))
-                .toList();
+        return getAggregates(stringIndex.get().notIncludes(toString(value)));
     }
 
     @Override
     public List<T> isNull()
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> stringTag.getFromAggregate(element) == null)
-                .toList();
+        return getAggregates(stringIndex.get().isNull());
     }
 
     @Override
     public List<T> isNotNull()
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .filter( element -> stringTag.getFromAggregate(element) != null)
-                .toList();
+        return getAggregates(stringIndex.get().isNotNull());
     }
 
     @Override
     public List<T> getAscending(int amount)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .sorted(Comparator.comparing(stringTag::getFromAggregate))
-                .limit(amount)
-                .toList();
+        return getAggregates(stringIndex.get().getAscending(), amount);
     }
 
     @Override
     public List<T> getAscending()
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .sorted(this::compareToAggregate)
-                .toList();
+        return getAggregates(stringIndex.get().getAscending());
     }
 
     @Override
     public List<T> getDescending(int amount)
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .sorted((element1, element2) -> compareToAggregate(element2, element1))
-                .limit(amount)
-                .toList();
+        return getAggregates(stringIndex.get().getDescending(), amount);
     }
 
     @Override
     public List<T> getDescending()
     {
-        return getOwnAggregateMap()
-                .values()
-                .stream()
-                .sorted((element1, element2) -> compareToAggregate(element2, element1))
-                .toList();
+        return getAggregates(stringIndex.get().getDescending());
     }
 
-    protected int typeSpecificCompareTo(String value1, String value2)
+    private String toString(S value)
     {
-        return value1.compareTo(value2);
+        return Objects.requireNonNull(stringTag.getFromValue(Objects.requireNonNull(value)));
     }
 
-    /**
-     * Compares the value of the two aggregates which each other
-     *
-     * @param aggregate1 first aggregate
-     * @param aggregate2 second aggregate
-     * @return 0: If the value of aggregate1 is equal to value aggregate2 <br>
-     *     -1: If value of aggregate1 &lt; value of aggregate2 <br>
-     *     1: If value of aggregate1 &gt; value of aggregate2 <br>
-     */
-    @SuppressWarnings("DuplicatedCode")
-    private int compareToAggregate(T aggregate1, T aggregate2)
+    private List<T> getAggregates(Stream<K> keys)
     {
-        Objects.requireNonNull(aggregate1);
-        Objects.requireNonNull(aggregate2);
-
-        var aggregateValue1 = stringTag.getFromAggregate(aggregate1);
-        var aggregateValue2 = stringTag.getFromAggregate(aggregate2);
+        return keys.map(objectStore::get)
+                .flatMap(Optional::stream)
+                .toList();
+    }
 
-        if ( aggregateValue1 == null && aggregateValue2 == null)
-        {
-            return 0;
-        } else if ( aggregateValue1 == null || aggregateValue2 == null)
+    // An aggregate that is removed after its key was read is skipped, so that the limit is applied to found aggregates
+    private List<T> getAggregates(Stream<K> keys, int amount)
+    {
+        if (amount <= 0)
         {
-            return 1;
+            return List.of();
         }
 
-        return typeSpecificCompareTo( aggregateValue1, aggregateValue2);
+        return keys.map(objectStore::get)
+                .flatMap(Optional::stream)
+                .limit(amount)
+                .toList();
     }
 }
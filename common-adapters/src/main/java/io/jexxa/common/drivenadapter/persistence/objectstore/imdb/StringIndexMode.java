@@ -0,0 +1,19 @@
+package io.jexxa.common.drivenadapter.persistence.objectstore.imdb;
+
+/**
+ * Defines which string queries of an {@link IMDBObjectStore} are supported by the index of a string tag, see
+ * {@link IMDBObjectStore#setStringIndexMode(Enum, StringIndexMode)}. Each mode includes the previous one, so that
+ * memory cost increases with each mode. Queries that are not supported by the index scan the indexed values
+ * instead of the aggregates.
+ */
+public enum StringIndexMode
+{
+    /** Sorted values for beginsWith, isEqualTo and ordering */
+    PREFIX,
+
+    /** Additionally reversed values for endsWith. This is the default */
+    SUFFIX,
+
+    /** Additionally an inverted index of all trigrams for includes */
+    NGRAM
+}
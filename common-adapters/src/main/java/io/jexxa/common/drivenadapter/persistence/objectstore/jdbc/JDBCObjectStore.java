@@ -14,6 +14,7 @@ import io.jexxa.common.facade.jdbc.database.DatabaseManager;
 import io.jexxa.common.facade.jdbc.database.IDatabase;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.EnumSet;
 import java.util.List;
 import java.util.Objects;
@@ -78,60 +79,151 @@ public class JDBCObjectStore<T,K, M extends Enum<M> & MetadataSchema> extends JD
 
 
     @Override
-    public synchronized void update(T aggregate)
+    public void update(T aggregate)
     {
         Objects.requireNonNull(aggregate);
 
-        var valueSet = new ArrayList<JDBCObject>();
-        List<String> keySet = new ArrayList<>();
+        var command = getConnection()
+                .command(KeyValueSchema.class)
+                .update(tableName())
+                .set(updateColumns(), updateValues(aggregate))
+                .where(KeyValueSchema.REPOSITORY_KEY).isEqual(primaryKeyToJSONB(keyFunction.apply(aggregate)))
+                .create();
 
-        valueSet.add(valueToJSONB(aggregate));
+        command.asUpdate();
+    }
 
-        jdbcSchema.forEach(element -> valueSet.add( new JDBCObject(
-                element.getTag().getFromAggregate(aggregate),
-                typeToSQL(element.getTag().getTagType())) ));
+    @Override
+    public void updateAll(Collection<T> aggregates)
+    {
+        Objects.requireNonNull(aggregates);
+        if (aggregates.isEmpty())
+        {
+            return;
+        }
 
-        keySet.add(KeyValueSchema.REPOSITORY_VALUE.name());
-        jdbcSchema.forEach(element -> keySet.add(element.name()));
+        // The SQL depends only on the types of the values, so that it can be created from any aggregate
+        var anyAggregate = aggregates.iterator().next();
+        var sqlCommand = getConnection()
+                .command(KeyValueSchema.class)
+                .update(tableName())
+                .set(updateColumns(), updateValues(anyAggregate))
+                .where(KeyValueSchema.REPOSITORY_KEY).isEqual(primaryKeyToJSONB(keyFunction.apply(anyAggregate)))
+                .getStatement();
+
+        var command = getConnection().batchCommand(sqlCommand, aggregates.stream()
+                .map(aggregate -> {
+                    var arguments = jdbcValues(updateValues(aggregate));
+                    arguments.add(primaryKeyToJSONB(keyFunction.apply(aggregate)).getJdbcValue());
+                    return arguments;
+                }));
+
+        command.asUpdate();
+    }
 
-        var jdbcKey = primaryKeyToJSONB(keyFunction.apply(aggregate));
+
+    @Override
+    public void add(T aggregate)
+    {
+        Objects.requireNonNull(aggregate);
 
         var command = getConnection()
                 .command(KeyValueSchema.class)
-                .update(tableName())
-                .set(keySet.toArray(new String[0]), valueSet.toArray(new JDBCObject[0]))
-                .where(KeyValueSchema.REPOSITORY_KEY).isEqual(jdbcKey)
+                .insertInto(tableName())
+                .columns(insertColumns())
+                .values(insertValues(aggregate))
                 .create();
 
         command.asUpdate();
     }
 
-
+    /**
+     * Adds or updates the aggregate including its metadata with a single statement, see {@link IDatabase#upsert}
+     */
     @Override
-    public synchronized void add(T aggregate)
+    public void upsert(T aggregate)
     {
         Objects.requireNonNull(aggregate);
 
+        var command = database.upsert(getConnection().command(KeyValueSchema.class),
+                        tableName(),
+                        KeyValueSchema.REPOSITORY_KEY.name(),
+                        insertColumns(),
+                        insertValues(aggregate))
+                .create();
+
+        command.asUpdate();
+    }
+
+    @Override
+    public void addAll(Collection<T> aggregates)
+    {
+        Objects.requireNonNull(aggregates);
+        if (aggregates.isEmpty())
+        {
+            return;
+        }
+
+        // The SQL depends only on the types of the values, so that it can be created from any aggregate
+        var sqlCommand = getConnection()
+                .command(KeyValueSchema.class)
+                .insertInto(tableName())
+                .columns(insertColumns())
+                .values(insertValues(aggregates.iterator().next()))
+                .getStatement();
+
+        var command = getConnection().batchCommand(sqlCommand, aggregates.stream()
+                .map(aggregate -> jdbcValues(insertValues(aggregate))));
+
+        command.asUpdate();
+    }
+
+    private String[] insertColumns()
+    {
         List<String> keySet = new ArrayList<>();
         keySet.add(KeyValueSchema.REPOSITORY_KEY.name());
         keySet.add(KeyValueSchema.REPOSITORY_VALUE.name());
         jdbcSchema.forEach(element -> keySet.add(element.name()));
+        return keySet.toArray(new String[0]);
+    }
 
+    private JDBCObject[] insertValues(T aggregate)
+    {
         var objectList = new ArrayList<JDBCObject>();
         objectList.add (primaryKeyToJSONB(keyFunction.apply(aggregate)));
         objectList.add (valueToJSONB(aggregate));
         jdbcSchema.forEach(metaTag -> objectList.add(
                 new JDBCObject( metaTag.getTag().getFromAggregate(aggregate), typeToSQL(metaTag.getTag().getTagType())))
         );
+        return objectList.toArray(new JDBCObject[0]);
+    }
 
-        var command = getConnection()
-                .command(KeyValueSchema.class)
-                .insertInto(tableName())
-                .columns(keySet.toArray(new String[0]))
-                .values(objectList.toArray(new JDBCObject[0]))
-                .create();
+    private String[] updateColumns()
+    {
+        List<String> keySet = new ArrayList<>();
+        keySet.add(KeyValueSchema.REPOSITORY_VALUE.name());
+        jdbcSchema.forEach(element -> keySet.add(element.name()));
+        return keySet.toArray(new String[0]);
+    }
 
-        command.asUpdate();
+    private JDBCObject[] updateValues(T aggregate)
+    {
+        var valueSet = new ArrayList<JDBCObject>();
+        valueSet.add(valueToJSONB(aggregate));
+        jdbcSchema.forEach(element -> valueSet.add( new JDBCObject(
+                element.getTag().getFromAggregate(aggregate),
+                typeToSQL(element.getTag().getTagType())) ));
+        return valueSet.toArray(new JDBCObject[0]);
+    }
+
+    private static List<Object> jdbcValues(JDBCObject[] jdbcObjects)
+    {
+        var jdbcValues = new ArrayList<>(jdbcObjects.length + 1);
+        for (var jdbcObject : jdbcObjects)
+        {
+            jdbcValues.add(jdbcObject.getJdbcValue());
+        }
+        return jdbcValues;
     }
 
 
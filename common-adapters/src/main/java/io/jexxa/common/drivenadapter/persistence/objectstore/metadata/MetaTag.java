@@ -40,6 +40,17 @@ public abstract class MetaTag<T, S, V>
         return valueConverter.apply(value);
     }
 
+    /**
+     * Returns the value of type {@link S} stored in the aggregate {@link T} without converting it
+     * @param aggregate which provides the value
+     * @return {@link S} representing the value inside the aggregate, or null if the aggregate has no value
+     */
+    protected S getValue(T aggregate)
+    {
+        Objects.requireNonNull(aggregate);
+        return valueAccessor.apply(aggregate);
+    }
+
     /**
      * This method converts the value of type {@link S} stored in the aggregate to {@link V} by using the defined converter function
      * @param value which provides the value that should be converted
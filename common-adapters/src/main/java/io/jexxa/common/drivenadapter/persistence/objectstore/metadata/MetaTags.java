@@ -2,7 +2,10 @@ package io.jexxa.common.drivenadapter.persistence.objectstore.metadata;
 
 import java.math.BigDecimal;
 import java.time.Instant;
+import java.util.Comparator;
 import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToLongFunction;
 
 
 @SuppressWarnings({"unused","java:S1452"})
@@ -32,7 +35,38 @@ public final class MetaTags
      */
     public static <T, V extends Number> NumericTag<T, V> numericTag(Function<T,V> accessorFunction )
     {
-        return new NumericTag<>(accessorFunction, element -> element);
+        return new NumericTag<>(accessorFunction, element -> element, NumericTag::compare);
+    }
+
+    /**
+     * Factory method to create a MetaTag which compares the value of an aggregate as primitive long, so that values
+     * are compared without converting them into a {@link Number}
+     *
+     * @param accessor defines the method to get the value to be compared
+     * @param converter defines the converter function converting the value into a long
+     * @param <T> type of the aggregate
+     * @param <V> type of the value
+     * @return a MetaTag which compares defined value of an aggregate
+     */
+    public static <T, V> NumericTag<T, V> longTag(Function<T, V> accessor, ToLongFunction<V> converter)
+    {
+        return new NumericTag<>(accessor, converter::applyAsLong, Comparator.comparingLong(converter));
+    }
+
+    /**
+     * Factory method to create a MetaTag which compares the value of an aggregate as primitive double, so that values
+     * are compared without converting them into a {@link Number}
+     *
+     * @param accessor defines the method to get the value to be compared
+     * @param converter defines the converter function converting the value into a double
+     * @param <T> type of the aggregate
+     * @param <V> type of the value
+     * @return a MetaTag which compares defined value of an aggregate
+     */
+    public static <T, V> NumericTag<T, V> doubleTag(Function<T, V> accessor, ToDoubleFunction<V> converter)
+    {
+        return new NumericTag<>(accessor, converter::applyAsDouble,
+                (value1, value2) -> NumericTag.compareDoubles(converter.applyAsDouble(value1), converter.applyAsDouble(value2)));
     }
 
     /**
@@ -45,7 +79,7 @@ public final class MetaTags
     @SuppressWarnings("java:S5411")
     public static <T> NumericTag<T, Boolean> booleanTag(Function<T, Boolean> accessor )
     {
-        return new NumericTag<>(accessor, element -> element ? 1 : 0);
+        return new NumericTag<>(accessor, element -> element ? 1 : 0, Boolean::compare);
     }
 
     /**
@@ -78,7 +112,8 @@ public final class MetaTags
         public InstantTag(Function<T, Instant> accessor)
         {
             super(accessor
-                    , instant -> BigDecimal.valueOf(instant.getEpochSecond() * NANO).add( BigDecimal.valueOf(instant.getNano()))
+                    , instant -> BigDecimal.valueOf(instant.getEpochSecond()).multiply(BigDecimal.valueOf(NANO)).add( BigDecimal.valueOf(instant.getNano()))
+                    , Comparator.naturalOrder()
                     );
         }
 
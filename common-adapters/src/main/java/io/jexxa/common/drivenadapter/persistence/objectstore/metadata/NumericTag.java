@@ -1,5 +1,8 @@
 package io.jexxa.common.drivenadapter.persistence.objectstore.metadata;
 
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.Objects;
 import java.util.function.Function;
 
 /**
@@ -12,6 +15,9 @@ import java.util.function.Function;
  */
 public class NumericTag<T, S>  extends MetaTag<T, S, Number>
 {
+    private final Comparator<S> valueComparator;
+    private final Comparator<T> aggregateComparator = this::compareAggregates;
+
     /**
      * Creates a NumericTag
      *
@@ -20,8 +26,23 @@ public class NumericTag<T, S>  extends MetaTag<T, S, Number>
      */
     public NumericTag(Function<T, S> valueAccessor,
                       Function<S, ? extends Number> valueConverter)
+    {
+        this(valueAccessor, valueConverter, (value1, value2) -> compare(valueConverter.apply(value1), valueConverter.apply(value2)));
+    }
+
+    /**
+     * Creates a NumericTag with a type-specific comparator, so that values can be compared without converting them
+     *
+     * @param valueAccessor defines a function to access a specific value of the aggregate
+     * @param valueConverter defines a function that converts a searched value into a Number for comparison
+     * @param valueComparator compares two values in the same order as their converted numbers
+     */
+    public NumericTag(Function<T, S> valueAccessor,
+                      Function<S, ? extends Number> valueConverter,
+                      Comparator<S> valueComparator)
     {
         super(valueAccessor, valueConverter);
+        this.valueComparator = Objects.requireNonNull(valueComparator);
     }
 
     @Override
@@ -30,5 +51,95 @@ public class NumericTag<T, S>  extends MetaTag<T, S, Number>
         return Number.class;
     }
 
-}
+    /**
+     * Returns the type-specific comparator of the values of this tag
+     *
+     * @return comparator that compares two non-null values
+     */
+    public Comparator<S> getValueComparator()
+    {
+        return valueComparator;
+    }
+
+    /**
+     * Returns a comparator of aggregates by the value of this tag. An aggregate without a value is greater than
+     * an aggregate with a value.
+     *
+     * @return comparator of aggregates in ascending order
+     */
+    public Comparator<T> getComparator()
+    {
+        return aggregateComparator;
+    }
+
+    /**
+     * Compares the value of the aggregate with given value
+     *
+     * @param aggregate whose value is compared
+     * @param value non-null value to compare with
+     * @return a negative number, zero, or a positive number if the value of the aggregate is less than, equal to, or
+     *     greater than the given value. If the aggregate has no value, 1 is returned.
+     */
+    public int compareToValue(T aggregate, S value)
+    {
+        Objects.requireNonNull(value);
+
+        var aggregateValue = getValue(aggregate);
+        if (aggregateValue == null)
+        {
+            return 1;
+        }
+        return valueComparator.compare(aggregateValue, value);
+    }
 
+    /**
+     * Compares two numbers by their numeric value, independent of their type. Integral numbers and doubles are
+     * compared as primitive values, so that only numbers of other or mixed types are converted into BigDecimal.
+     *
+     * @param value1 first non-null number
+     * @param value2 second non-null number
+     * @return a negative number, zero, or a positive number if value1 is less than, equal to, or greater than value2
+     */
+    public static int compare(Number value1, Number value2)
+    {
+        if (isIntegral(value1) && isIntegral(value2))
+        {
+            return Long.compare(value1.longValue(), value2.longValue());
+        }
+        if (value1 instanceof Double && value2 instanceof Double)
+        {
+            return compareDoubles(value1.doubleValue(), value2.doubleValue());
+        }
+        return toBigDecimal(value1).compareTo(toBigDecimal(value2));
+    }
+
+    /**
+     * Compares two doubles like their decimal representation, so that 0.0 and -0.0 are equal
+     */
+    static int compareDoubles(double value1, double value2)
+    {
+        return value1 == value2 ? 0 : Double.compare(value1, value2);
+    }
+
+    private int compareAggregates(T aggregate1, T aggregate2)
+    {
+        var value1 = getValue(aggregate1);
+        var value2 = getValue(aggregate2);
+
+        if (value1 == null || value2 == null)
+        {
+            return Boolean.compare(value1 == null, value2 == null);
+        }
+        return valueComparator.compare(value1, value2);
+    }
+
+    private static boolean isIntegral(Number value)
+    {
+        return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+    }
+
+    private static BigDecimal toBigDecimal(Number value)
+    {
+        return value instanceof BigDecimal bigDecimal ? bigDecimal : new BigDecimal(value.toString());
+    }
+}
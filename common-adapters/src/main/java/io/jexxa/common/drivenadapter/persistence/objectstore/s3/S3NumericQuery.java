@@ -4,7 +4,6 @@ package io.jexxa.common.drivenadapter.persistence.objectstore.s3;
 import io.jexxa.common.drivenadapter.persistence.objectstore.INumericQuery;
 import io.jexxa.common.drivenadapter.persistence.objectstore.metadata.NumericTag;
 
-import java.math.BigDecimal;
 import java.util.List;
 import java.util.Objects;
 
@@ -94,11 +93,7 @@ class S3NumericQuery<T, K, S> implements INumericQuery<T, S>
     @Override
     public List<T> getAscending(int amount)
     {
-        return getAggregates()
-                .stream()
-                .sorted(this::compareToAggregate)
-                .limit(amount)
-                .toList();
+        return TopNSelection.selectFirst(getAggregates(), this::compareToAggregate, amount);
     }
 
     @Override
@@ -113,11 +108,7 @@ class S3NumericQuery<T, K, S> implements INumericQuery<T, S>
     @Override
     public List<T> getDescending(int amount)
     {
-        return getAggregates()
-                .stream()
-                .sorted((element1, element2) -> compareToAggregate(element2, element1)) //switch the order of attributes for descending
-                .limit(amount)
-                .toList();
+        return TopNSelection.selectFirst(getAggregates(), this::compareToAggregateDescending, amount);
     }
 
     @Override
@@ -125,28 +116,33 @@ class S3NumericQuery<T, K, S> implements INumericQuery<T, S>
     {
         return getAggregates()
                 .stream()
-                .sorted(
-                                (v1, v2) -> {
-                                    boolean v1Valid = isValidForComparison(v1);
-                                    boolean v2Valid = isValidForComparison(v2);
-
-                                    if (v1Valid && v2Valid) {
-                                        // both valid  → default sorting
-                                        return compareToAggregate(v2, v1); // descending
-                                    } else if (v1Valid) {
-                                        // nur v1 gültig → v1 kommt zuerst
-                                        return -1;
-                                    } else if (v2Valid) {
-                                        // nur v2 gültig → v2 kommt zuerst
-                                        return 1;
-                                    } else {
-                                        // beide ungültig → Reihenfolge egal, nulls ans Ende
-                                        return 0;
-                                    }
-                                })
+                .sorted(this::compareToAggregateDescending)
                 .toList();
     }
 
+    /**
+     * Compares the value of the two aggregates in descending order. Aggregates without value are at the end.
+     */
+    private int compareToAggregateDescending(T v1, T v2)
+    {
+        boolean v1Valid = isValidForComparison(v1);
+        boolean v2Valid = isValidForComparison(v2);
+
+        if (v1Valid && v2Valid) {
+            // both valid  → default sorting
+            return compareToAggregate(v2, v1); // descending
+        } else if (v1Valid) {
+            // nur v1 gültig → v1 kommt zuerst
+            return -1;
+        } else if (v2Valid) {
+            // nur v2 gültig → v2 kommt zuerst
+            return 1;
+        } else {
+            // beide ungültig → Reihenfolge egal, nulls ans Ende
+            return 0;
+        }
+    }
+
     private boolean isValidForComparison(T value) {
         return (value != null) && (numericTag.getFromAggregate(value) != null);
     }
@@ -192,58 +188,11 @@ class S3NumericQuery<T, K, S> implements INumericQuery<T, S>
 
     private int compareToValue(T aggregate, S value)
     {
-        Objects.requireNonNull(aggregate);
-        Objects.requireNonNull(value);
-
-        var aggregateValue = numericTag.getFromAggregate(aggregate);
-
-        if(aggregateValue == null)
-        {
-            return 1;
-        }
-
-        return typeSpecificCompareTo(aggregateValue, numericTag.getFromValue(value));
+        return numericTag.compareToValue(aggregate, value);
     }
 
-    protected int typeSpecificCompareTo(Number value1, Number value2)
-    {
-        //Handle both != null
-        var aggregateValue1BD = new BigDecimal( value1.toString() );
-        var aggregateValue2BD = new BigDecimal( value2.toString() );
-        return aggregateValue1BD.compareTo(aggregateValue2BD);
-    }
-
-    /**
-     * Compares the value of the two aggregates which each other
-     *
-     * @param aggregate1 first aggregate
-     * @param aggregate2 second aggregate
-     * @return 0: If the value of aggregate1 is equal to value aggregate2 <br>
-     *     -1: If value of aggregate1 &lt; value of aggregate2 <br>
-     *     1: If value of aggregate1 &gt; value of aggregate2 <br>
-     *     1: If aggregate1 is null <br>
-     *     -1: If aggregate2 is null <br>
-     */
-    @SuppressWarnings("DuplicatedCode")
     private int compareToAggregate(T aggregate1, T aggregate2)
     {
-        Objects.requireNonNull(aggregate1);
-        Objects.requireNonNull(aggregate2);
-
-        var aggregateValue1 = numericTag.getFromAggregate(aggregate1);
-        var aggregateValue2 = numericTag.getFromAggregate(aggregate2);
-
-        if ( aggregateValue1 == null && aggregateValue2 == null)
-        {
-            return 0;
-        } else if (aggregateValue1 == null)
-        {
-            return 1;
-        }else if (aggregateValue2 == null)
-        {
-            return -1;
-        }
-
-        return typeSpecificCompareTo( aggregateValue1, aggregateValue2);
+        return numericTag.getComparator().compare(aggregate1, aggregate2);
     }
 }
@@ -4,7 +4,6 @@ package io.jexxa.common.drivenadapter.persistence.objectstore.s3;
 import io.jexxa.common.drivenadapter.persistence.objectstore.IStringQuery;
 import io.jexxa.common.drivenadapter.persistence.objectstore.metadata.StringTag;
 
-import java.util.Comparator;
 import java.util.List;
 import java.util.Objects;
 
@@ -96,11 +95,7 @@ class S3StringQuery<T, K, S> implements IStringQuery<T, S>
     @Override
     public List<T> getAscending(int amount)
     {
-        return getOwnAggregateMap()
-                .stream()
-                .sorted(Comparator.comparing(stringTag::getFromAggregate))
-                .limit(amount)
-                .toList();
+        return TopNSelection.selectFirst(getOwnAggregateMap(), this::compareToAggregate, amount);
     }
 
     @Override
@@ -115,11 +110,7 @@ class S3StringQuery<T, K, S> implements IStringQuery<T, S>
     @Override
     public List<T> getDescending(int amount)
     {
-        return getOwnAggregateMap()
-                .stream()
-                .sorted((element1, element2) -> compareToAggregate(element2, element1))
-                .limit(amount)
-                .toList();
+        return TopNSelection.selectFirst(getOwnAggregateMap(), this::compareToAggregateDescending, amount);
     }
 
     @Override
@@ -127,7 +118,7 @@ class S3StringQuery<T, K, S> implements IStringQuery<T, S>
     {
         return getOwnAggregateMap()
                 .stream()
-                .sorted((element1, element2) -> compareToAggregate(element2, element1))
+                .sorted(this::compareToAggregateDescending)
                 .toList();
     }
 
@@ -144,9 +135,24 @@ class S3StringQuery<T, K, S> implements IStringQuery<T, S>
      * @return 0: If the value of aggregate1 is equal to value aggregate2 <br>
      *     -1: If value of aggregate1 &lt; value of aggregate2 <br>
      *     1: If value of aggregate1 &gt; value of aggregate2 <br>
+     *     A null value is greater than a non-null value.
      */
-    @SuppressWarnings("DuplicatedCode")
     private int compareToAggregate(T aggregate1, T aggregate2)
+    {
+        return compareValues(aggregate1, aggregate2, false);
+    }
+
+    /**
+     * Compares the value of the two aggregates in descending order. A null value is still greater than a non-null
+     * value, so that aggregates without value are at the end in both orders.
+     */
+    private int compareToAggregateDescending(T aggregate1, T aggregate2)
+    {
+        return compareValues(aggregate1, aggregate2, true);
+    }
+
+    @SuppressWarnings("DuplicatedCode")
+    private int compareValues(T aggregate1, T aggregate2, boolean descending)
     {
         Objects.requireNonNull(aggregate1);
         Objects.requireNonNull(aggregate2);
@@ -157,11 +163,16 @@ class S3StringQuery<T, K, S> implements IStringQuery<T, S>
         if ( aggregateValue1 == null && aggregateValue2 == null)
         {
             return 0;
-        } else if ( aggregateValue1 == null || aggregateValue2 == null)
+        } else if ( aggregateValue1 == null )
         {
             return 1;
+        } else if ( aggregateValue2 == null )
+        {
+            return -1;
         }
 
-        return typeSpecificCompareTo( aggregateValue1, aggregateValue2);
+        return descending
+                ? typeSpecificCompareTo( aggregateValue2, aggregateValue1)
+                : typeSpecificCompareTo( aggregateValue1, aggregateValue2);
     }
 }
@@ -0,0 +1,107 @@
+package io.jexxa.common.drivenadapter.persistence.objectstore.s3;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.stream.Collector;
+import java.util.stream.IntStream;
+
+/**
+ * Selects the first elements of a collection in the order of a comparator without sorting the whole collection.
+ * <p>
+ * Each thread keeps the selected elements in a bounded heap whose head is the greatest selected element, so that
+ * selecting n of m elements requires O(m log n) comparisons and O(n) memory. Large collections are split into parts
+ * that are selected in parallel and then merged.
+ * <p>
+ * Elements that are equal according to the comparator are returned in the order of the collection, so that the result
+ * is equal to the first elements of a stable sort.
+ */
+final class TopNSelection
+{
+    // Below this size, splitting the collection costs more than it saves
+    private static final int PARALLEL_THRESHOLD = 10_000;
+
+    /**
+     * Returns the first elements in ascending order of the comparator
+     *
+     * @param elements to select from
+     * @param comparator defines the order of the elements
+     * @param amount maximum number of returned elements. If the amount is &lt;= 0, an empty list is returned
+     * @return list of at most amount elements in ascending order
+     */
+    static <T> List<T> selectFirst(Collection<T> elements, Comparator<? super T> comparator, int amount)
+    {
+        if (amount <= 0)
+        {
+            return List.of();
+        }
+
+        if (amount >= elements.size())
+        {
+            return elements.stream().sorted(comparator).toList();
+        }
+
+        var elementList = elements instanceof List<T> list ? list : new ArrayList<>(elements);
+        var indices = IntStream.range(0, elementList.size());
+        if (elementList.size() >= PARALLEL_THRESHOLD)
+        {
+            indices = indices.parallel();
+        }
+
+        return indices
+                .mapToObj(index -> new IndexedElement<T>(elementList.get(index), index))
+                .collect(boundedHeap(IndexedElement.comparing(comparator), amount))
+                .stream()
+                .map(IndexedElement::element)
+                .toList();
+    }
+
+    private record IndexedElement<T>(T element, int index)
+    {
+        static <T> Comparator<IndexedElement<T>> comparing(Comparator<? super T> comparator)
+        {
+            return (element1, element2) -> {
+                var result = comparator.compare(element1.element(), element2.element());
+                return result != 0 ? result : Integer.compare(element1.index(), element2.index());
+            };
+        }
+    }
+
+    private static <T> Collector<T, PriorityQueue<T>, List<T>> boundedHeap(Comparator<? super T> comparator, int amount)
+    {
+        Comparator<T> reversedComparator = (element1, element2) -> comparator.compare(element2, element1);
+
+        return Collector.of(
+                () -> new PriorityQueue<>(amount + 1, reversedComparator),
+                (heap, element) -> offer(heap, element, comparator, amount),
+                (heap, otherHeap) -> {
+                    otherHeap.forEach(element -> offer(heap, element, comparator, amount));
+                    return heap;
+                },
+                heap -> {
+                    var result = new ArrayList<>(heap);
+                    result.sort(comparator);
+                    return List.copyOf(result);
+                });
+    }
+
+    private static <T> void offer(PriorityQueue<T> heap, T element, Comparator<? super T> comparator, int amount)
+    {
+        if (heap.size() < amount)
+        {
+            heap.add(element);
+        }
+        else if (comparator.compare(element, heap.peek()) < 0)
+        {
+            heap.poll();
+            heap.add(element);
+        }
+    }
+
+    private TopNSelection()
+    {
+        //private constructor
+    }
+}
@@ -1,7 +1,11 @@
 package io.jexxa.common.drivenadapter.persistence.repository;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Interface for all strategies for the implementation of a repository in terms of DDD
@@ -46,6 +50,52 @@ public interface IRepository<T, K>
      */
     void add(T aggregate);
 
+    /**
+     * Adds the given aggregate, or updates it if it is already managed by this repository. An implementation
+     * should do this with a single request. The default implementation first tries to update the aggregate.
+     * @param aggregate that should be added or updated
+     */
+    default void upsert(T aggregate)
+    {
+        try {
+            update(aggregate);
+        } catch (IllegalArgumentException _) {
+            add(aggregate);
+        }
+    }
+
+    /**
+     * Adds all given aggregates to this repository. Depending on the implementation, the aggregates are written in
+     * batches or in parallel.
+     * @param aggregates that should be added
+     * @pre None of the aggregates must be added before
+     */
+    default void addAll(Collection<T> aggregates)
+    {
+        aggregates.forEach(this::add);
+    }
+
+    /**
+     * Updates all given aggregates inside the repository. Depending on the implementation, the aggregates are
+     * written in batches or in parallel.
+     * @param aggregates that should be updated
+     * @pre All aggregates must be added by using {@link #add(Object)} or {@link #addAll(Collection)}
+     */
+    default void updateAll(Collection<T> aggregates)
+    {
+        aggregates.forEach(this::update);
+    }
+
+    /**
+     * Removes all aggregates identified by the given keys.
+     * @param keys of the aggregates to be removed
+     * @pre All aggregates must be added by using {@link #add(Object)} or {@link #addAll(Collection)}
+     */
+    default void removeAll(Collection<K> keys)
+    {
+        keys.forEach(this::remove);
+    }
+
     /**
      * Returns the aggregate identified by the given key.
      * @param key that identifies the aggregate
@@ -53,9 +103,34 @@ public interface IRepository<T, K>
      */
     Optional<T> get(K key);
 
+    /**
+     * Returns all aggregates identified by the given keys. Depending on the implementation, the aggregates are loaded
+     * with few requests or in parallel.
+     * @param keys that identify the aggregates
+     * @return map from key to aggregate. Keys that find no aggregate are not included.
+     */
+    default Map<K, T> get(Collection<K> keys)
+    {
+        var result = new HashMap<K, T>();
+        keys.forEach(key -> get(key).ifPresent(aggregate -> result.put(key, aggregate)));
+        return result;
+    }
+
     /**
      * Returns all aggregates managed by this repository
      * @return list of aggregates
      */
     List<T> get();
+
+    /**
+     * Returns all aggregates managed by this repository as a stream. In contrast to {@link #get()}, an implementation
+     * can load the aggregates lazily while the stream is consumed, so that all aggregates can be processed in
+     * constant memory. Therefore, the returned stream must be closed, e.g., by using try-with-resources.
+     *
+     * @return stream of all aggregates that must be closed
+     */
+    default Stream<T> stream()
+    {
+        return get().stream();
+    }
 }
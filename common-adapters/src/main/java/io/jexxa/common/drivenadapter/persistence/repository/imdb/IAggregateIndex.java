@@ -0,0 +1,29 @@
+package io.jexxa.common.drivenadapter.persistence.repository.imdb;
+
+/**
+ * Secondary index over the aggregates of a type that are stored in an {@link IMDBRepository}.
+ * <p>
+ * An index is updated by each IMDBRepository of this type, while the key of the changed aggregate is locked.
+ * So an index must only ensure that updates for different keys can be executed concurrently.
+ *
+ * @param <T> Defines the type of the aggregate
+ * @param <K> Defines the type of the key
+ */
+public interface IAggregateIndex<T, K>
+{
+    /**
+     * Adds the aggregate with given key to the index, or replaces the entry of a previous version of this aggregate.
+     * The given aggregate must not be stored by the index.
+     *
+     * @param key of the aggregate
+     * @param aggregate that is added or updated
+     */
+    void put(K key, T aggregate);
+
+    /**
+     * Removes the aggregate with given key from the index. If the key is not indexed, the index is unchanged.
+     *
+     * @param key of the removed aggregate
+     */
+    void remove(K key);
+}
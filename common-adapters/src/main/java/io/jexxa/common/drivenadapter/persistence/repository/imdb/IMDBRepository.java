@@ -5,6 +5,8 @@ package io.jexxa.common.drivenadapter.persistence.repository.imdb;
 import io.jexxa.common.drivenadapter.persistence.repository.IRepository;
 import io.jexxa.common.facade.json.JSONManager;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
@@ -12,13 +14,30 @@ import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 
+/**
+ * In-memory repository that keeps the aggregates of a type in a map, which is shared by all repositories of this type.
+ * <p>
+ * By default, aggregates are stored as JSON, so that the application can never change a stored aggregate.
+ * Alternatively, aggregates of a type can be stored as objects by using {@link #setCopier(Class, UnaryOperator)}
+ * or {@link #setImmutable(Class)}. This provides the same isolation, but avoids serializing each aggregate.
+ * <p>
+ * Subclasses can maintain secondary indexes of a type, see {@link #getIndex(Object, Supplier)}. Each write changes
+ * the map and all indexes of the type while the key of the aggregate is locked, so that they are consistent per key.
+ */
 public class IMDBRepository<T, K>  implements IRepository<T, K>
 {
-    // Each IMDB repository is represented by a map for a specific type.
-    private static final Map< Class<?>, Map<?,String>> REPOSITORY_MAP = new ConcurrentHashMap<>();
+    // Each IMDB repository is represented by a map for a specific type. Depending on the storage mode of the type,
+    // a stored aggregate is either a JSON string or an object that is never passed to the application.
+    private static final Map< Class<?>, Map<?,Object>> REPOSITORY_MAP = new ConcurrentHashMap<>();
     private static final Map< Class<?>, IMDBRepository<?,?> > IMDB_REPOSITORY_MAP = new ConcurrentHashMap<>();
+    private static final Map< Class<?>, UnaryOperator<?> > COPIER_MAP = new ConcurrentHashMap<>();
+    private static final Map< Class<?>, Map<Object, RegisteredIndex> > INDEX_MAP = new ConcurrentHashMap<>();
 
     private final Function<T,K> keyFunction;
     private final Class<T> aggregateClazz;
@@ -45,73 +64,199 @@ public class IMDBRepository<T, K>  implements IRepository<T, K>
     public void update(T aggregate)
     {
         Objects.requireNonNull(aggregate);
-        if (! getAggregateMap(aggregateClazz).containsKey( keyFunction.apply(aggregate)))
-        {
-            var keyAsString = keyFunction.apply(aggregate).getClass().getSimpleName()
-                    + JSONManager.getJSONConverter().toJson(keyFunction.apply(aggregate));
-            throw new IllegalArgumentException(IMDBRepository.class.getSimpleName()
-                    + ": An object with given key "
-                    + keyAsString
-                    + " does not exists");
-        } else {
-            getAggregateMap(aggregateClazz).put(keyFunction.apply(aggregate), JSONManager.getJSONConverter().toJson(aggregate));
-        }
+        updateAggregate(getAggregateMap(aggregateClazz), keyFunction.apply(aggregate), aggregate, toStorage(aggregate));
     }
 
     @Override
     public void remove(K key)
     {
-        if ( getAggregateMap(aggregateClazz).remove( key ) == null)
-        {
-            var keyAsString = key.getClass().getSimpleName() + JSONManager.getJSONConverter().toJson(key);
-            throw new IllegalArgumentException(IMDBRepository.class.getSimpleName()
-                    + ": An object with given "
-                    + keyAsString
-                    + "key does not exists");
-        }
+        getAggregateMap(aggregateClazz).compute(key, (_, currentAggregate) -> {
+            if (currentAggregate == null)
+            {
+                throw new IllegalArgumentException(IMDBRepository.class.getSimpleName()
+                        + ": An object with given "
+                        + keyAsString(key)
+                        + "key does not exists");
+            }
+            removeIndexes(key);
+            return null;
+        });
     }
 
     @Override
     public void removeAll()
     {
-        getAggregateMap(aggregateClazz).clear();
+        Map<K, Object> aggregateMap = getAggregateMap(aggregateClazz);
+        aggregateMap.keySet().forEach(key -> removeAggregate(aggregateMap, key));
     }
 
     @Override
     public void add(T aggregate)
     {
-        if (getAggregateMap(aggregateClazz).containsKey( keyFunction.apply(aggregate)))
-        {
-            var keyAsString = keyFunction.apply(aggregate).getClass().getSimpleName()
-                    + JSONManager.getJSONConverter().toJson(keyFunction.apply(aggregate));
-            throw new IllegalArgumentException(IMDBRepository.class.getSimpleName()
-                    + ": An object with given key "
-                    + keyAsString
-                    + " already exists");
+        addAggregate(getAggregateMap(aggregateClazz), keyFunction.apply(aggregate), aggregate, toStorage(aggregate));
+    }
+
+    @Override
+    public void upsert(T aggregate)
+    {
+        Objects.requireNonNull(aggregate);
+        storeAggregate(getAggregateMap(aggregateClazz), keyFunction.apply(aggregate), aggregate, toStorage(aggregate));
+    }
+
+    /**
+     * Adds all aggregates at once. The aggregates are serialized or copied in parallel before any of them is added.
+     * Each aggregate is added with the same check as {@link #add(Object)}. If one of the aggregates already exists,
+     * the aggregates added by this call are removed again.
+     */
+    @Override
+    public void addAll(Collection<T> aggregates)
+    {
+        Map<K, Object> aggregateMap = getAggregateMap(aggregateClazz);
+        var serializedAggregates = serialize(aggregates);
+        var addedAggregates = new HashMap<K, Object>();
+
+        try {
+            aggregates.forEach(aggregate -> {
+                var key = keyFunction.apply(aggregate);
+                addAggregate(aggregateMap, key, aggregate, serializedAggregates.get(key));
+                addedAggregates.put(key, serializedAggregates.get(key));
+            });
+        } catch (RuntimeException e) {
+            addedAggregates.forEach((key, storedAggregate) -> aggregateMap.computeIfPresent(key, (_, currentAggregate) -> {
+                if (currentAggregate != storedAggregate)
+                {
+                    return currentAggregate; // Changed concurrently, so that it is no longer owned by this call
+                }
+                removeIndexes(key);
+                return null;
+            }));
+            throw e;
+        }
+    }
+
+    /**
+     * Updates all aggregates at once. The aggregates are serialized or copied in parallel before any of them is updated.
+     * Each aggregate is updated with the same check as {@link #update(Object)}. If one of the aggregates does not
+     * exist, the aggregates updated by this call are restored.
+     */
+    @Override
+    public void updateAll(Collection<T> aggregates)
+    {
+        Map<K, Object> aggregateMap = getAggregateMap(aggregateClazz);
+        var serializedAggregates = serialize(aggregates);
+        var previousAggregates = new HashMap<K, Object>();
+
+        try {
+            aggregates.forEach(aggregate -> {
+                var key = keyFunction.apply(aggregate);
+                previousAggregates.put(key, updateAggregate(aggregateMap, key, aggregate, serializedAggregates.get(key)));
+            });
+        } catch (RuntimeException e) {
+            previousAggregates.forEach((key, previousAggregate) -> aggregateMap.computeIfPresent(key, (_, currentAggregate) -> {
+                if (currentAggregate != serializedAggregates.get(key))
+                {
+                    return currentAggregate; // Changed concurrently, so that it is no longer owned by this call
+                }
+                putIndexes(key, fromStorage(previousAggregate));
+                return previousAggregate;
+            }));
+            throw e;
         }
-        getAggregateMap(aggregateClazz).put(keyFunction.apply(aggregate), JSONManager.getJSONConverter().toJson(aggregate));
+    }
+
+    @Override
+    public void removeAll(Collection<K> keys)
+    {
+        Map<K, Object> aggregateMap = getAggregateMap(aggregateClazz);
+
+        keys.stream()
+                .filter(key -> !aggregateMap.containsKey(key))
+                .findAny()
+                .ifPresent(key -> { throw new IllegalArgumentException(IMDBRepository.class.getSimpleName()
+                        + ": An object with given "
+                        + keyAsString(key)
+                        + "key does not exists"); });
+
+        keys.forEach(key -> removeAggregate(aggregateMap, key));
     }
 
     @Override
     public Optional<T> get(K primaryKey)
     {
-        if (getAggregateMap(aggregateClazz).containsKey(primaryKey)) {
-            return Optional.of(JSONManager.getJSONConverter().fromJson(getAggregateMap(aggregateClazz).get(primaryKey), aggregateClazz));
-        }
-        return Optional.empty();
+        return Optional.ofNullable(getAggregateMap(aggregateClazz).get(primaryKey))
+                .map(this::fromStorage);
     }
 
 
+    /**
+     * Looks up all keys in the map of this repository, without serializing the keys.
+     */
+    @Override
+    public Map<K, T> get(Collection<K> keys)
+    {
+        Map<K, Object> aggregateMap = getAggregateMap(aggregateClazz);
+        var result = new HashMap<K, T>();
+
+        keys.forEach(key -> {
+            var aggregate = aggregateMap.get(key);
+            if (aggregate != null)
+            {
+                result.put(key, fromStorage(aggregate));
+            }
+        });
+
+        return result;
+    }
+
     @Override
     public List<T> get()
     {
         return getAggregateMap(aggregateClazz)
                 .values()
                 .stream()
-                .map( element -> JSONManager.getJSONConverter().fromJson(element, aggregateClazz))
+                .map(this::fromStorage)
                 .toList();
     }
 
+    /**
+     * Stores aggregates of the given type as objects instead of JSON. The given copier must return a deep copy of an
+     * aggregate. It is applied when an aggregate is written and when it is read, so that the application can never
+     * change a stored aggregate.
+     * <p>
+     * The storage mode of a type can only be changed as long as no aggregate of this type is stored.
+     *
+     * @param aggregateClazz type of the aggregates
+     * @param copier that returns a deep copy of an aggregate
+     */
+    public static <T> void setCopier(Class<T> aggregateClazz, UnaryOperator<T> copier)
+    {
+        Objects.requireNonNull(copier);
+        validateStorageModeChange(aggregateClazz);
+        COPIER_MAP.put(aggregateClazz, copier);
+    }
+
+    /**
+     * Stores aggregates of the given type as objects without copying them. This must only be used if an aggregate
+     * cannot be changed after its creation, such as a record of immutable values.
+     *
+     * @param aggregateClazz type of the aggregates
+     */
+    public static <T> void setImmutable(Class<T> aggregateClazz)
+    {
+        setCopier(aggregateClazz, UnaryOperator.identity());
+    }
+
+    /**
+     * Stores aggregates of the given type as JSON, which is the default storage mode.
+     *
+     * @param aggregateClazz type of the aggregates
+     */
+    public static <T> void resetCopier(Class<T> aggregateClazz)
+    {
+        validateStorageModeChange(aggregateClazz);
+        COPIER_MAP.remove(aggregateClazz);
+    }
+
     /**
      * This method resets all IMDBRepositories instance within an application and removes all stored objects!
      * <p>
@@ -122,12 +267,219 @@ public class IMDBRepository<T, K>  implements IRepository<T, K>
         IMDB_REPOSITORY_MAP.forEach( (_, repository) -> repository.removeAll() );
         REPOSITORY_MAP.forEach( (_, imdbMap) -> imdbMap.clear() );
         REPOSITORY_MAP.clear();
+        INDEX_MAP.clear();
+    }
+
+    /**
+     * Returns the index of this type with given id. If the index does not exist, it is created by the given supplier
+     * and all stored aggregates are added to it. Afterward, the index is updated by all IMDBRepositories of this type,
+     * until {@link #clear()} is called.
+     *
+     * @param indexId unique id of the index within this type
+     * @param indexSupplier creates a new and empty index
+     * @return index that includes all stored aggregates
+     */
+    @SuppressWarnings("unchecked")
+    protected <I extends IAggregateIndex<T, K>> I getIndex(Object indexId, Supplier<I> indexSupplier)
+    {
+        var indexes = INDEX_MAP.computeIfAbsent(aggregateClazz, _ -> new ConcurrentHashMap<>());
+        var registeredIndex = indexes.get(indexId);
+        if (registeredIndex == null || !registeredIndex.isBuilt())
+        {
+            registeredIndex = createIndex(indexes, indexId, indexSupplier);
+        }
+        return (I) registeredIndex.index();
+    }
+
+    /**
+     * Removes the index with given id from all types, so that it is no longer updated. The next call of
+     * {@link #getIndex(Object, Supplier)} with this id creates a new index.
+     *
+     * @param indexId id of the index
+     */
+    protected static void removeIndex(Object indexId)
+    {
+        INDEX_MAP.values().forEach(indexes -> {
+            synchronized (indexes)
+            {
+                indexes.remove(indexId);
+            }
+        });
+    }
+
+    /**
+     * Returns all aggregates of this repository for read-only access, e.g., to evaluate a query. If aggregates are
+     * stored as objects, these are the stored aggregates. So they must not be changed, and they must be passed
+     * to the application by using {@link #detach(Object)}.
+     */
+    protected Stream<T> internalAggregates()
+    {
+        return getAggregateMap(aggregateClazz).values().stream()
+                .map(this::toInternalAggregate);
+    }
+
+    /**
+     * Returns an aggregate of {@link #internalAggregates()} that can be passed to the application.
+     */
+    protected T detach(T internalAggregate)
+    {
+        var copier = copier();
+        return copier == null ? internalAggregate : copier.apply(internalAggregate);
     }
 
+    // The map is created atomically by computeIfAbsent, so that accessing it requires no lock
     @SuppressWarnings("unchecked")
-    protected static synchronized <T> Map<T, String> getAggregateMap(Class<?> aggregateClazz)
+    protected static <T> Map<T, Object> getAggregateMap(Class<?> aggregateClazz)
+    {
+        return (Map<T, Object>)REPOSITORY_MAP.computeIfAbsent(aggregateClazz, _ -> new ConcurrentHashMap<T,Object>());
+    }
+
+    private static void validateStorageModeChange(Class<?> aggregateClazz)
+    {
+        if (!getAggregateMap(aggregateClazz).isEmpty())
+        {
+            throw new IllegalStateException(IMDBRepository.class.getSimpleName()
+                    + ": Storage mode of " + aggregateClazz.getSimpleName() + " cannot be changed while aggregates are stored");
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private UnaryOperator<T> copier()
+    {
+        return (UnaryOperator<T>) COPIER_MAP.get(aggregateClazz);
+    }
+
+    private Object toStorage(T aggregate)
+    {
+        var copier = copier();
+        return copier == null ? JSONManager.getJSONConverter().toJson(aggregate) : copier.apply(aggregate);
+    }
+
+    private T toInternalAggregate(Object storedAggregate)
     {
-        return (Map<T, String>)REPOSITORY_MAP.computeIfAbsent(aggregateClazz, _ -> new ConcurrentHashMap<T,String>());
+        if (copier() == null)
+        {
+            return JSONManager.getJSONConverter().fromJson((String) storedAggregate, aggregateClazz);
+        }
+        return aggregateClazz.cast(storedAggregate);
+    }
+
+    private T fromStorage(Object storedAggregate)
+    {
+        var copier = copier();
+        if (copier == null)
+        {
+            return JSONManager.getJSONConverter().fromJson((String) storedAggregate, aggregateClazz);
+        }
+        return copier.apply(aggregateClazz.cast(storedAggregate));
+    }
+
+    private Map<K, Object> serialize(Collection<T> aggregates)
+    {
+        return aggregates.parallelStream()
+                .collect(Collectors.toConcurrentMap(
+                        keyFunction,
+                        this::toStorage,
+                        (_, _) -> { throw new IllegalArgumentException(IMDBRepository.class.getSimpleName()
+                                + ": Given aggregates contain duplicate keys"); }));
+    }
+
+    private void addAggregate(Map<K, Object> aggregateMap, K key, T aggregate, Object storedAggregate)
+    {
+        aggregateMap.compute(key, (_, currentAggregate) -> {
+            if (currentAggregate != null)
+            {
+                throw new IllegalArgumentException(IMDBRepository.class.getSimpleName()
+                        + ": An object with given key "
+                        + keyAsString(key)
+                        + " already exists");
+            }
+            putIndexes(key, aggregate);
+            return storedAggregate;
+        });
+    }
+
+    /**
+     * @return the previously stored aggregate
+     */
+    private Object updateAggregate(Map<K, Object> aggregateMap, K key, T aggregate, Object storedAggregate)
+    {
+        var previousAggregate = new Object[1];
+        aggregateMap.compute(key, (_, currentAggregate) -> {
+            if (currentAggregate == null)
+            {
+                throw new IllegalArgumentException(IMDBRepository.class.getSimpleName()
+                        + ": An object with given key "
+                        + keyAsString(key)
+                        + " does not exists");
+            }
+            previousAggregate[0] = currentAggregate;
+            putIndexes(key, aggregate);
+            return storedAggregate;
+        });
+        return previousAggregate[0];
+    }
+
+    private void storeAggregate(Map<K, Object> aggregateMap, K key, T aggregate, Object storedAggregate)
+    {
+        aggregateMap.compute(key, (_, _) -> {
+            putIndexes(key, aggregate);
+            return storedAggregate;
+        });
+    }
+
+    private void removeAggregate(Map<K, Object> aggregateMap, K key)
+    {
+        aggregateMap.computeIfPresent(key, (_, _) -> {
+            removeIndexes(key);
+            return null;
+        });
+    }
+
+    private void putIndexes(K key, T aggregate)
+    {
+        getIndexes().forEach(index -> index.put(key, aggregate));
+    }
+
+    private void removeIndexes(K key)
+    {
+        getIndexes().forEach(index -> index.remove(key));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Stream<IAggregateIndex<T, K>> getIndexes()
+    {
+        return INDEX_MAP.getOrDefault(aggregateClazz, Map.of()).values().stream()
+                .map(registeredIndex -> (IAggregateIndex<T, K>) registeredIndex.index());
+    }
+
+    private RegisteredIndex createIndex(Map<Object, RegisteredIndex> indexes, Object indexId, Supplier<? extends IAggregateIndex<T, K>> indexSupplier)
+    {
+        synchronized (indexes)
+        {
+            var registeredIndex = indexes.get(indexId);
+            if (registeredIndex == null)
+            {
+                // The index is registered before it is built, so that concurrent writes already update it.
+                // Each stored aggregate is added while its key is locked, so that it cannot overwrite a concurrent write.
+                IAggregateIndex<T, K> index = indexSupplier.get();
+                registeredIndex = new RegisteredIndex(index);
+                indexes.put(indexId, registeredIndex);
+
+                Map<K, Object> aggregateMap = getAggregateMap(aggregateClazz);
+                aggregateMap.keySet().forEach(key -> aggregateMap.computeIfPresent(key, (_, storedAggregate) -> {
+                    index.put(key, toInternalAggregate(storedAggregate));
+                    return storedAggregate;
+                }));
+                registeredIndex.markBuilt();
+            }
+            return registeredIndex;
+        }
+    }
+
+    private static String keyAsString(Object key)
+    {
+        return key.getClass().getSimpleName() + JSONManager.getJSONConverter().toJson(key);
     }
 
     protected Class<T> getAggregateClazz()
@@ -135,5 +487,29 @@ public class IMDBRepository<T, K>  implements IRepository<T, K>
         return aggregateClazz;
     }
 
+    private static final class RegisteredIndex
+    {
+        private final IAggregateIndex<?, ?> index;
+        private volatile boolean built = false;
+
+        RegisteredIndex(IAggregateIndex<?, ?> index)
+        {
+            this.index = index;
+        }
+
+        IAggregateIndex<?, ?> index()
+        {
+            return index;
+        }
 
+        boolean isBuilt()
+        {
+            return built;
+        }
+
+        void markBuilt()
+        {
+            built = true;
+        }
+    }
 }
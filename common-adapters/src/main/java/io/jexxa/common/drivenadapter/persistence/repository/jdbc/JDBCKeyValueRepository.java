@@ -8,11 +8,18 @@ import io.jexxa.common.facade.jdbc.database.DatabaseManager;
 import io.jexxa.common.facade.jdbc.database.IDatabase;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
+import java.util.stream.Stream;
 
 import static io.jexxa.common.facade.jdbc.builder.JDBCTableBuilder.SQLConstraint.PRIMARY_KEY;
 import static io.jexxa.common.facade.jdbc.builder.SQLDataType.JSONB;
@@ -20,15 +27,31 @@ import static io.jexxa.common.facade.json.JSONManager.getJSONConverter;
 import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
 
 
+/**
+ * Repository that stores aggregates as JSON in a table of a JDBC database.
+ * <p>
+ * This class can be used by multiple threads at the same time without locking, because each thread uses its own
+ * connection, or the connection of its current transaction (see {@link #getConnection()}). The state of this class
+ * that is shared between threads is limited to immutable SQL statements.
+ */
 public class JDBCKeyValueRepository<T, K> extends JDBCRepository implements IRepository<T, K>
 {
     private static final Logger LOGGER = getLogger(JDBCKeyValueRepository.class);
+    private static final int MAX_KEYS_PER_QUERY = 128;
 
     private final Function<T,K> keyFunction;
     private final Class<T> aggregateClazz;
     private final IDatabase database;
 
-    private String storageName;
+    private volatile String storageName;
+    private volatile Statements statements;
+
+    /**
+     * SQL of the fixed statement shapes of this repository. It depends only on the table name, so that it is created
+     * once and not for each statement. Queries for multiple keys are created on demand for each number of keys.
+     */
+    private record Statements(String tableName, String remove, String add, String update, String upsert, String get,
+                              String getAll, Map<Integer, String> getByKeys) { }
 
     public enum KeyValueSchema
     {
@@ -59,22 +82,16 @@ public class JDBCKeyValueRepository<T, K> extends JDBCRepository implements IRep
     }
 
     @Override
-    public synchronized void remove(K key)
+    public void remove(K key)
     {
         Objects.requireNonNull(key);
-        var jdbcKey = new JDBCObject(getJSONConverter().toJson(key), database.matchingValue(JSONB));
-
-        var command = getConnection().command(KeyValueSchema.class)
-                .deleteFrom(tableName())
-                .where(KeyValueSchema.REPOSITORY_KEY)
-                .isEqual(jdbcKey)
-                .create();
+        var command = getConnection().command(statements().remove(), List.of(getJSONConverter().toJson(key)));
 
         command.asUpdate();
     }
 
     @Override
-    public synchronized void removeAll()
+    public void removeAll()
     {
         var command = getConnection().command(KeyValueSchema.class)
                 .deleteFrom(tableName())
@@ -84,48 +101,88 @@ public class JDBCKeyValueRepository<T, K> extends JDBCRepository implements IRep
     }
 
     @Override
-    public synchronized void add(T aggregate)
+    public void add(T aggregate)
     {
         Objects.requireNonNull(aggregate);
 
-        var command = getConnection().command(KeyValueSchema.class)
-                .insertInto(tableName())
-                .values(new JDBCObject[]{
-                        primaryKeyToJSONB(keyFunction.apply(aggregate)),
-                        valueToJSONB(aggregate)}
-                )
-                .create();
+        var command = getConnection().command(statements().add(), List.of(
+                primaryKeyToJSONB(keyFunction.apply(aggregate)).getJdbcValue(),
+                valueToJSONB(aggregate).getJdbcValue()));
 
         command.asUpdate();
     }
 
     @SuppressWarnings({"unused"})
     @Override
-    public synchronized void update(T aggregate)
+    public void update(T aggregate)
     {
         Objects.requireNonNull(aggregate);
 
-        var command = getConnection().command(KeyValueSchema.class)
-                .update(tableName())
-                .set(KeyValueSchema.REPOSITORY_VALUE, valueToJSONB(aggregate))
-                .where(KeyValueSchema.REPOSITORY_KEY)
-                .isEqual(primaryKeyToJSONB(keyFunction.apply(aggregate)))
-                .create();
+        var command = getConnection().command(statements().update(), List.of(
+                valueToJSONB(aggregate).getJdbcValue(),
+                primaryKeyToJSONB(keyFunction.apply(aggregate)).getJdbcValue()));
 
         command.asUpdate();
     }
 
+    /**
+     * Adds or updates the aggregate with a single statement, see {@link IDatabase#upsert}
+     */
     @Override
-    public synchronized Optional<T> get(K primaryKey)
+    public void upsert(T aggregate)
+    {
+        Objects.requireNonNull(aggregate);
+
+        var command = getConnection().command(statements().upsert(), List.of(
+                primaryKeyToJSONB(keyFunction.apply(aggregate)).getJdbcValue(),
+                valueToJSONB(aggregate).getJdbcValue()));
+
+        command.asUpdate();
+    }
+
+    @Override
+    public void addAll(Collection<T> aggregates)
+    {
+        Objects.requireNonNull(aggregates);
+
+        var command = getConnection().batchCommand(statements().add(), aggregates.stream()
+                .map(aggregate -> List.of(
+                        primaryKeyToJSONB(keyFunction.apply(aggregate)).getJdbcValue(),
+                        valueToJSONB(aggregate).getJdbcValue())));
+
+        command.asUpdate();
+    }
+
+    @Override
+    public void updateAll(Collection<T> aggregates)
+    {
+        Objects.requireNonNull(aggregates);
+
+        var command = getConnection().batchCommand(statements().update(), aggregates.stream()
+                .map(aggregate -> List.of(
+                        valueToJSONB(aggregate).getJdbcValue(),
+                        primaryKeyToJSONB(keyFunction.apply(aggregate)).getJdbcValue())));
+
+        command.asUpdate();
+    }
+
+    @Override
+    public void removeAll(Collection<K> keys)
+    {
+        Objects.requireNonNull(keys);
+
+        var command = getConnection().batchCommand(statements().remove(), keys.stream()
+                .map(key -> List.<Object>of(getJSONConverter().toJson(key))));
+
+        command.asUpdate();
+    }
+
+    @Override
+    public Optional<T> get(K primaryKey)
     {
         Objects.requireNonNull(primaryKey);
 
-        var query = getConnection().query(KeyValueSchema.class)
-                .select(KeyValueSchema.REPOSITORY_VALUE)
-                .from(tableName())
-                .where(KeyValueSchema.REPOSITORY_KEY)
-                .isEqual(primaryKeyToJSONB(primaryKey))
-                .create();
+        var query = getConnection().query(statements().get(), List.of(primaryKeyToJSONB(primaryKey).getJdbcValue()));
 
         return  query
                 .asString()
@@ -135,13 +192,42 @@ public class JDBCKeyValueRepository<T, K> extends JDBCRepository implements IRep
                 .or(Optional::empty);
     }
 
+    /**
+     * Loads the aggregates with IN-list queries of up to 128 keys. To limit the number of different statements, the
+     * number of keys per query is rounded up to the next power of two by repeating the last key.
+     */
     @Override
-    public synchronized List<T> get()
+    public Map<K, T> get(Collection<K> keys)
     {
-        var query = getConnection().query(KeyValueSchema.class)
-                .select(KeyValueSchema.REPOSITORY_VALUE)
-                .from(tableName())
-                .create();
+        var keyList = List.copyOf(keys);
+        var result = new HashMap<K, T>();
+
+        for (var fromIndex = 0; fromIndex < keyList.size(); fromIndex += MAX_KEYS_PER_QUERY)
+        {
+            var chunk = keyList.subList(fromIndex, Math.min(fromIndex + MAX_KEYS_PER_QUERY, keyList.size()));
+            var keyCount = chunk.size() == 1 ? 1 : Integer.highestOneBit(chunk.size() - 1) << 1;
+
+            var arguments = new ArrayList<>(keyCount);
+            chunk.forEach(key -> arguments.add(primaryKeyToJSONB(key).getJdbcValue()));
+            while (arguments.size() < keyCount)
+            {
+                arguments.add(arguments.getLast());
+            }
+
+            getConnection().query(getByKeysStatement(keyCount), arguments)
+                    .asString()
+                    .flatMap(Optional::stream)
+                    .map( element -> getJSONConverter().fromJson(element, aggregateClazz))
+                    .forEach( aggregate -> result.put(keyFunction.apply(aggregate), aggregate));
+        }
+
+        return result;
+    }
+
+    @Override
+    public List<T> get()
+    {
+        var query = getConnection().query(statements().getAll(), List.of());
 
         return query
                 .asString()
@@ -150,6 +236,20 @@ public class JDBCKeyValueRepository<T, K> extends JDBCRepository implements IRep
                 .toList();
     }
 
+    /**
+     * Streams all aggregates using a database cursor, so that only the rows of the current fetch are kept in memory
+     * (see {@link JDBCProperties#jdbcFetchSize()}). Outside a transaction, the cursor uses a dedicated connection, so
+     * that other operations of this repository are not affected by an open stream. The returned stream must be closed.
+     */
+    @Override
+    public Stream<T> stream()
+    {
+        return getConnection().query(statements().getAll(), List.of())
+                .stream( resultSet -> Optional.ofNullable(resultSet.getString(1)) )
+                .flatMap(Optional::stream)
+                .map( element -> getJSONConverter().fromJson(element, aggregateClazz));
+    }
+
     public void tableName(String storageName)
     {
         Objects.requireNonNull(storageName);
@@ -162,6 +262,79 @@ public class JDBCKeyValueRepository<T, K> extends JDBCRepository implements IRep
         return storageName;
     }
 
+    private Statements statements()
+    {
+        var currentStatements = statements;
+        if (currentStatements == null || !currentStatements.tableName().equals(tableName()))
+        {
+            currentStatements = createStatements(tableName());
+            statements = currentStatements;
+        }
+        return currentStatements;
+    }
+
+    private Statements createStatements(String tableName)
+    {
+        // Only the bind parameters of the JDBCObjects are used, so that their values are not required
+        var keyParameter = new JDBCObject(null, database.matchingPrimaryKey(JSONB));
+        var valueParameter = new JDBCObject(null, database.matchingValue(JSONB));
+
+        var remove = getConnection().command(KeyValueSchema.class)
+                .deleteFrom(tableName)
+                .where(KeyValueSchema.REPOSITORY_KEY)
+                .isEqual(valueParameter)
+                .getStatement();
+
+        var add = getConnection().command(KeyValueSchema.class)
+                .insertInto(tableName)
+                .values(new JDBCObject[]{keyParameter, valueParameter})
+                .getStatement();
+
+        var update = getConnection().command(KeyValueSchema.class)
+                .update(tableName)
+                .set(KeyValueSchema.REPOSITORY_VALUE, valueParameter)
+                .where(KeyValueSchema.REPOSITORY_KEY)
+                .isEqual(keyParameter)
+                .getStatement();
+
+        var upsert = database.upsert(getConnection().command(KeyValueSchema.class),
+                        tableName,
+                        KeyValueSchema.REPOSITORY_KEY.name(),
+                        new String[]{KeyValueSchema.REPOSITORY_KEY.name(), KeyValueSchema.REPOSITORY_VALUE.name()},
+                        new JDBCObject[]{keyParameter, valueParameter})
+                .getStatement();
+
+        var get = getConnection().query(KeyValueSchema.class)
+                .select(KeyValueSchema.REPOSITORY_VALUE)
+                .from(tableName)
+                .where(KeyValueSchema.REPOSITORY_KEY)
+                .isEqual(keyParameter)
+                .getStatement();
+
+        var getAll = getConnection().query(KeyValueSchema.class)
+                .select(KeyValueSchema.REPOSITORY_VALUE)
+                .from(tableName)
+                .getStatement();
+
+        return new Statements(tableName, remove, add, update, upsert, get, getAll, new ConcurrentHashMap<>());
+    }
+
+    private String getByKeysStatement(int keyCount)
+    {
+        var currentStatements = statements();
+        return currentStatements.getByKeys().computeIfAbsent(keyCount, count -> {
+            var keyParameters = new JDBCObject[count];
+            Arrays.fill(keyParameters, new JDBCObject(null, database.matchingPrimaryKey(JSONB)));
+
+            return getConnection().query(KeyValueSchema.class)
+                    .select(KeyValueSchema.REPOSITORY_VALUE)
+                    .from(currentStatements.tableName())
+                    .where(KeyValueSchema.REPOSITORY_KEY)
+                    .isIn(keyParameters)
+                    .getStatement();
+        });
+    }
+
     private void manageDBTable(Properties properties)
     {
         if (properties.containsKey(JDBCProperties.jdbcAutocreateTable()))
@@ -8,6 +8,7 @@ import java.util.Objects;
 import java.util.Properties;
 
 import static io.jexxa.common.facade.jdbc.JDBCConnectionPool.getJDBCConnection;
+import static io.jexxa.common.facade.jdbc.JDBCConnectionPool.releaseTransactionConnection;
 import static io.jexxa.common.facade.jdbc.JDBCConnectionPool.validateJDBCConnection;
 import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
 
@@ -26,12 +27,16 @@ public abstract class JDBCRepository implements TransactionHandler {
 
     /**
      * Returns a JDBCConnection that is in a valid state. If the connection cannot be changed into a valid state, an IllegalStateException is thrown.
+     * <br>
+     * Each thread uses its own connection. If a transaction is active in the current thread, this repository is
+     * enlisted into this transaction on first use and uses a pooled connection until the transaction is closed.
      *
      * @throws IllegalStateException if JDBCConnection cannot be reset
      * @return JDBCConnection that is in a valid state.
      */
     public JDBCConnection getConnection()
     {
+        TransactionManager.enlist(this);
         return getJDBCConnection(properties, this);
     }
     @Override
@@ -42,8 +47,21 @@ public abstract class JDBCRepository implements TransactionHandler {
     @Override
     public void closeTransaction()
     {
-        getConnection().commit();
-        getConnection().enableAutoCommit();
+        try {
+            getConnection().commit();
+            getConnection().enableAutoCommit();
+        } finally {
+            releaseTransactionConnection(properties);
+        }
+    }
+
+    /**
+     * Repositories that share a JDBCConnection are committed only once per transaction.
+     */
+    @Override
+    public Object transactionResource()
+    {
+        return getJDBCConnection(properties, this);
     }
 
     @Override
@@ -9,9 +9,13 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
@@ -77,18 +81,91 @@ public class S3CachedKeyValueRepository<T, K> implements IRepository<T, K> {
         cache.invalidateAll();
     }
 
+    /**
+     * Writes the aggregate only if it does not exist. The check is performed by the S3 server as part of the write
+     * request, see {@link S3Client#putObjectIfAbsent(String, java.io.InputStream, int)}.
+     */
     @Override
     public void add(T aggregate) {
         K key = keyFunction.apply(aggregate);
-        // Da S3 keine native "Error if exists"-Operation beim Put bietet,
-        // bleibt der Check hier oft nötig, erhöht aber die Last.
-        // Falls Konsistenz auf App-Ebene egal ist: Direkt update(aggregate) rufen.
-        if (s3Client.objectExist(encodeFilename(key))) {
+        if (!putIfAbsent(key, aggregate)) {
             throw new IllegalArgumentException("Aggregate with key " + key + " already exists");
         }
+    }
+
+    private boolean putIfAbsent(K key, T aggregate) {
+        var aggregateJSON = getJSONConverter().toJson(aggregate).getBytes(StandardCharsets.UTF_8);
+
+        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(aggregateJSON)) {
+            if (!s3Client.putObjectIfAbsent(encodeFilename(key), inputStream, aggregateJSON.length)) {
+                return false;
+            }
+            cache.put(key, aggregate);
+            return true;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Could not add aggregate with id " + key, e);
+        }
+    }
+
+    /**
+     * Writes the aggregate without checking if it exists, because S3 overwrites existing objects
+     */
+    @Override
+    public void upsert(T aggregate) {
         update(aggregate);
     }
 
+    /**
+     * Adds all aggregates by writing them in parallel with a bounded number of concurrent requests, see
+     * {@link S3Client#runConcurrently(Collection, java.util.function.Consumer)}. Each aggregate is only written if it
+     * does not exist. If one of the aggregates already exists or could not be written, the aggregates written by this
+     * call are removed again, so that no aggregate is added.
+     */
+    @Override
+    public void addAll(Collection<T> aggregates) {
+        var addedKeys = ConcurrentHashMap.<K>newKeySet();
+        try {
+            s3Client.runConcurrently(aggregates, aggregate -> {
+                K key = keyFunction.apply(aggregate);
+                if (!putIfAbsent(key, aggregate)) {
+                    throw new IllegalArgumentException("Aggregate with key " + key + " already exists");
+                }
+                addedKeys.add(key);
+            });
+        } catch (RuntimeException e) {
+            if (!addedKeys.isEmpty()) {
+                s3Client.removeObjects(addedKeys.stream().map(this::encodeFilename).toList());
+                cache.invalidateAll(addedKeys);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Updates all aggregates by writing them in parallel with a bounded number of concurrent requests, see
+     * {@link S3Client#runConcurrently(Collection, java.util.function.Consumer)}.
+     */
+    @Override
+    public void updateAll(Collection<T> aggregates) {
+        s3Client.runConcurrently(aggregates, this::update);
+    }
+
+    /**
+     * Removes all aggregates with a single request. If one of the aggregates does not exist, no aggregate is removed.
+     * The existence of the aggregates is checked in parallel with a bounded number of concurrent requests.
+     */
+    @Override
+    public void removeAll(Collection<K> keys) {
+        s3Client.runConcurrently(keys, key -> {
+            if (!s3Client.objectExist(encodeFilename(key))) {
+                throw new IllegalArgumentException("Aggregate does not exist " + key);
+            }
+        });
+
+        s3Client.removeObjects(keys.stream().map(this::encodeFilename).toList());
+        cache.invalidateAll(keys);
+    }
+
     @Override
     public Optional<T> get(K key) {
         // Zuerst im Cache suchen
@@ -106,6 +183,28 @@ public class S3CachedKeyValueRepository<T, K> implements IRepository<T, K> {
                 });
     }
 
+    /**
+     * Returns cached aggregates directly and loads the remaining aggregates in parallel with a bounded number of
+     * concurrent requests, see {@link S3Client#get(Collection)}.
+     */
+    @Override
+    public Map<K, T> get(Collection<K> keys) {
+        var result = new HashMap<K, T>(cache.getAllPresent(keys));
+
+        var keysByFilename = new HashMap<String, K>();
+        keys.stream()
+                .filter(key -> !result.containsKey(key))
+                .forEach(key -> keysByFilename.put(encodeFilename(key), key));
+
+        s3Client.get(keysByFilename.keySet()).forEach((filename, data) -> {
+            var key = keysByFilename.get(filename);
+            T aggregate = getJSONConverter().fromJson(data, aggregateClazz);
+            cache.put(key, aggregate);
+            result.put(key, aggregate);
+        });
+        return result;
+    }
+
     @Override
     public List<T> get() {
         return s3Client.getAllS3Objects(s3Prefix(storageName))
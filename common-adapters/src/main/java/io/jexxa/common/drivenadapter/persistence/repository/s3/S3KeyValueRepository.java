@@ -7,9 +7,13 @@ import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.Function;
 
 import static io.jexxa.common.facade.json.JSONManager.getJSONConverter;
@@ -46,6 +50,10 @@ public class S3KeyValueRepository<T,K> implements IRepository<T, K> {
 
     @Override
     public synchronized void update(T aggregate) {
+        putAggregate(aggregate);
+    }
+
+    private void putAggregate(T aggregate) {
         // Datei schreiben (add oder update)
         var aggregateJSON = getJSONConverter().toJson(aggregate).getBytes(StandardCharsets.UTF_8);
         try (ByteArrayInputStream inputStream = new ByteArrayInputStream(aggregateJSON)
@@ -61,6 +69,20 @@ public class S3KeyValueRepository<T,K> implements IRepository<T, K> {
 
     }
 
+    private boolean putAggregateIfAbsent(T aggregate) {
+        var aggregateJSON = getJSONConverter().toJson(aggregate).getBytes(StandardCharsets.UTF_8);
+        try (ByteArrayInputStream inputStream = new ByteArrayInputStream(aggregateJSON)
+        ) {
+            return s3Client.putObjectIfAbsent(
+                    encodeFilename(keyFunction.apply(aggregate)),
+                    inputStream,
+                    aggregateJSON.length
+            );
+        } catch (IOException _) {
+            throw new IllegalArgumentException("Could not add aggregate with id " + encodeFilename(keyFunction.apply(aggregate)));
+        }
+    }
+
     @Override
     public synchronized void remove(K key) {
         if (!s3Client.objectExist(encodeFilename(key))) {
@@ -74,12 +96,71 @@ public class S3KeyValueRepository<T,K> implements IRepository<T, K> {
         s3Client.removeObjects(s3Client.getAllS3Objects(s3Prefix(storageName)));
     }
 
+    /**
+     * Writes the aggregate only if it does not exist. The check is performed by the S3 server as part of the write
+     * request, see {@link S3Client#putObjectIfAbsent(String, java.io.InputStream, int)}.
+     */
     @Override
     public synchronized void add(T aggregate) {
-        if (s3Client.objectExist(encodeFilename(keyFunction.apply(aggregate)))) {
+        if (!putAggregateIfAbsent(aggregate)) {
             throw new IllegalArgumentException("Aggregate with key " + encodeFilename(keyFunction.apply(aggregate)) + "already exists");
         }
-        update(aggregate);
+    }
+
+    /**
+     * Writes the aggregate without checking if it exists, because S3 overwrites existing objects
+     */
+    @Override
+    public void upsert(T aggregate) {
+        putAggregate(aggregate);
+    }
+
+    /**
+     * Adds all aggregates by writing them in parallel with a bounded number of concurrent requests, see
+     * {@link S3Client#runConcurrently(Collection, java.util.function.Consumer)}. Each aggregate is only written if it
+     * does not exist. If one of the aggregates already exists or could not be written, the aggregates written by this
+     * call are removed again, so that no aggregate is added.
+     */
+    @Override
+    public void addAll(Collection<T> aggregates) {
+        var addedAggregates = ConcurrentHashMap.<String>newKeySet();
+        try {
+            s3Client.runConcurrently(aggregates, aggregate -> {
+                if (!putAggregateIfAbsent(aggregate)) {
+                    throw new IllegalArgumentException("Aggregate with key " + encodeFilename(keyFunction.apply(aggregate)) + "already exists");
+                }
+                addedAggregates.add(encodeFilename(keyFunction.apply(aggregate)));
+            });
+        } catch (RuntimeException e) {
+            if (!addedAggregates.isEmpty()) {
+                s3Client.removeObjects(List.copyOf(addedAggregates));
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Updates all aggregates by writing them in parallel with a bounded number of concurrent requests, see
+     * {@link S3Client#runConcurrently(Collection, java.util.function.Consumer)}.
+     */
+    @Override
+    public void updateAll(Collection<T> aggregates) {
+        s3Client.runConcurrently(aggregates, this::putAggregate);
+    }
+
+    /**
+     * Removes all aggregates with a single request. If one of the aggregates does not exist, no aggregate is removed.
+     * The existence of the aggregates is checked in parallel with a bounded number of concurrent requests.
+     */
+    @Override
+    public void removeAll(Collection<K> keys) {
+        s3Client.runConcurrently(keys, key -> {
+            if (!s3Client.objectExist(encodeFilename(key))) {
+                throw new IllegalArgumentException("Aggregate does not exist " + key);
+            }
+        });
+
+        s3Client.removeObjects(keys.stream().map(this::encodeFilename).toList());
     }
 
     @Override
@@ -89,6 +170,20 @@ public class S3KeyValueRepository<T,K> implements IRepository<T, K> {
                 map(data -> getJSONConverter().fromJson(data, aggregateClazz));
     }
 
+    /**
+     * Loads all aggregates in parallel with a bounded number of concurrent requests, see {@link S3Client#get(Collection)}.
+     */
+    @Override
+    public Map<K, T> get(Collection<K> keys) {
+        var keysByFilename = new HashMap<String, K>();
+        keys.forEach(key -> keysByFilename.put(encodeFilename(key), key));
+
+        var result = new HashMap<K, T>();
+        s3Client.get(keysByFilename.keySet())
+                .forEach((filename, data) -> result.put(keysByFilename.get(filename), getJSONConverter().fromJson(data, aggregateClazz)));
+        return result;
+    }
+
     @Override
     public synchronized List<T> get() {
         return s3Client.getAllS3Objects(s3Prefix(storageName))
@@ -100,7 +195,7 @@ public class S3KeyValueRepository<T,K> implements IRepository<T, K> {
     }
 
 
-    private synchronized String encodeFilename(K key) {
+    private String encodeFilename(K key) {
         return s3Prefix(storageName) + Base64.getUrlEncoder()
                 .encodeToString(
                         getJSONConverter()
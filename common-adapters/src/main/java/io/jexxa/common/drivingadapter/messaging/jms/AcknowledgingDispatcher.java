@@ -0,0 +1,234 @@
+package io.jexxa.common.drivingadapter.messaging.jms;
+
+import io.jexxa.common.facade.jdbc.JDBCConnectionPool;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import java.util.Objects;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
+
+/**
+ * Receives messages on its own thread and hands them over to the threads of a subclass, so that a message is only
+ * acknowledged after it is processed.
+ * <p>
+ * The session must use {@link Session#CLIENT_ACKNOWLEDGE} and is exclusively used by the receiving thread, which
+ * receives, acknowledges, and recovers all messages. Since acknowledging a message acknowledges all messages
+ * received by the session so far, the receiving thread stops receiving after maxUnacknowledged messages, and
+ * acknowledges them as soon as all of them are successfully processed.
+ * <p>
+ * If a message could not be processed, the receiving thread stops receiving and dispatched messages that are not
+ * yet started are skipped. As soon as no message is in process, the session is recovered, so that all
+ * unacknowledged messages are redelivered.
+ */
+abstract class AcknowledgingDispatcher implements MessageDispatcher
+{
+    private static final long RECEIVE_TIMEOUT = 100;
+
+    private final Session session;
+    private final MessageConsumer messageConsumer;
+    private final int maxUnacknowledged;
+    private final MessageListener messageListener;
+    private Thread receiver;
+
+    private final Object lock = new Object();
+    private int inFlight = 0;
+    private int unacknowledged = 0;
+    private boolean failed = false;
+    private Message lastMessage;
+    private volatile boolean running = true;
+
+    protected AcknowledgingDispatcher(Session session, MessageConsumer messageConsumer, int maxUnacknowledged, MessageListener messageListener)
+    {
+        this.session = Objects.requireNonNull(session);
+        this.messageConsumer = Objects.requireNonNull(messageConsumer);
+        this.maxUnacknowledged = maxUnacknowledged;
+        this.messageListener = Objects.requireNonNull(messageListener);
+    }
+
+    /**
+     * Executes the processing of given message on a thread of the subclass
+     *
+     * @throws RejectedExecutionException if the subclass is already shut down
+     */
+    protected abstract void execute(Message message, Runnable processing);
+
+    /**
+     * Stops all threads of the subclass after all executed messages are processed
+     */
+    protected abstract void shutdown();
+
+    /**
+     * Starts receiving messages. Must be called by the subclass as soon as it can execute messages.
+     */
+    protected final void start()
+    {
+        receiver = Thread.ofVirtual()
+                .name(getClass().getSimpleName())
+                .start(this::receiveMessages);
+    }
+
+    @Override
+    public void stop()
+    {
+        running = false;
+        try {
+            receiver.join(TimeUnit.SECONDS.toMillis(2));
+        } catch (InterruptedException e) {
+            getLogger(getClass()).warn("Receiving thread could not be stopped -> Interrupt thread.", e);
+            Thread.currentThread().interrupt();
+        }
+
+        shutdown();
+
+        try {
+            messageConsumer.close();
+        } catch (JMSException e) {
+            getLogger(getClass()).warn("Could not close message consumer. Reason: {}", e.getMessage());
+        }
+    }
+
+    private void receiveMessages()
+    {
+        try {
+            while (running)
+            {
+                if (awaitDispatch())
+                {
+                    dispatch(messageConsumer.receive(RECEIVE_TIMEOUT));
+                }
+            }
+
+            // Acknowledge all messages that are processed until the dispatcher is stopped
+            synchronized (lock)
+            {
+                while (inFlight > 0)
+                {
+                    lock.wait();
+                }
+                completeBatch();
+            }
+        } catch (JMSException e) {
+            if (running)
+            {
+                getLogger(getClass()).error("Could not receive messages -> Stop receiving. Reason: {}", e.getMessage());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Blocks the receiving thread while the current batch is complete or failed and not all of its messages are
+     * processed. Acknowledges or recovers the batch as soon as all of its messages are processed.
+     *
+     * @return true if a new message can be received
+     */
+    private boolean awaitDispatch() throws InterruptedException
+    {
+        synchronized (lock)
+        {
+            while (running && inFlight > 0 && (unacknowledged >= maxUnacknowledged || failed))
+            {
+                lock.wait(RECEIVE_TIMEOUT);
+            }
+
+            if (inFlight == 0)
+            {
+                completeBatch();
+            }
+
+            return running && !failed && unacknowledged < maxUnacknowledged;
+        }
+    }
+
+    private void dispatch(Message message)
+    {
+        if (message == null)
+        {
+            return;
+        }
+
+        synchronized (lock)
+        {
+            ++inFlight;
+            ++unacknowledged;
+            lastMessage = message;
+        }
+
+        try {
+            execute(message, () -> process(message));
+        } catch (RejectedExecutionException e) {
+            onProcessed(false);
+            getLogger(getClass()).warn("Dispatcher is already stopped -> Message is redelivered");
+        }
+    }
+
+    private void process(Message message)
+    {
+        synchronized (lock)
+        {
+            // Messages of a failed batch are redelivered anyway, so that they are not processed out of order
+            if (failed)
+            {
+                --inFlight;
+                lock.notifyAll();
+                return;
+            }
+        }
+
+        var success = false;
+        try {
+            messageListener.onMessage(message);
+            success = true;
+        } catch (RuntimeException e) {
+            getLogger(getClass()).error("Could not process received message -> Message is redelivered. Reason: {}", e.getMessage());
+        } finally {
+            // Connections used outside a transaction are bound to this thread, which might be reused or terminate
+            JDBCConnectionPool.releaseThreadConnections();
+        }
+
+        onProcessed(success);
+    }
+
+    private void onProcessed(boolean success)
+    {
+        synchronized (lock)
+        {
+            --inFlight;
+            failed = failed || !success;
+            lock.notifyAll();
+        }
+    }
+
+    // Must only be called by the receiving thread while holding the lock and no message is in process
+    private void completeBatch()
+    {
+        if (unacknowledged == 0)
+        {
+            return;
+        }
+
+        try {
+            if (failed)
+            {
+                session.recover();
+            }
+            else
+            {
+                lastMessage.acknowledge();
+            }
+        } catch (JMSException e) {
+            getLogger(getClass()).error("Could not complete received messages -> Messages are redelivered. Reason: {}", e.getMessage());
+        }
+
+        failed = false;
+        unacknowledged = 0;
+        lastMessage = null;
+    }
+}
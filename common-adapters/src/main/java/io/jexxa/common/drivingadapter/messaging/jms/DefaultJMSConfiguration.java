@@ -7,11 +7,18 @@ public class DefaultJMSConfiguration implements JMSConfiguration {
 
     private final String destination;
     private final MessagingType messagingType;
+    private final int concurrency;
 
     public DefaultJMSConfiguration(String destination, MessagingType messagingType)
+    {
+        this(destination, messagingType, 1);
+    }
+
+    public DefaultJMSConfiguration(String destination, MessagingType messagingType, int concurrency)
     {
         this.destination = destination;
         this.messagingType = messagingType;
+        this.concurrency = concurrency;
     }
     @Override
     public String destination() {
@@ -38,6 +45,26 @@ public class DefaultJMSConfiguration implements JMSConfiguration {
         return DurableType.NON_DURABLE;
     }
 
+    @Override
+    public int concurrency() {
+        return concurrency;
+    }
+
+    @Override
+    public String orderingKey() {
+        return "";
+    }
+
+    @Override
+    public DispatchMode dispatchMode() {
+        return DispatchMode.PROVIDER_THREAD;
+    }
+
+    @Override
+    public int maxInFlight() {
+        return 100;
+    }
+
     @Override
     public Class<? extends Annotation> annotationType() {
         return JMSConfiguration.class;
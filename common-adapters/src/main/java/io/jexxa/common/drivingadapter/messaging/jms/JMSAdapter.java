@@ -37,6 +37,7 @@ public class JMSAdapter implements AutoCloseable, IDrivingAdapter
     private Connection connection;
     private final List<Session> sessionList = new ArrayList<>();
     private final List<MessageConsumer> consumerList = new ArrayList<>();
+    private final List<MessageDispatcher> dispatcherList = new ArrayList<>();
     private final List<Object> registeredListener = new ArrayList<>();
     private final List<JMSConfiguration> jmsConfigurationList = new ArrayList<>();
     private final JMSConnectionExceptionHandler jmsConnectionExceptionHandler;
@@ -97,17 +98,26 @@ public class JMSAdapter implements AutoCloseable, IDrivingAdapter
         try {
             var messageListener = (MessageListener) (object);
             var jmsConfiguration = getConfiguration(object);
-
-            var session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
-            sessionList.add(session);
-
-            Destination destination = createDestination(session, jmsConfiguration);
-            MessageConsumer consumer = createMessageConsumer(session, destination, jmsConfiguration);
+            validateConfiguration(jmsConfiguration);
 
             var invocationHandler = InvocationManager.getInvocationHandler(messageListener);
-            consumer.setMessageListener(message -> invocationHandler.invoke(messageListener, messageListener::onMessage, message));
+            MessageListener invokingListener = message -> invocationHandler.invoke(messageListener, messageListener::onMessage, message);
+
+            if (jmsConfiguration.orderingKey().isEmpty())
+            {
+                for (int i = 0; i < jmsConfiguration.concurrency(); ++i)
+                {
+                    registerMessageListener(jmsConfiguration, invokingListener);
+                }
+            }
+            else
+            {
+                // The dispatcher receives all messages by itself, so that the session is used by a single thread only
+                var session = createSession(jmsConfiguration);
+                dispatcherList.add(new KeyOrderedDispatcher(session, createMessageConsumer(session, jmsConfiguration),
+                        jmsConfiguration.orderingKey(), jmsConfiguration.concurrency(), invokingListener));
+            }
 
-            consumerList.add(consumer);
             registeredListener.add(object);
             jmsConfigurationList.add(jmsConfiguration);
         } catch (JMSException e) {
@@ -120,6 +130,72 @@ public class JMSAdapter implements AutoCloseable, IDrivingAdapter
     }
 
 
+    private Session createSession(JMSConfiguration jmsConfiguration) throws JMSException
+    {
+        // Dispatchers acknowledge messages after they are processed by their own threads
+        var acknowledgeMode = jmsConfiguration.dispatchMode() == JMSConfiguration.DispatchMode.VIRTUAL_THREAD
+                || !jmsConfiguration.orderingKey().isEmpty()
+                ? Session.CLIENT_ACKNOWLEDGE
+                : Session.AUTO_ACKNOWLEDGE;
+
+        var session = connection.createSession(false, acknowledgeMode);
+        sessionList.add(session);
+        return session;
+    }
+
+    private void registerMessageListener(JMSConfiguration jmsConfiguration, MessageListener messageListener) throws JMSException
+    {
+        var session = createSession(jmsConfiguration);
+        var consumer = createMessageConsumer(session, jmsConfiguration);
+
+        if (jmsConfiguration.dispatchMode() == JMSConfiguration.DispatchMode.VIRTUAL_THREAD)
+        {
+            // The dispatcher receives all messages by itself, so that the session is used by a single thread only
+            dispatcherList.add(new VirtualThreadDispatcher(session, consumer, jmsConfiguration.maxInFlight(), messageListener));
+            return;
+        }
+
+        consumer.setMessageListener(messageListener);
+        consumerList.add(consumer);
+    }
+
+    private MessageConsumer createMessageConsumer(Session session, JMSConfiguration jmsConfiguration) throws JMSException
+    {
+        Destination destination = createDestination(session, jmsConfiguration);
+        return createMessageConsumer(session, destination, jmsConfiguration);
+    }
+
+    private static void validateConfiguration(JMSConfiguration jmsConfiguration)
+    {
+        if (jmsConfiguration.concurrency() < 1)
+        {
+            throw new IllegalArgumentException("Invalid JMSConfiguration for " + jmsConfiguration.destination() + ": concurrency must be greater than 0");
+        }
+
+        if (jmsConfiguration.concurrency() > 1
+                && jmsConfiguration.orderingKey().isEmpty()
+                && jmsConfiguration.messagingType() == JMSConfiguration.MessagingType.TOPIC
+                && jmsConfiguration.sharedSubscriptionName().isEmpty())
+        {
+            throw new IllegalArgumentException("Invalid JMSConfiguration for " + jmsConfiguration.destination()
+                    + ": concurrency greater than 1 requires a queue, a shared subscription, or an orderingKey");
+        }
+
+        if (jmsConfiguration.dispatchMode() == JMSConfiguration.DispatchMode.VIRTUAL_THREAD)
+        {
+            if (!jmsConfiguration.orderingKey().isEmpty())
+            {
+                throw new IllegalArgumentException("Invalid JMSConfiguration for " + jmsConfiguration.destination()
+                        + ": dispatch mode VIRTUAL_THREAD cannot be combined with an orderingKey");
+            }
+
+            if (jmsConfiguration.maxInFlight() < 1)
+            {
+                throw new IllegalArgumentException("Invalid JMSConfiguration for " + jmsConfiguration.destination() + ": maxInFlight must be greater than 0");
+            }
+        }
+    }
+
     private Destination createDestination(Session session, JMSConfiguration jmsConfiguration) throws JMSException {
         if (jmsConfiguration.messagingType() == JMSConfiguration.MessagingType.TOPIC)
         {
@@ -175,11 +251,13 @@ public class JMSAdapter implements AutoCloseable, IDrivingAdapter
     public void close()
     {
         consumerList.forEach(consumer -> Optional.ofNullable(consumer).ifPresent(ThrowingConsumer.exceptionLogger(MessageConsumer::close, getLogger(JMSAdapter.class))));
+        dispatcherList.forEach(MessageDispatcher::stop);
         sessionList.forEach(ThrowingConsumer.exceptionLogger(Session::close, getLogger(JMSAdapter.class)));
         Optional.ofNullable(connection).ifPresent(ThrowingConsumer.exceptionLogger(Connection::close, getLogger(JMSAdapter.class)));
 
         registeredListener.clear();
         consumerList.clear();
+        dispatcherList.clear();
         jmsConfigurationList.clear();
         sessionList.clear();
     }
@@ -14,6 +14,7 @@ public @interface JMSConfiguration
 {
     enum MessagingType {QUEUE, TOPIC}
     enum DurableType {DURABLE, NON_DURABLE}
+    enum DispatchMode {PROVIDER_THREAD, VIRTUAL_THREAD}
 
     String destination() ;
     String selector() default "";
@@ -25,4 +26,45 @@ public @interface JMSConfiguration
      */
     String sharedSubscriptionName() default "";
     DurableType durable() default DurableType.NON_DURABLE;
+
+    /**
+     * Defines the number of consumers that receive messages concurrently. Each consumer uses its own session.
+     * Since each consumer of a non-shared topic subscription would receive all messages, a value greater than 1
+     * requires a queue or a shared subscription unless an orderingKey is defined.
+     *
+     * @return number of concurrent consumers. Default is 1
+     */
+    int concurrency() default 1;
+
+    /**
+     * Defines the name of a message property used to process messages in order. If set, messages are received by a
+     * single consumer and dispatched to {@link #concurrency()} threads, so that messages with the same value of
+     * this property are processed in the order they are received.
+     * <p>
+     * Messages are acknowledged in batches after all messages of a batch are successfully processed. If processing
+     * a message fails, the whole unacknowledged batch is redelivered, including messages with other values of this
+     * property that were already processed. So, listeners must handle duplicate messages, e.g., by using an
+     * IdempotentListener.
+     *
+     * @return name of the message property or an empty string if messages are not processed in order
+     */
+    String orderingKey() default "";
+
+    /**
+     * Defines the thread that invokes the listener. With PROVIDER_THREAD, the listener is invoked by the delivery
+     * thread of the JMS provider. With VIRTUAL_THREAD, each message is processed on its own virtual thread, and
+     * messages are acknowledged after they are successfully processed, so that blocking listeners do not stall
+     * the JMS provider. VIRTUAL_THREAD cannot be combined with an orderingKey.
+     *
+     * @return dispatch mode of received messages. Default is PROVIDER_THREAD
+     */
+    DispatchMode dispatchMode() default DispatchMode.PROVIDER_THREAD;
+
+    /**
+     * Defines the maximum number of messages per consumer that are processed concurrently in dispatch mode
+     * VIRTUAL_THREAD. If this number is reached, no further messages are received until they are processed.
+     *
+     * @return maximum number of messages in process. Default is 100
+     */
+    int maxInFlight() default 100;
 }
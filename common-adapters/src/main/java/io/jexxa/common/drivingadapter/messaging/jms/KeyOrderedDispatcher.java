@@ -0,0 +1,84 @@
+package io.jexxa.common.drivingadapter.messaging.jms;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
+
+/**
+ * Dispatches received messages to a fixed number of lanes, each processed by a single thread.
+ * <p>
+ * The lane is selected by the value of a message property, so that messages with the same value are processed
+ * in the order they are received, while messages with different values are processed concurrently. Messages
+ * without this property are processed by the first lane.
+ * <p>
+ * Messages are acknowledged after they are processed, as described in {@link AcknowledgingDispatcher}. The number
+ * of unacknowledged messages is limited, so that a slow listener blocks receiving instead of buffering an
+ * unlimited number of messages. If a message could not be processed, the following messages of all lanes are
+ * redelivered together with it, so that their order is preserved.
+ */
+class KeyOrderedDispatcher extends AcknowledgingDispatcher
+{
+    private static final int MAX_PENDING_MESSAGES_PER_LANE = 100;
+
+    private final String orderingKey;
+    private final List<ExecutorService> lanes = new ArrayList<>();
+
+    KeyOrderedDispatcher(Session session, MessageConsumer messageConsumer, String orderingKey, int concurrency, MessageListener messageListener)
+    {
+        super(session, messageConsumer, concurrency * MAX_PENDING_MESSAGES_PER_LANE, messageListener);
+        this.orderingKey = Objects.requireNonNull(orderingKey);
+
+        for (int i = 0; i < concurrency; ++i)
+        {
+            lanes.add(Executors.newSingleThreadExecutor());
+        }
+        start();
+    }
+
+    @Override
+    protected void execute(Message message, Runnable processing)
+    {
+        getLane(message).execute(processing);
+    }
+
+    @Override
+    protected void shutdown()
+    {
+        lanes.forEach(ExecutorService::shutdown);
+        try {
+            for (var lane : lanes)
+            {
+                if (!lane.awaitTermination(1, TimeUnit.SECONDS))
+                {
+                    getLogger(KeyOrderedDispatcher.class).warn("Could not successfully stop running operations -> Force shutdown");
+                    lane.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            lanes.forEach(ExecutorService::shutdownNow);
+            getLogger(KeyOrderedDispatcher.class).warn("ExecutorService could not be stopped -> Interrupt thread.", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ExecutorService getLane(Message message)
+    {
+        try {
+            var key = message.getObjectProperty(orderingKey);
+            return lanes.get(Math.floorMod(Objects.hashCode(key), lanes.size()));
+        } catch (JMSException e) {
+            getLogger(KeyOrderedDispatcher.class).warn("Could not read property {} of received message -> Use first lane. Reason: {}", orderingKey, e.getMessage());
+            return lanes.getFirst();
+        }
+    }
+}
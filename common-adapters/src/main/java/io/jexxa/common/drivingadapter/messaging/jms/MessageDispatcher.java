@@ -0,0 +1,10 @@
+package io.jexxa.common.drivingadapter.messaging.jms;
+
+/**
+ * Hands received messages over to its own threads. Calling {@link #stop()} waits until all dispatched messages
+ * are processed.
+ */
+interface MessageDispatcher
+{
+    void stop();
+}
@@ -0,0 +1,51 @@
+package io.jexxa.common.drivingadapter.messaging.jms;
+
+import javax.jms.Message;
+import javax.jms.MessageConsumer;
+import javax.jms.MessageListener;
+import javax.jms.Session;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
+
+/**
+ * Processes each received message on its own virtual thread, so that blocking listeners do not stall the
+ * receiving thread. At most maxInFlight messages are processed concurrently.
+ * <p>
+ * Messages are acknowledged and recovered as described in {@link AcknowledgingDispatcher}.
+ */
+class VirtualThreadDispatcher extends AcknowledgingDispatcher
+{
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    VirtualThreadDispatcher(Session session, MessageConsumer messageConsumer, int maxInFlight, MessageListener messageListener)
+    {
+        super(session, messageConsumer, maxInFlight, messageListener);
+        start();
+    }
+
+    @Override
+    protected void execute(Message message, Runnable processing)
+    {
+        executor.execute(processing);
+    }
+
+    @Override
+    protected void shutdown()
+    {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(1, TimeUnit.SECONDS))
+            {
+                getLogger(VirtualThreadDispatcher.class).warn("Could not successfully stop running operations -> Force shutdown");
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            getLogger(VirtualThreadDispatcher.class).warn("ExecutorService could not be stopped -> Interrupt thread.", e);
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -7,7 +7,11 @@ import javax.jms.JMSException;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.Objects;
+import java.util.Map;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static io.jexxa.common.drivenadapter.persistence.RepositoryFactory.createRepository;
 import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
@@ -15,6 +19,9 @@ import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
 /**
  * This listener implements the idempotent receiver. So this listener can safely receive the same message multiple times.
  * <p>
+ * This listener can be used by concurrent consumers. A message that is received by multiple consumers at the same time
+ * is processed by only one of them.
+ * <p>
  * More information about this pattern can be found <a href="https://www.enterpriseintegrationpatterns.com/patterns/messaging/IdempotentReceiver.html"> here </a>
  * @param <T> Type of the received message
  */
@@ -24,8 +31,9 @@ public abstract class IdempotentListener<T> extends JSONMessageListener
     private static final String DEFAULT_MESSAGE_ID = "domain_event_id";
     private final IRepository<InboundMessage, ReceivingID> messageRepository;
     private final Class<T> clazz;
+    private final Map<ReceivingID, ReentrantLock> processingLocks = new ConcurrentHashMap<>();
+    private final AtomicInteger duplicateMessageCounter = new AtomicInteger();
     private Instant oldestMessage;
-    private int duplicateMessageCounter;
 
     protected IdempotentListener(Class<T> clazz, Properties properties)
     {
@@ -44,21 +52,30 @@ public abstract class IdempotentListener<T> extends JSONMessageListener
             return;
         }
 
-        // If we already processed the ID, we show an info message and return
+        // A message with the same ID is processed by one thread at a time, so that checking and adding the ID is atomic
         var receivingID = new ReceivingID(getMessageHeaderValue(uniqueID), this.getClass().getName());
-        if (messageRepository.get(receivingID).isPresent()) {
-            getLogger(getClass()).info("Message with key {} already processed by {} -> Ignore it", receivingID.uuid, receivingID.className);
-            ++duplicateMessageCounter;
-            return;
-        }
+        var processingLock = processingLocks.computeIfAbsent(receivingID, _ -> new ReentrantLock());
+        processingLock.lock();
+        try {
+            // If we already processed the ID, we show an info message and return
+            if (messageRepository.get(receivingID).isPresent()) {
+                getLogger(getClass()).info("Message with key {} already processed by {} -> Ignore it", receivingID.uuid, receivingID.className);
+                duplicateMessageCounter.incrementAndGet();
+                return;
+            }
 
-        onMessage( fromJson(message, clazz ));
-        messageRepository.add(new InboundMessage(receivingID, Instant.now()));
+            onMessage( fromJson(message, clazz ));
+            messageRepository.add(new InboundMessage(receivingID, Instant.now()));
+        } finally {
+            processingLock.unlock();
+            // Threads that get a new lock afterward find the ID in the repository if the message was processed
+            processingLocks.remove(receivingID, processingLock);
+        }
         removeOldMessages();
     }
 
     public int duplicateMessageCounter() {
-        return duplicateMessageCounter;
+        return duplicateMessageCounter.get();
     }
 
     public abstract void onMessage(T message);
@@ -100,7 +117,7 @@ public abstract class IdempotentListener<T> extends JSONMessageListener
         return null;
     }
 
-    private void removeOldMessages()
+    private synchronized void removeOldMessages()
     {
         if (!expiredMessageAvailable(oldestMessage))
         {
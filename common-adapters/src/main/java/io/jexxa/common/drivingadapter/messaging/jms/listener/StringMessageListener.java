@@ -13,8 +13,9 @@ import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
 @SuppressWarnings("unused")
 public abstract class StringMessageListener implements MessageListener
 {
-    private Message currentMessage;
-    private String currentMessageText;
+    // Thread-local, so that a listener can be invoked by several consumers concurrently (see JMSConfiguration#concurrency)
+    private final ThreadLocal<Message> currentMessage = new ThreadLocal<>();
+    private final ThreadLocal<String> currentMessageText = new ThreadLocal<>();
 
     public abstract void onMessage(String message);
 
@@ -23,38 +24,39 @@ public abstract class StringMessageListener implements MessageListener
     {
         try
         {
-            this.currentMessage = message;
-            if (message instanceof TextMessage)
+            this.currentMessage.set(message);
+            if (message instanceof TextMessage textMessage)
             {
-                TextMessage textMessage = (TextMessage)currentMessage;
-                this.currentMessageText = textMessage.getText();
-            } else if ( message instanceof BytesMessage) {
-                BytesMessage byteMessage = (BytesMessage) currentMessage;
+                this.currentMessageText.set(textMessage.getText());
+            } else if ( message instanceof BytesMessage byteMessage) {
                 byte[] payload = new byte[(int) byteMessage.getBodyLength()];
                 byteMessage.readBytes(payload);
-                this.currentMessageText = Arrays.toString(payload);
+                this.currentMessageText.set(Arrays.toString(payload));
             } else {
                 getLogger(getClass()).error("Received message is neither of type Text message nor Byte message -> Discard it. Reason: Invalid Message type");
             }
 
-            onMessage( currentMessageText );
+            onMessage( currentMessageText.get() );
         }
         catch (JMSException exception)
         {
             //In case of a JMS exception, we assume that data cannot be read due to some internal JMS issues and discard the message
             getLogger(getClass()).error("Could not process received message as text or byte message -> Discard it. Reason: {}", exception.getMessage());
         }
-        currentMessage = null;
-        currentMessageText = null;
+        finally
+        {
+            currentMessage.remove();
+            currentMessageText.remove();
+        }
     }
 
     protected final Message getCurrentMessage()
     {
-        return currentMessage;
+        return currentMessage.get();
     }
     protected final String getCurrentTextMessage()
     {
-        return currentMessageText;
+        return currentMessageText.get();
     }
 
 }
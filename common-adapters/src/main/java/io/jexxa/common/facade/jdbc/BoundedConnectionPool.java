@@ -0,0 +1,267 @@
+package io.jexxa.common.facade.jdbc;
+
+import java.time.Duration;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
+
+/**
+ * Bounded pool of JDBC connections for a single database.
+ * <p>
+ * At most maxSize connections are borrowed at the same time. If all connections are borrowed, a caller waits up to
+ * the configured timeout. Returned connections are kept idle up to maxIdle and reused in LIFO order. When a pool
+ * is created, minIdle connections are opened in advance.
+ * <p>
+ * An idle connection is validated when it is borrowed, according to the validation policy of {@link JDBCConnection}.
+ * If it is invalid and cannot be reset, it is discarded. A connection that is borrowed longer than
+ * the leak detection threshold is reported once, including the stack trace of the borrowing caller. Leak detection
+ * can be disabled for pools whose connections are intentionally borrowed for a long time.
+ * <p>
+ * If the connections of a pool can be reclaimed from their borrowers, for example because the borrowing thread has
+ * terminated, a reclaim operation can be passed. A waiting caller runs it periodically while the pool is exhausted.
+ */
+class BoundedConnectionPool implements AutoCloseable
+{
+    // Interval in which a waiting caller reclaims connections
+    private static final long RECLAIM_INTERVAL = 100;
+
+    private final Properties properties;
+    private final int maxSize;
+    private final int minIdle;
+    private final int maxIdle;
+    private final long borrowTimeout;
+    private final long leakDetectionThreshold;
+    private final Runnable reclaimConnections;
+
+    private final Semaphore permits;
+    private final Deque<JDBCConnection> idleConnections = new LinkedBlockingDeque<>();
+    private final Map<JDBCConnection, Borrower> activeConnections = new ConcurrentHashMap<>();
+    private final LongAdder poolWaits = new LongAdder();
+    private final LongAdder poolWaitNanos = new LongAdder();
+    private final AtomicLong detectedLeaks = new AtomicLong();
+
+    BoundedConnectionPool(Properties properties)
+    {
+        this(properties, readNumber(properties, JDBCProperties.jdbcPoolMaxSize(), 10, 1), true);
+    }
+
+    BoundedConnectionPool(Properties properties, int maxSize, boolean detectLeaks)
+    {
+        this(properties, maxSize, detectLeaks, () -> { });
+    }
+
+    BoundedConnectionPool(Properties properties, int maxSize, boolean detectLeaks, Runnable reclaimConnections)
+    {
+        this.reclaimConnections = reclaimConnections;
+        this.properties = properties;
+        this.maxSize = maxSize;
+        this.minIdle = readNumber(properties, JDBCProperties.jdbcPoolMinIdle(), 0, 0);
+        this.maxIdle = readNumber(properties, JDBCProperties.jdbcPoolMaxIdle(), maxSize, minIdle);
+        this.borrowTimeout = readNumber(properties, JDBCProperties.jdbcPoolTimeout(), 30_000, 0);
+        this.leakDetectionThreshold = detectLeaks
+                ? readNumber(properties, JDBCProperties.jdbcPoolLeakDetectionThreshold(), 60_000, 0)
+                : 0;
+        this.permits = new Semaphore(maxSize, true);
+
+        for (int i = 0; i < minIdle; ++i)
+        {
+            idleConnections.offerFirst(new JDBCConnection(properties));
+        }
+    }
+
+    JDBCConnection borrow()
+    {
+        detectLeaks(); // Before waiting, so that the holders of connections are reported if the pool is exhausted
+        acquirePermit();
+
+        try {
+            var jdbcConnection = pollValidIdleConnection();
+            if (jdbcConnection == null)
+            {
+                jdbcConnection = new JDBCConnection(properties);
+            }
+
+            activeConnections.put(jdbcConnection, new Borrower());
+            return jdbcConnection;
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    void release(JDBCConnection jdbcConnection)
+    {
+        if (activeConnections.remove(jdbcConnection) == null)
+        {
+            return; // Connection was not borrowed from this pool or is already released
+        }
+
+        try {
+            if (idleConnections.size() < maxIdle && resetConnection(jdbcConnection))
+            {
+                idleConnections.offerFirst(jdbcConnection);
+            } else {
+                jdbcConnection.close();
+            }
+        } finally {
+            permits.release();
+        }
+    }
+
+    JDBCPoolStatistics getStatistics()
+    {
+        return new JDBCPoolStatistics(
+                maxSize,
+                activeConnections.size(),
+                idleConnections.size(),
+                poolWaits.sum(),
+                Duration.ofNanos(poolWaitNanos.sum()),
+                detectedLeaks.get());
+    }
+
+    @Override
+    public void close()
+    {
+        JDBCConnection jdbcConnection;
+        while ((jdbcConnection = idleConnections.pollFirst()) != null)
+        {
+            jdbcConnection.close();
+        }
+
+        activeConnections.keySet().forEach(JDBCConnection::close);
+        activeConnections.clear();
+    }
+
+    private void acquirePermit()
+    {
+        if (permits.tryAcquire())
+        {
+            return;
+        }
+
+        poolWaits.increment();
+        var startTime = System.nanoTime();
+        var deadline = startTime + TimeUnit.MILLISECONDS.toNanos(borrowTimeout);
+        try {
+            while (true)
+            {
+                reclaimConnections.run();
+                var remainingTime = deadline - System.nanoTime();
+                if (permits.tryAcquire(Math.min(remainingTime, TimeUnit.MILLISECONDS.toNanos(RECLAIM_INTERVAL)), TimeUnit.NANOSECONDS))
+                {
+                    return;
+                }
+                if (remainingTime <= 0)
+                {
+                    throw new IllegalStateException("Could not get a JDBC connection within " + borrowTimeout + " ms. "
+                            + activeConnections.size() + " of " + maxSize + " connections are in use");
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a JDBC connection", e);
+        } finally {
+            poolWaitNanos.add(System.nanoTime() - startTime);
+        }
+    }
+
+    private JDBCConnection pollValidIdleConnection()
+    {
+        JDBCConnection jdbcConnection;
+        while ((jdbcConnection = idleConnections.pollFirst()) != null)
+        {
+            try {
+                return jdbcConnection.validateConnection();
+            } catch (RuntimeException e) {
+                getLogger(BoundedConnectionPool.class).warn("Discard invalid JDBC connection for {}", properties.getProperty(JDBCProperties.jdbcUrl()));
+                jdbcConnection.close();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Discards uncommitted changes and enables auto commit, so that the next borrower gets a clean connection
+     */
+    private static boolean resetConnection(JDBCConnection jdbcConnection)
+    {
+        try {
+            jdbcConnection.rollback();
+            jdbcConnection.enableAutoCommit();
+            return true;
+        } catch (IllegalStateException e) {
+            getLogger(BoundedConnectionPool.class).warn("Discard JDBC connection that could not be reset. Reason: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private void detectLeaks()
+    {
+        if (leakDetectionThreshold == 0)
+        {
+            return;
+        }
+
+        var now = System.currentTimeMillis();
+        activeConnections.values().stream()
+                .filter(borrower -> now - borrower.borrowedAt() > leakDetectionThreshold)
+                .filter(Borrower::markReported)
+                .forEach(borrower -> {
+                    detectedLeaks.incrementAndGet();
+                    getLogger(BoundedConnectionPool.class).warn("JDBC connection is borrowed by thread {} for more than {} ms -> Possible connection leak",
+                            borrower.threadName(), leakDetectionThreshold, borrower.stackTrace());
+                });
+    }
+
+    private static int readNumber(Properties properties, String key, int defaultValue, int minValue)
+    {
+        try {
+            var value = Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+            if (value < minValue)
+            {
+                throw new IllegalArgumentException("Property " + key + " must be at least " + minValue);
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + key + " must be a number but is " + properties.getProperty(key), e);
+        }
+    }
+
+    private static final class Borrower
+    {
+        private final long borrowedAt = System.currentTimeMillis();
+        private final String threadName = Thread.currentThread().getName();
+        private final Exception stackTrace = new Exception("Stack trace of borrowing caller");
+        private boolean reported = false;
+
+        long borrowedAt()
+        {
+            return borrowedAt;
+        }
+
+        String threadName()
+        {
+            return threadName;
+        }
+
+        Exception stackTrace()
+        {
+            return stackTrace;
+        }
+
+        synchronized boolean markReported()
+        {
+            var firstReport = !reported;
+            reported = true;
+            return firstReport;
+        }
+    }
+}
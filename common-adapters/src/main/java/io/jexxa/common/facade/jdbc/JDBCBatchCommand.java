@@ -0,0 +1,143 @@
+package io.jexxa.common.facade.jdbc;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Executes the same SQL command for multiple sets of arguments using JDBC batches, so that many rows are written
+ * with few round-trips.
+ * <p>
+ * If auto commit is enabled, all executions are committed together, or rolled back if one execution fails.
+ * Within a transaction, committing and rolling back is up to the transaction.
+ */
+@SuppressWarnings("unused")
+public class JDBCBatchCommand extends JDBCPreparedStatement
+{
+    private static final String SQL_STATEMENT_FAILED = "Could not execute SQL batch statement : ";
+
+    private final Stream<List<Object>> batchArguments;
+    private final int batchSize;
+
+    /**
+     * Creates a JDBCBatchCommand
+     *
+     * @param jdbcConnection used connection to execute the command
+     * @param sqlCommand must include the complete command with a '?' as placeholder for each argument
+     * @param batchArguments includes the arguments of each execution. The stream is consumed lazily.
+     * @param batchSize maximum number of executions that are sent to the database in a single round-trip
+     */
+    public JDBCBatchCommand(Supplier<JDBCConnection> jdbcConnection, String sqlCommand, Stream<List<Object>> batchArguments, int batchSize)
+    {
+        super(jdbcConnection, sqlCommand, List.of());
+        this.batchArguments = Objects.requireNonNull(batchArguments);
+        if (batchSize < 1)
+        {
+            throw new IllegalArgumentException("Batch size must be at least 1");
+        }
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Execute command as 'update' so that each execution must change at least one row
+     */
+    public void asUpdate()
+    {
+        execute(true);
+    }
+
+    /**
+     * Execute command. Return values of the executions are not processed
+     */
+    public void asIgnore()
+    {
+        execute(false);
+    }
+
+    private void execute(boolean requireUpdate)
+    {
+        try (var cachedStatement = createPreparedStatement())
+        {
+            var connection = cachedStatement.connection();
+            var ownTransaction = connection.isAutoCommit();
+            if (ownTransaction)
+            {
+                connection.disableAutoCommit();
+            }
+
+            try {
+                executeBatches(cachedStatement.statement(), requireUpdate);
+                if (ownTransaction)
+                {
+                    connection.commit();
+                }
+            } catch (SQLException | RuntimeException e) {
+                cachedStatement.statement().clearBatch();
+                if (ownTransaction)
+                {
+                    rollback(connection, e);
+                }
+                throw e;
+            } finally {
+                if (ownTransaction)
+                {
+                    connection.enableAutoCommit();
+                }
+            }
+        }
+        catch (SQLException e)
+        {
+            handleSQLException(e);
+            throw new IllegalArgumentException(SQL_STATEMENT_FAILED + getSQLStatement(), e);
+        }
+    }
+
+    private void executeBatches(PreparedStatement preparedStatement, boolean requireUpdate) throws SQLException
+    {
+        var pendingExecutions = 0;
+        var iterator = batchArguments.iterator();
+        while (iterator.hasNext())
+        {
+            var arguments = iterator.next();
+            for (var i = 0; i < arguments.size(); ++i)
+            {
+                preparedStatement.setObject(i + 1, arguments.get(i));
+            }
+            preparedStatement.addBatch();
+
+            if (++pendingExecutions == batchSize)
+            {
+                executeBatch(preparedStatement, requireUpdate);
+                pendingExecutions = 0;
+            }
+        }
+
+        if (pendingExecutions > 0)
+        {
+            executeBatch(preparedStatement, requireUpdate);
+        }
+    }
+
+    private static void executeBatch(PreparedStatement preparedStatement, boolean requireUpdate) throws SQLException
+    {
+        for (var updateCount : preparedStatement.executeBatch())
+        {
+            if (requireUpdate && updateCount == 0)
+            {
+                throw new IllegalArgumentException("Command was executed but returned that nothing changed! ");
+            }
+        }
+    }
+
+    private static void rollback(JDBCConnection connection, Exception cause)
+    {
+        try {
+            connection.rollback();
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+}
@@ -28,15 +28,16 @@ public class JDBCCommand extends JDBCPreparedStatement
      */
     public void asUpdate()
     {
-        try (var preparedStatement = createPreparedStatement())
+        try (var cachedStatement = createPreparedStatement())
         {
-            if( preparedStatement.executeUpdate() == 0)
+            if( cachedStatement.statement().executeUpdate() == 0)
             {
                 throw new IllegalArgumentException("Command was executed but returned that nothing changed! ");
             }
         }
         catch (SQLException e)
         {
+            handleSQLException(e);
             throw new IllegalArgumentException(SQL_STATEMENT_FAILED + getSQLStatement(), e);
         }
     }
@@ -46,9 +47,9 @@ public class JDBCCommand extends JDBCPreparedStatement
      */
     public void asEmpty( )
     {
-        try (var preparedStatement = createPreparedStatement())
+        try (var cachedStatement = createPreparedStatement())
         {
-            if( preparedStatement.executeUpdate() == 1)
+            if( cachedStatement.statement().executeUpdate() == 1)
             {
                 throw new IllegalArgumentException("Command was executed but returned that something changed! ");
             }
@@ -56,6 +57,25 @@ public class JDBCCommand extends JDBCPreparedStatement
 
         catch (SQLException e)
         {
+            handleSQLException(e);
+            throw new IllegalArgumentException(SQL_STATEMENT_FAILED + getSQLStatement(), e);
+        }
+    }
+
+    /**
+     * Execute command and return the number of changed rows
+     *
+     * @return number of changed rows
+     */
+    public int asRowCount( )
+    {
+        try (var cachedStatement = createPreparedStatement())
+        {
+            return cachedStatement.statement().executeUpdate();
+        }
+        catch (SQLException e)
+        {
+            handleSQLException(e);
             throw new IllegalArgumentException(SQL_STATEMENT_FAILED + getSQLStatement(), e);
         }
     }
@@ -65,12 +85,13 @@ public class JDBCCommand extends JDBCPreparedStatement
      */
     public void asIgnore( )
     {
-        try (var preparedStatement = createPreparedStatement())
+        try (var cachedStatement = createPreparedStatement())
         {
-            preparedStatement.executeUpdate();
+            cachedStatement.statement().executeUpdate();
         }
         catch (SQLException e)
         {
+            handleSQLException(e);
             throw new IllegalArgumentException(SQL_STATEMENT_FAILED + getSQLStatement(), e);
         }
     }
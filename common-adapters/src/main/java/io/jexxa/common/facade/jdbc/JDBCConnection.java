@@ -11,10 +11,18 @@ import java.sql.Connection;
 import java.sql.DriverManager;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
 
 import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
 
@@ -47,6 +55,31 @@ public class JDBCConnection implements AutoCloseable
     private IsolationLevel isolationLevel;
     private boolean autoCommit = true;
 
+    // Validation policy: A connection is only validated if it was idle for a while or if a statement failed because
+    // the connection is broken. So, statements on a connection in use do not require an additional round-trip.
+    private final int validationTimeout;
+    private final long validationIdleTime;
+    private volatile long lastUsed = System.nanoTime();
+    private volatile boolean validationRequired = false;
+
+    // LRU cache of prepared statements, keyed by SQL. A statement is removed while it is in use, so that a nested
+    // execution of the same SQL uses its own statement
+    private final int statementCacheSize;
+    private final int fetchSize;
+    private final int batchSize;
+    private final Map<String, PreparedStatement> statementCache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest)
+        {
+            if (size() > statementCacheSize)
+            {
+                closeStatement(eldest.getValue());
+                return true;
+            }
+            return false;
+        }
+    };
+
     private static final Logger LOGGER = getLogger(JDBCConnection.class);
 
     public JDBCConnection(Properties properties)
@@ -59,6 +92,11 @@ public class JDBCConnection implements AutoCloseable
 
         this.connection = initJDBCConnection(properties, autoCommit);
         this.properties = properties;
+        this.validationTimeout = readNumber(properties, JDBCProperties.jdbcValidationTimeout(), 5);
+        this.validationIdleTime = TimeUnit.MILLISECONDS.toNanos(readNumber(properties, JDBCProperties.jdbcValidationIdleTime(), 5000));
+        this.statementCacheSize = readNumber(properties, JDBCProperties.jdbcStatementCacheSize(), 32);
+        this.fetchSize = readNumber(properties, JDBCProperties.jdbcFetchSize(), 1000);
+        this.batchSize = Math.max(1, readNumber(properties, JDBCProperties.jdbcBatchSize(), 1000));
         setIsolationLevel();
     }
 
@@ -136,9 +174,24 @@ public class JDBCConnection implements AutoCloseable
         }
     }
 
+    /**
+     * Ensures that the connection is in a valid state. The connection is only validated if it was not used for the
+     * configured validation idle time, or if a previous statement failed because the connection is broken
+     * (see {@link #isConnectionFailure(SQLException)}). If the connection is invalid, it is reset.
+     *
+     * @throws IllegalStateException if the connection is invalid and cannot be reset
+     * @return this JDBCConnection
+     */
     @SuppressWarnings("java:S2139") // Here we log and rethrow an exception to document that we tried to handle a connection failure without success and must give up
     public final JDBCConnection validateConnection()
     {
+        var now = System.nanoTime();
+        if (!validationRequired && now - lastUsed < validationIdleTime)
+        {
+            lastUsed = now;
+            return this;
+        }
+
         try
         {
             if (!isValid())
@@ -155,9 +208,44 @@ public class JDBCConnection implements AutoCloseable
             throw e;
         }
 
+        validationRequired = false;
+        lastUsed = System.nanoTime();
         return this;
     }
 
+    /**
+     * Checks if the given exception indicates a broken connection. In this case, the connection is validated before
+     * it is used the next time.
+     *
+     * @param exception thrown by a statement executed on this connection
+     */
+    void handleSQLException(SQLException exception)
+    {
+        if (isConnectionFailure(exception))
+        {
+            validationRequired = true;
+        }
+    }
+
+    /**
+     * @return true if the given exception or one of its chained exceptions indicates a broken connection. This is the
+     *          case for connection related exception types and SQLState class 08 (connection exception).
+     */
+    static boolean isConnectionFailure(SQLException exception)
+    {
+        for (var current = exception; current != null; current = current.getNextException())
+        {
+            if (current instanceof SQLNonTransientConnectionException
+                    || current instanceof SQLTransientConnectionException
+                    || current instanceof SQLRecoverableException
+                    || (current.getSQLState() != null && current.getSQLState().startsWith("08")))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
     public void enableAutoCommit()
     {
         autoCommit = true;
@@ -178,6 +266,21 @@ public class JDBCConnection implements AutoCloseable
         }
     }
 
+    boolean isAutoCommit()
+    {
+        return autoCommit;
+    }
+
+    int fetchSize()
+    {
+        return fetchSize;
+    }
+
+    Properties properties()
+    {
+        return properties;
+    }
+
     public void commit()
     {
         if (!autoCommit) {
@@ -228,11 +331,50 @@ public class JDBCConnection implements AutoCloseable
         return new JDBCTableBuilder<>(this::validateConnection);
     }
 
+    /**
+     * Creates a query from SQL that was created by a {@link JDBCQueryBuilder} before. This allows creating the SQL of
+     * fixed query shapes only once.
+     *
+     * @param sqlQuery as returned by {@link JDBCQueryBuilder#getStatement()}
+     * @param arguments of the query in the order of their placeholders
+     * @return JDBCQuery that can be executed
+     */
+    public JDBCQuery query(String sqlQuery, List<Object> arguments)
+    {
+        return new JDBCQuery(this::validateConnection, sqlQuery, arguments);
+    }
+
+    /**
+     * Creates a command from SQL that was created by a {@link JDBCCommandBuilder} before. This allows creating the SQL
+     * of fixed command shapes only once.
+     *
+     * @param sqlCommand as returned by {@link JDBCCommandBuilder#getStatement()}
+     * @param arguments of the command in the order of their placeholders
+     * @return JDBCCommand that can be executed
+     */
+    public JDBCCommand command(String sqlCommand, List<Object> arguments)
+    {
+        return new JDBCCommand(this::validateConnection, sqlCommand, arguments);
+    }
+
+    /**
+     * Creates a command that is executed once for each element of the given arguments using JDBC batches
+     * (see {@link JDBCProperties#jdbcBatchSize()}).
+     *
+     * @param sqlCommand as returned by {@link JDBCCommandBuilder#getStatement()}
+     * @param batchArguments arguments of each execution in the order of their placeholders
+     * @return JDBCBatchCommand that can be executed
+     */
+    public JDBCBatchCommand batchCommand(String sqlCommand, Stream<List<Object>> batchArguments)
+    {
+        return new JDBCBatchCommand(this::validateConnection, sqlCommand, batchArguments, batchSize);
+    }
+
 
     /**
      * This method resets the internal JDBC connection in the following way:
      * <ol>
-     *  <li>The existing JDBC connection is closed.</li>
+     *  <li>The existing JDBC connection and all cached prepared statements are closed.</li>
      *  <li>A new JDBC connection is established based on the given properties in the constructor.</li>
      *  <li>The new JDBC connection is validated using {@link Connection#isValid(int) }.</li>
      * </ol>
@@ -243,7 +385,7 @@ public class JDBCConnection implements AutoCloseable
         close();
         try
         {
-            if (!getConnection().isValid(NO_TIMEOUT))
+            if (!getConnection().isValid(validationTimeout))
             {
                 throw new IllegalStateException("JDBC Connection is invalid for connection " + properties.getProperty(JDBCProperties.jdbcUrl()));
             }
@@ -253,9 +395,12 @@ public class JDBCConnection implements AutoCloseable
         }
     }
 
+    /**
+     * @return true if the connection is valid within the configured validation timeout
+     */
     public boolean isValid()
     {
-        return isValid(NO_TIMEOUT);
+        return isValid(validationTimeout);
     }
 
     public boolean isValid(int timeout)
@@ -274,7 +419,8 @@ public class JDBCConnection implements AutoCloseable
     }
 
     /**
-     * Creates a PreparedStatement
+     * Returns a PreparedStatement from the statement cache or creates a new one. The PreparedStatement must be
+     * returned by {@link #releaseStatement(String, PreparedStatement)} instead of closing it.
      *
      * @param sqlStatement describes the template of the command
      * @return PreparedStatement
@@ -282,12 +428,60 @@ public class JDBCConnection implements AutoCloseable
      */
     PreparedStatement prepareStatement(String sqlStatement) throws SQLException
     {
+        synchronized (statementCache)
+        {
+            var cachedStatement = statementCache.remove(sqlStatement);
+            if (cachedStatement != null)
+            {
+                return cachedStatement;
+            }
+        }
         return getConnection().prepareStatement(sqlStatement);
     }
 
+    /**
+     * Returns a PreparedStatement to the statement cache, so that it can be reused for the same SQL. If the cache
+     * already contains a statement for this SQL, or the statement belongs to a connection that was closed in the meantime,
+     * the statement is closed.
+     */
+    void releaseStatement(String sqlStatement, PreparedStatement preparedStatement)
+    {
+        try {
+            if (statementCacheSize > 0 && !preparedStatement.isClosed())
+            {
+                preparedStatement.clearParameters();
+                preparedStatement.clearBatch();
+                synchronized (statementCache)
+                {
+                    if (statementCache.putIfAbsent(sqlStatement, preparedStatement) == null)
+                    {
+                        return;
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            LOGGER.debug("Could not reuse prepared statement. Reason: {}", e.getMessage());
+        }
+        closeStatement(preparedStatement);
+    }
+
+    private static void closeStatement(PreparedStatement preparedStatement)
+    {
+        try {
+            preparedStatement.close();
+        } catch (SQLException e) {
+            LOGGER.debug("Could not close prepared statement. Reason: {}", e.getMessage());
+        }
+    }
+
     @Override
     public void close()
     {
+        synchronized (statementCache)
+        {
+            statementCache.values().forEach(JDBCConnection::closeStatement);
+            statementCache.clear();
+        }
         Optional.ofNullable(connection)
                 .ifPresent(ThrowingConsumer.exceptionLogger(Connection::close, getLogger(JDBCConnection.class)));
         connection = null;
@@ -325,6 +519,20 @@ public class JDBCConnection implements AutoCloseable
     }
 
 
+    private static int readNumber(Properties properties, String key, int defaultValue)
+    {
+        try {
+            var value = Integer.parseInt(properties.getProperty(key, String.valueOf(defaultValue)).trim());
+            if (value < 0)
+            {
+                throw new IllegalArgumentException("Property " + key + " must not be negative");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + key + " must be a number but is " + properties.getProperty(key), e);
+        }
+    }
+
     private static void initDBDriver(Properties properties)
     {
         try
@@ -1,8 +1,14 @@
 package io.jexxa.common.facade.jdbc;
 
+import io.jexxa.adapterapi.invocation.transaction.TransactionContext;
+import io.jexxa.adapterapi.invocation.transaction.TransactionHandler;
+import io.jexxa.adapterapi.invocation.transaction.TransactionManager;
+
 import java.util.Map;
+import java.util.Optional;
 import java.util.Properties;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
 
 import static io.jexxa.adapterapi.JexxaContext.registerCleanupHandler;
 
@@ -15,8 +21,14 @@ public final class JDBCConnectionPool implements AutoCloseable {
     // Concurrent maps are used to handle optimized concurrent access to this class without synchronizing each method
     // This is possible because methods that are accessed in parallel are synchronized by the maps (such as computeIfAbsent)
     private final Map<String, JDBCConnection> sharedConnectionMap = new ConcurrentHashMap<>();
-    private final Map<Object, JDBCConnection> exclusiveConnectionMap = new ConcurrentHashMap<>();
+    private final Map<ExclusiveConnectionKey, JDBCConnection> exclusiveConnectionMap = new ConcurrentHashMap<>();
     private final Map<Object, JDBCConnection.IsolationLevel> connectionConfiguration = new ConcurrentHashMap<>();
+    private final Map<String, BoundedConnectionPool> connectionPools = new ConcurrentHashMap<>();
+    private final Map<TransactionConnectionKey, JDBCConnection> transactionConnectionMap = new ConcurrentHashMap<>();
+    // Connections used outside a transaction are bound to a thread and borrowed from a separate pool, so that they
+    // cannot exhaust the connections for transactions
+    private final Map<String, BoundedConnectionPool> threadConnectionPools = new ConcurrentHashMap<>();
+    private final Map<ThreadConnectionKey, JDBCConnection> threadConnectionMap = new ConcurrentHashMap<>();
 
 
     public static void disableConnectionSharing() { isConnectionSharingEnabled = false; }
@@ -24,7 +36,22 @@ public final class JDBCConnectionPool implements AutoCloseable {
     // This is only meaningful if your application runs only a single thread
     public static void enableConnectionSharing() { isConnectionSharingEnabled = true; }
 
-    public static synchronized JDBCConnection getJDBCConnection(Properties properties, Object managingObject)
+    /**
+     * Returns the connection for the given managing object. Unless connection sharing is enabled, each thread uses
+     * its own connections, so that different threads can run transactions in parallel.
+     * <p>
+     * If the managing object is a {@link TransactionHandler} that is enlisted into the current transaction, a
+     * connection is borrowed from the bounded pool of the database. All enlisted handlers of this database share
+     * this connection until it is returned by {@link #releaseTransactionConnection(Properties)}.
+     * <p>
+     * Otherwise, all managing objects of a database share the connection of the thread that started the current
+     * transaction, or of the current thread if no transaction is active. These connections are borrowed from a
+     * second bounded pool (see {@link JDBCProperties#jdbcPoolMaxThreadConnections()}). They are returned by
+     * {@link #releaseThreadConnections()} or as soon as their thread has terminated and another connection is checked
+     * out or awaited. Managing objects with a configured
+     * isolation level get an exclusive connection per thread instead.
+     */
+    public static JDBCConnection getJDBCConnection(Properties properties, Object managingObject)
     {
         var connectionName = properties.getProperty(JDBCProperties.jdbcUrl());
 
@@ -33,11 +60,77 @@ public final class JDBCConnectionPool implements AutoCloseable {
             throw new IllegalArgumentException("Parameter " + JDBCProperties.jdbcUrl() + " is missing");
         }
 
-        if (!isConnectionSharingEnabled || JDBC_CONNECTION_POOL.requiresExclusiveConnection(managingObject))
+        if (isConnectionSharingEnabled && !JDBC_CONNECTION_POOL.requiresExclusiveConnection(managingObject))
+        {
+            return JDBC_CONNECTION_POOL.getSharedConnection(properties, connectionName);
+        }
+
+        if (!JDBC_CONNECTION_POOL.requiresExclusiveConnection(managingObject)
+                && managingObject instanceof TransactionHandler transactionHandler
+                && TransactionManager.isEnlisted(transactionHandler))
+        {
+            return JDBC_CONNECTION_POOL.getTransactionConnection(properties, connectionName);
+        }
+
+        if (JDBC_CONNECTION_POOL.requiresExclusiveConnection(managingObject))
         {
             return JDBC_CONNECTION_POOL.getExclusiveConnection(properties, managingObject);
         }
-        return JDBC_CONNECTION_POOL.getSharedConnection(properties, connectionName);
+
+        return JDBC_CONNECTION_POOL.getThreadConnection(properties, connectionName);
+    }
+
+    /**
+     * Returns the pooled connection of the current transaction to the pool of the database. Uncommitted changes
+     * are rolled back. This method must be called when the transaction is closed.
+     */
+    public static void releaseTransactionConnection(Properties properties)
+    {
+        var connectionName = properties.getProperty(JDBCProperties.jdbcUrl());
+        TransactionManager.currentTransaction()
+                .map(transaction -> JDBC_CONNECTION_POOL.transactionConnectionMap.remove(new TransactionConnectionKey(transaction, connectionName)))
+                .ifPresent(jdbcConnection -> JDBC_CONNECTION_POOL.getConnectionPool(properties, connectionName).release(jdbcConnection));
+    }
+
+    /**
+     * Borrows a connection from the bounded pool of the database that is used exclusively by the caller, independent
+     * of the current thread and transaction. The connection must be returned by {@link #releaseConnection(Properties, JDBCConnection)}.
+     */
+    static JDBCConnection borrowConnection(Properties properties)
+    {
+        var connectionName = properties.getProperty(JDBCProperties.jdbcUrl());
+        JDBC_CONNECTION_POOL.releaseConnectionsOfTerminatedThreads();
+        return JDBC_CONNECTION_POOL.getConnectionPool(properties, connectionName).borrow();
+    }
+
+    /**
+     * Returns a connection borrowed by {@link #borrowConnection(Properties)}. Uncommitted changes are rolled back.
+     */
+    static void releaseConnection(Properties properties, JDBCConnection jdbcConnection)
+    {
+        var connectionName = properties.getProperty(JDBCProperties.jdbcUrl());
+        JDBC_CONNECTION_POOL.getConnectionPool(properties, connectionName).release(jdbcConnection);
+    }
+
+    /**
+     * Returns the connections that the current thread uses outside a transaction to their pool. This method should
+     * be called when a thread finishes a unit of work, such as processing a message, so that the connections are
+     * available for other threads without waiting for the termination of this thread.
+     */
+    public static void releaseThreadConnections()
+    {
+        var currentThread = Thread.currentThread();
+        JDBC_CONNECTION_POOL.releaseThreadConnectionsIf(key -> key.thread() == currentThread);
+    }
+
+    public static JDBCPoolStatistics getPoolStatistics(Properties properties)
+    {
+        var connectionName = properties.getProperty(JDBCProperties.jdbcUrl());
+        if ( connectionName == null )
+        {
+            throw new IllegalArgumentException("Parameter " + JDBCProperties.jdbcUrl() + " is missing");
+        }
+        return JDBC_CONNECTION_POOL.getConnectionPool(properties, connectionName).getStatistics();
     }
 
     public static boolean validateJDBCConnection(Properties properties)
@@ -73,15 +166,120 @@ public final class JDBCConnectionPool implements AutoCloseable {
                 .validateConnection();
     }
 
+    private BoundedConnectionPool getConnectionPool(Properties properties, String connectionName)
+    {
+        return connectionPools.computeIfAbsent(connectionName, _ -> new BoundedConnectionPool(properties));
+    }
+
+    // Connections are borrowed until their thread terminates, so that they must not be reported as leaks
+    private BoundedConnectionPool getThreadConnectionPool(Properties properties, String connectionName)
+    {
+        return threadConnectionPools.computeIfAbsent(connectionName, _ -> new BoundedConnectionPool(properties,
+                readMaxThreadConnections(properties), false, this::releaseConnectionsOfTerminatedThreads));
+    }
+
+    private JDBCConnection getTransactionConnection(Properties properties, String connectionName)
+    {
+        var key = new TransactionConnectionKey(TransactionManager.currentTransaction().orElseThrow(), connectionName);
+        var transactionConnection = transactionConnectionMap.get(key);
+
+        // A transaction is not used concurrently, so borrowing outside computeIfAbsent avoids blocking other transactions
+        if (transactionConnection == null)
+        {
+            releaseConnectionsOfTerminatedThreads();
+            transactionConnection = getConnectionPool(properties, connectionName).borrow();
+            transactionConnectionMap.put(key, transactionConnection);
+        }
+
+        return transactionConnection;
+    }
+
+    private JDBCConnection getThreadConnection(Properties properties, String connectionName)
+    {
+        var key = new ThreadConnectionKey(connectionName, getOwningThread());
+        var threadConnection = threadConnectionMap.get(key);
+
+        // Only the owning thread borrows its connection, so borrowing outside computeIfAbsent avoids blocking other threads
+        if (threadConnection == null)
+        {
+            releaseConnectionsOfTerminatedThreads();
+            threadConnection = getThreadConnectionPool(properties, connectionName).borrow();
+            threadConnectionMap.put(key, threadConnection);
+        }
+
+        return threadConnection.validateConnection();
+    }
+
     private JDBCConnection getExclusiveConnection(Properties properties, Object managingObject)
     {
-        return exclusiveConnectionMap
-                .computeIfAbsent(managingObject, key -> {
-                    var jdbcConnection = new JDBCConnection(properties);
-                    jdbcConnection.setIsolationLevel(connectionConfiguration.get(managingObject));
-                    return jdbcConnection;
-                })
-                .validateConnection();
+        var key = new ExclusiveConnectionKey(managingObject, getOwningThread());
+        var exclusiveConnection = exclusiveConnectionMap.get(key);
+
+        if (exclusiveConnection == null)
+        {
+            releaseConnectionsOfTerminatedThreads();
+            exclusiveConnection = exclusiveConnectionMap
+                    .computeIfAbsent(key, _ -> {
+                        var jdbcConnection = new JDBCConnection(properties);
+                        jdbcConnection.setIsolationLevel(connectionConfiguration.get(managingObject));
+                        return jdbcConnection;
+                    });
+        }
+
+        return exclusiveConnection.validateConnection();
+    }
+
+    private static int readMaxThreadConnections(Properties properties)
+    {
+        var key = JDBCProperties.jdbcPoolMaxThreadConnections();
+        try {
+            var value = Integer.parseInt(properties.getProperty(key, "100").trim());
+            if (value < 1)
+            {
+                throw new IllegalArgumentException("Property " + key + " must be at least 1");
+            }
+            return value;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + key + " must be a number but is " + properties.getProperty(key), e);
+        }
+    }
+
+    private static Thread getOwningThread()
+    {
+        return TransactionManager.currentTransaction()
+                .map(TransactionContext::ownerThread)
+                .orElseGet(Thread::currentThread);
+    }
+
+    /**
+     * Called whenever a connection is checked out and periodically while waiting for a thread connection, so that
+     * connections of terminated threads are available again
+     */
+    private void releaseConnectionsOfTerminatedThreads()
+    {
+        releaseThreadConnectionsIf(key -> !key.thread().isAlive());
+
+        exclusiveConnectionMap.entrySet().removeIf(entry -> {
+            if (entry.getKey().thread().isAlive())
+            {
+                return false;
+            }
+            entry.getValue().close();
+            return true;
+        });
+    }
+
+    private void releaseThreadConnectionsIf(Predicate<ThreadConnectionKey> condition)
+    {
+        threadConnectionMap.entrySet().removeIf(entry -> {
+            if (!condition.test(entry.getKey()))
+            {
+                return false;
+            }
+            Optional.ofNullable(threadConnectionPools.get(entry.getKey().connectionName()))
+                    .ifPresentOrElse(pool -> pool.release(entry.getValue()), entry.getValue()::close);
+            return true;
+        });
     }
 
     @Override
@@ -91,5 +289,41 @@ public final class JDBCConnectionPool implements AutoCloseable {
 
         exclusiveConnectionMap.forEach( ((s, jdbcConnection) -> jdbcConnection.close()));
         exclusiveConnectionMap.clear();
+
+        transactionConnectionMap.clear();
+        connectionPools.forEach( ((s, connectionPool) -> connectionPool.close()));
+        connectionPools.clear();
+
+        threadConnectionMap.clear();
+        threadConnectionPools.forEach( ((s, connectionPool) -> connectionPool.close()));
+        threadConnectionPools.clear();
+    }
+
+    private record TransactionConnectionKey(TransactionContext transactionContext, String connectionName)
+    {
+        // TransactionContext does not override equals, so that transactions are compared by identity
+    }
+
+    private record ThreadConnectionKey(String connectionName, Thread thread)
+    {
+        // Threads do not override equals, so that they are compared by identity
+    }
+
+    private record ExclusiveConnectionKey(Object managingObject, Thread thread)
+    {
+        // Managing objects are compared by identity, independent of their implementation of equals
+        @Override
+        public boolean equals(Object other)
+        {
+            return other instanceof ExclusiveConnectionKey(Object otherObject, Thread otherThread)
+                    && managingObject == otherObject
+                    && thread == otherThread;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return 31 * System.identityHashCode(managingObject) + System.identityHashCode(thread);
+        }
     }
 }
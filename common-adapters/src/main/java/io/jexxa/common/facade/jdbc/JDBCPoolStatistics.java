@@ -0,0 +1,22 @@
+package io.jexxa.common.facade.jdbc;
+
+import java.time.Duration;
+
+/**
+ * Statistics of the connection pool of a database, see {@link JDBCConnectionPool#getPoolStatistics(java.util.Properties)}.
+ *
+ * @param maxSize maximum number of connections that can be borrowed at the same time
+ * @param activeConnections number of currently borrowed connections
+ * @param idleConnections number of open connections that are currently not borrowed
+ * @param poolWaits number of times a caller had to wait for a connection
+ * @param poolWaitTime total time callers waited for a connection
+ * @param detectedLeaks number of connections that were borrowed longer than the leak detection threshold
+ */
+public record JDBCPoolStatistics(int maxSize,
+                                 int activeConnections,
+                                 int idleConnections,
+                                 long poolWaits,
+                                 Duration poolWaitTime,
+                                 long detectedLeaks)
+{
+}
@@ -14,6 +14,7 @@ class JDBCPreparedStatement
     private final Supplier<JDBCConnection> jdbcConnection;
     private final String sqlStatement;
     private final List<Object> arguments;
+    private JDBCConnection usedConnection;
 
     JDBCPreparedStatement(Supplier<JDBCConnection> jdbcConnection, String sqlStatement, List<Object> arguments)
     {
@@ -23,35 +24,83 @@ class JDBCPreparedStatement
     }
 
     /**
-     * This method creates a new PreparedStatement including SQL statement and all arguments.
+     * This method returns a PreparedStatement including SQL statement and all arguments. The PreparedStatement is
+     * taken from the statement cache of the connection if possible.
      * <p>
-     * Important note: The caller of this method is responsible to close the PreparedStatement, e.g., by calling it
-     * in a try-with-resources statement.
+     * Important note: The caller of this method is responsible to close the returned CachedStatement, e.g., by calling it
+     * in a try-with-resources statement. This returns the PreparedStatement to the statement cache.
      *
-     * @return PreparedStatement that can be directly executed
+     * @return CachedStatement whose PreparedStatement can be directly executed
      */
     @CheckReturnValue
-    protected PreparedStatement createPreparedStatement()
+    protected CachedStatement createPreparedStatement()
     {
+        return createPreparedStatement(getJDBCConnection());
+    }
+
+    /**
+     * Same as {@link #createPreparedStatement()}, but uses the given connection instead of the connection of this statement
+     *
+     * @param connection used to prepare the statement
+     * @return CachedStatement whose PreparedStatement can be directly executed
+     */
+    @CheckReturnValue
+    protected CachedStatement createPreparedStatement(JDBCConnection connection)
+    {
+        PreparedStatement preparedStatement = null;
         try
         {
-            var preparedStatement = jdbcConnection.get().prepareStatement(sqlStatement);
+            usedConnection = connection;
+            preparedStatement = usedConnection.prepareStatement(sqlStatement);
 
             for (var i = 0; i < arguments.size(); ++i)
             {
                 preparedStatement.setObject(i+1, arguments.get(i));
             }
 
-            return preparedStatement;
+            return new CachedStatement(usedConnection, sqlStatement, preparedStatement);
         } catch (SQLException e)
         {
+            if (preparedStatement != null)
+            {
+                usedConnection.releaseStatement(sqlStatement, preparedStatement);
+            }
+            handleSQLException(e);
             throw new IllegalArgumentException("Invalid Query " + sqlStatement + " " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Must be called if executing the PreparedStatement fails, so that a broken connection is detected
+     * (see {@link JDBCConnection#validateConnection()}).
+     */
+    protected void handleSQLException(SQLException exception)
+    {
+        if (usedConnection != null)
+        {
+            usedConnection.handleSQLException(exception);
+        }
+    }
+
+    protected JDBCConnection getJDBCConnection()
+    {
+        return jdbcConnection.get();
+    }
+
     protected String getSQLStatement()
     {
         return sqlStatement;
     }
 
+    /**
+     * PreparedStatement that is returned to the statement cache of its connection when it is closed
+     */
+    protected record CachedStatement(JDBCConnection connection, String sqlStatement, PreparedStatement statement) implements AutoCloseable
+    {
+        @Override
+        public void close()
+        {
+            connection.releaseStatement(sqlStatement, statement);
+        }
+    }
 }
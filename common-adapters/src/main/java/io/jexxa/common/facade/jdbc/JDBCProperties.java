@@ -17,6 +17,30 @@ public class JDBCProperties
     /** Defines the jdbc transaction level. This must be one of the following values "read-uncommitted", "read-committed", "repeatable-read", "serializable"*/
     public static String jdbcTransactionIsolationLevel() { return  PropertiesPrefix.globalPrefix() + "jdbc.transaction.isolation.level";}
 
+    /** Timeout in seconds to validate a connection. Default is 5 */
+    public static String jdbcValidationTimeout() { return  PropertiesPrefix.globalPrefix() + "jdbc.validation.timeout";}
+    /** Time in milliseconds a connection can be idle before it is validated on next use. 0 validates a connection on each use. Default is 5000 */
+    public static String jdbcValidationIdleTime() { return  PropertiesPrefix.globalPrefix() + "jdbc.validation.idle.time";}
+    /** Maximum number of prepared statements that are cached per connection. 0 disables caching. Default is 32 */
+    public static String jdbcStatementCacheSize() { return  PropertiesPrefix.globalPrefix() + "jdbc.statement.cache.size";}
+    /** Number of rows that are fetched per round-trip when a query result is streamed. Default is 1000 */
+    public static String jdbcFetchSize() { return  PropertiesPrefix.globalPrefix() + "jdbc.fetch.size";}
+    /** Maximum number of executions that are sent in a single round-trip when writing multiple aggregates. Default is 1000 */
+    public static String jdbcBatchSize() { return  PropertiesPrefix.globalPrefix() + "jdbc.batch.size";}
+
+    /** Maximum number of pooled connections per database that are used by transactions at the same time. Default is 10 */
+    public static String jdbcPoolMaxSize() { return  PropertiesPrefix.globalPrefix() + "jdbc.pool.max.size";}
+    /** Maximum number of threads per database that use a connection outside a transaction at the same time. Default is 100 */
+    public static String jdbcPoolMaxThreadConnections() { return  PropertiesPrefix.globalPrefix() + "jdbc.pool.max.thread.connections";}
+    /** Number of connections per database that are opened when the pool is created. Default is 0 */
+    public static String jdbcPoolMinIdle() { return  PropertiesPrefix.globalPrefix() + "jdbc.pool.min.idle";}
+    /** Maximum number of idle connections per database that are kept open. Default is the value of jdbc.pool.max.size */
+    public static String jdbcPoolMaxIdle() { return  PropertiesPrefix.globalPrefix() + "jdbc.pool.max.idle";}
+    /** Maximum time in milliseconds to wait for a pooled connection. Default is 30000 */
+    public static String jdbcPoolTimeout() { return  PropertiesPrefix.globalPrefix() + "jdbc.pool.timeout";}
+    /** Time in milliseconds after which a borrowed connection is reported as possible leak. 0 disables leak detection. Default is 60000 */
+    public static String jdbcPoolLeakDetectionThreshold() { return  PropertiesPrefix.globalPrefix() + "jdbc.pool.leak.detection.threshold";}
+
     public static String repositoryStrategy() { return  PropertiesPrefix.globalPrefix() + "repository.strategy";}
 
     public static String objectstoreStrategy() { return PropertiesPrefix.globalPrefix() +  "objectstore.strategy";}
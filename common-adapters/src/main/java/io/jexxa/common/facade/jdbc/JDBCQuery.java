@@ -7,8 +7,12 @@ import java.sql.Timestamp;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
 import java.util.function.Supplier;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 @SuppressWarnings("unused")
 public class JDBCQuery extends JDBCPreparedStatement
@@ -81,21 +85,22 @@ public class JDBCQuery extends JDBCPreparedStatement
 
     public boolean isPresent()
     {
-        try (   var preparedStatement = createPreparedStatement();
-                var resultSet = preparedStatement.executeQuery() )
+        try (   var cachedStatement = createPreparedStatement();
+                var resultSet = cachedStatement.statement().executeQuery() )
         {
             return resultSet.next();
         }
         catch (SQLException e)
         {
+            handleSQLException(e);
             throw new IllegalStateException(INVALID_QUERY + getSQLStatement(), e);
         }
     }
 
     public <R> Stream<R> as(CheckedFunction<ResultSet, R> function)
     {
-        try (   var preparedStatement = createPreparedStatement();
-                var resultSet = preparedStatement.executeQuery() )
+        try (   var cachedStatement = createPreparedStatement();
+                var resultSet = cachedStatement.statement().executeQuery() )
         {
             List<R> result = new ArrayList<>();
             while ( resultSet.next() )
@@ -106,14 +111,15 @@ public class JDBCQuery extends JDBCPreparedStatement
         }
         catch (SQLException e)
         {
+            handleSQLException(e);
             throw new IllegalStateException(INVALID_QUERY + getSQLStatement(), e);
         }
     }
 
     public void processWith(CheckedConsumer<ResultSet> processor)
     {
-        try (   var preparedStatement = createPreparedStatement();
-                var resultSet = preparedStatement.executeQuery() )
+        try (   var cachedStatement = createPreparedStatement();
+                var resultSet = cachedStatement.statement().executeQuery() )
         {
             while ( resultSet.next() )
             {
@@ -122,7 +128,158 @@ public class JDBCQuery extends JDBCPreparedStatement
         }
         catch (SQLException e)
         {
+            handleSQLException(e);
             throw new IllegalStateException(INVALID_QUERY + getSQLStatement(), e);
         }
     }
+
+    /**
+     * Returns a lazy stream of the query result. In contrast to {@link #as(CheckedFunction)}, rows are fetched from
+     * the database in chunks of the configured fetch size (see {@link JDBCProperties#jdbcFetchSize()}) while the
+     * stream is consumed. So, large results can be processed in constant memory.
+     * <p>
+     * Some databases such as Postgres only use cursors within a transaction. So, if the connection of this query is in
+     * auto commit mode, the cursor runs in a read-only transaction on a dedicated connection of the pool (see
+     * {@link JDBCConnectionPool#getPoolStatistics(java.util.Properties)}), which is rolled back and returned when
+     * the stream is closed. Otherwise, the cursor runs on the connection of the current transaction.
+     * <p>
+     * Important note: The returned stream holds a statement, a cursor, and possibly a pooled connection. So, the
+     * caller must close the stream, e.g., by using try-with-resources, even if it is not completely consumed. If the
+     * stream is used within a transaction, it must be closed before the transaction is closed.
+     *
+     * @param function that maps the current row of the ResultSet
+     * @return lazy stream of mapped rows that must be closed
+     */
+    public <R> Stream<R> stream(CheckedFunction<ResultSet, R> function)
+    {
+        var connection = getJDBCConnection();
+        if (!connection.isAutoCommit())
+        {
+            return stream(connection, function, () -> { /* The transaction is closed by its owner */ });
+        }
+
+        var properties = connection.properties();
+        var cursorConnection = JDBCConnectionPool.borrowConnection(properties);
+        try
+        {
+            cursorConnection.disableAutoCommit();
+        }
+        catch (RuntimeException e)
+        {
+            JDBCConnectionPool.releaseConnection(properties, cursorConnection);
+            throw e;
+        }
+        return stream(cursorConnection, function, () -> JDBCConnectionPool.releaseConnection(properties, cursorConnection));
+    }
+
+    private <R> Stream<R> stream(JDBCConnection connection, CheckedFunction<ResultSet, R> function, Runnable releaseConnection)
+    {
+        CachedStatement cachedStatement;
+        try
+        {
+            cachedStatement = createPreparedStatement(connection);
+        }
+        catch (RuntimeException e)
+        {
+            releaseConnection.run();
+            throw e;
+        }
+
+        try
+        {
+            cachedStatement.statement().setFetchSize(connection.fetchSize());
+            var resultSet = cachedStatement.statement().executeQuery();
+            var resultSetSpliterator = new ResultSetSpliterator<>(resultSet, function,
+                    () -> closeStream(cachedStatement, resultSet, releaseConnection));
+
+            return StreamSupport.stream(resultSetSpliterator, false)
+                    .onClose(resultSetSpliterator::close);
+        }
+        catch (SQLException | RuntimeException e)
+        {
+            closeStream(cachedStatement, null, releaseConnection);
+            if (e instanceof SQLException sqlException)
+            {
+                handleSQLException(sqlException);
+                throw new IllegalStateException(INVALID_QUERY + getSQLStatement(), e);
+            }
+            throw (RuntimeException) e;
+        }
+    }
+
+    private void closeStream(CachedStatement cachedStatement, ResultSet resultSet, Runnable releaseConnection)
+    {
+        try
+        {
+            if (resultSet != null)
+            {
+                resultSet.close();
+            }
+            cachedStatement.statement().setFetchSize(0);
+        }
+        catch (SQLException e)
+        {
+            handleSQLException(e);
+        }
+        finally
+        {
+            cachedStatement.close();
+            releaseConnection.run();
+        }
+    }
+
+    /**
+     * Spliterator that reads the next row of a ResultSet on each advance. All resources are closed as soon as the last
+     * row was read or the stream is closed.
+     */
+    private final class ResultSetSpliterator<R> extends Spliterators.AbstractSpliterator<R>
+    {
+        private final ResultSet resultSet;
+        private final CheckedFunction<ResultSet, R> function;
+        private final Runnable closeHandler;
+        private boolean closed = false;
+
+        ResultSetSpliterator(ResultSet resultSet, CheckedFunction<ResultSet, R> function, Runnable closeHandler)
+        {
+            super(Long.MAX_VALUE, Spliterator.ORDERED | Spliterator.NONNULL);
+            this.resultSet = resultSet;
+            this.function = function;
+            this.closeHandler = closeHandler;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super R> action)
+        {
+            if (closed)
+            {
+                return false;
+            }
+
+            try
+            {
+                if (!resultSet.next())
+                {
+                    close();
+                    return false;
+                }
+                action.accept(function.apply(resultSet));
+                return true;
+            }
+            catch (SQLException e)
+            {
+                handleSQLException(e);
+                close();
+                throw new IllegalStateException(INVALID_QUERY + getSQLStatement(), e);
+            }
+        }
+
+        void close()
+        {
+            if (!closed)
+            {
+                closed = true;
+                closeHandler.run();
+            }
+        }
+    }
 }
@@ -101,6 +101,32 @@ public class  JDBCBuilder <T extends Enum<T>>
             return is(SQLSyntax.SQLOperation.NOT_EQUAL, value);
         }
 
+        public T isIn(JDBCObject... values)
+        {
+            if (values.length == 0)
+            {
+                throw new IllegalArgumentException("IN condition requires at least one value");
+            }
+
+            queryBuilder.getStatementBuilder()
+                    .append(SQLSyntax.SQLOperation.IN)
+                    .append("( ")
+                    .append(values[0].getBindParameter());
+            queryBuilder.addArgument(values[0].getJdbcValue());
+
+            for (var i = 1; i < values.length; ++i) // Handle remaining entries(with leading COMMA)
+            {
+                queryBuilder.getStatementBuilder()
+                        .append(SQLSyntax.COMMA)
+                        .append(values[i].getBindParameter());
+                queryBuilder.addArgument(values[i].getJdbcValue());
+            }
+
+            queryBuilder.getStatementBuilder().append(" ) ");
+
+            return queryBuilder;
+        }
+
 
         public T is(SQLSyntax.SQLOperation operation, Object attribute)
         {
@@ -254,6 +254,137 @@ public class JDBCCommandBuilder<T extends Enum<T>> extends JDBCBuilder<T>
     }
 
 
+    /**
+     * Appends ON CONFLICT ( keyColumn ) to an INSERT command, e.g., for PostgreSQL
+     */
+    public JDBCCommandBuilder<T> onConflict(String keyColumn)
+    {
+        getStatementBuilder()
+                .append(SQLSyntax.BLANK)
+                .append(SQLSyntax.ON_CONFLICT)
+                .append("( ")
+                .append(keyColumn)
+                .append(" ) ");
+
+        return this;
+    }
+
+    /**
+     * Appends DO UPDATE SET so that the given columns are set to the values of the conflicting INSERT
+     */
+    public JDBCCommandBuilder<T> doUpdate(String... columns)
+    {
+        getStatementBuilder()
+                .append(SQLSyntax.DO_UPDATE)
+                .append(SQLSyntax.SET);
+
+        appendAssignments(SQLSyntax.EXCLUDED, columns);
+        return this;
+    }
+
+    public JDBCCommandBuilder<T> mergeInto(String table)
+    {
+        getStatementBuilder()
+                .append(SQLSyntax.MERGE_INTO)
+                .append(table)
+                .append(SQLSyntax.BLANK);
+
+        return this;
+    }
+
+    /**
+     * Appends the source of a MERGE command, which is a single row of the given values with the given column names.
+     * The values are cast to their SQL data type, because their type cannot be derived from the target table.
+     */
+    public JDBCCommandBuilder<T> using(String source, String[] columns, JDBCObject[] values)
+    {
+        getStatementBuilder()
+                .append(SQLSyntax.USING)
+                .append("( VALUES ( ");
+
+        for (var i = 0; i < values.length; ++i)
+        {
+            if (i > 0)
+            {
+                getStatementBuilder().append(SQLSyntax.COMMA);
+            }
+            getStatementBuilder()
+                    .append("CAST( ")
+                    .append(SQLSyntax.ARGUMENT_PLACEHOLDER)
+                    .append("AS ")
+                    .append(values[i].getSqlDataType())
+                    .append(")");
+            addArgument(values[i].getJdbcValue());
+        }
+
+        getStatementBuilder()
+                .append(" ) ) AS ")
+                .append(source)
+                .append(SQLSyntax.BLANK);
+
+        return columns(columns);
+    }
+
+    /**
+     * Appends the condition of a MERGE command, so that rows of table and source with the same key match
+     */
+    public JDBCCommandBuilder<T> onMatching(String table, String source, String keyColumn)
+    {
+        getStatementBuilder()
+                .append("ON ( ")
+                .append(table).append(".").append(keyColumn)
+                .append(SQLSyntax.SQLOperation.EQUAL)
+                .append(source).append(".").append(keyColumn)
+                .append(" ) ");
+
+        return this;
+    }
+
+    public JDBCCommandBuilder<T> whenMatchedUpdate(String source, String... columns)
+    {
+        getStatementBuilder()
+                .append(SQLSyntax.WHEN_MATCHED_UPDATE)
+                .append(SQLSyntax.SET);
+
+        appendAssignments(source, columns);
+        return this;
+    }
+
+    public JDBCCommandBuilder<T> whenNotMatchedInsert(String source, String... columns)
+    {
+        getStatementBuilder().append(SQLSyntax.WHEN_NOT_MATCHED_INSERT);
+        columns(columns);
+
+        getStatementBuilder().append("VALUES ( ");
+        for (var i = 0; i < columns.length; ++i)
+        {
+            if (i > 0)
+            {
+                getStatementBuilder().append(SQLSyntax.COMMA);
+            }
+            getStatementBuilder().append(source).append(".").append(columns[i]);
+        }
+        getStatementBuilder().append(" ) ");
+
+        return this;
+    }
+
+    private void appendAssignments(String source, String... columns)
+    {
+        for (var i = 0; i < columns.length; ++i)
+        {
+            if (i > 0)
+            {
+                getStatementBuilder().append(SQLSyntax.COMMA);
+            }
+            getStatementBuilder()
+                    .append(columns[i])
+                    .append(SQLSyntax.SQLOperation.EQUAL)
+                    .append(source).append(".").append(columns[i]);
+        }
+        getStatementBuilder().append(SQLSyntax.BLANK);
+    }
+
     public JDBCCommand create()
     {
         return new JDBCCommand(jdbcConnection, getStatementBuilder().toString(), getArguments() );
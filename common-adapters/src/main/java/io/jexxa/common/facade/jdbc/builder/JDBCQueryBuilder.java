@@ -180,6 +180,19 @@ public final <S extends Enum<S>> JDBCQueryBuilder<T> select(Class<S> clazz, S el
         return this;
     }
 
+    /**
+     * Locks the selected rows and skips all rows that are already locked by another transaction.
+     * Note: This is not supported by all databases (see {@link io.jexxa.common.facade.jdbc.database.IDatabase#supportsSkipLocked()})
+     *
+     * @return this query builder
+     */
+    public JDBCQueryBuilder<T> forUpdateSkipLocked()
+    {
+        getStatementBuilder().append(SQLSyntax.FOR_UPDATE_SKIP_LOCKED);
+
+        return this;
+    }
+
     public JDBCQuery create()
     {
         return new JDBCQuery(jdbcConnection, getStatementBuilder().toString(), getArguments());
@@ -27,6 +27,15 @@ public class SQLSyntax
 
     static final String ORDER_BY = "ORDER BY ";
     static final String LIMIT = "LIMIT ";
+    static final String FOR_UPDATE_SKIP_LOCKED = "FOR UPDATE SKIP LOCKED ";
+
+    static final String MERGE_INTO = "MERGE INTO ";
+    static final String USING = "USING ";
+    static final String WHEN_MATCHED_UPDATE = "WHEN MATCHED THEN UPDATE ";
+    static final String WHEN_NOT_MATCHED_INSERT = "WHEN NOT MATCHED THEN INSERT ";
+    static final String ON_CONFLICT = "ON CONFLICT ";
+    static final String DO_UPDATE = "DO UPDATE ";
+    static final String EXCLUDED = "EXCLUDED";
 
     static final String ARGUMENT_PLACEHOLDER = "? ";
     static final String COMMA = ", ";
@@ -42,6 +51,7 @@ public class SQLSyntax
         NOT_EQUAL("<> "),
         LIKE("LIKE "),
         NOT_LIKE("NOT LIKE "),
+        IN("IN "),
         IS_NULL("IS NULL "),
         IS_NOT_NULL("IS NOT NULL ");
 
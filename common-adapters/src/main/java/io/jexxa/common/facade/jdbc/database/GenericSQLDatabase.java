@@ -3,14 +3,19 @@ package io.jexxa.common.facade.jdbc.database;
 import io.jexxa.common.facade.jdbc.JDBCCommand;
 import io.jexxa.common.facade.jdbc.JDBCConnection;
 import io.jexxa.common.facade.jdbc.JDBCQuery;
+import io.jexxa.common.facade.jdbc.builder.JDBCCommandBuilder;
+import io.jexxa.common.facade.jdbc.builder.JDBCObject;
 import io.jexxa.common.facade.jdbc.builder.SQLDataType;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
 
 public class GenericSQLDatabase implements IDatabase
 {
+    private static final String UPSERT_SOURCE = "upsert_source";
+
     private final String connectionURL;
 
     GenericSQLDatabase(String connectionURL)
@@ -59,6 +64,17 @@ public class GenericSQLDatabase implements IDatabase
         return requestedDataType;
     }
 
+    @Override
+    public SQLDataType matchingIdentity()
+    {
+        if ( connectionURL.toLowerCase(Locale.ENGLISH).contains("mysql") )
+        {
+            return new SQLDataType("BIGINT AUTO_INCREMENT ");
+        }
+
+        return new SQLDataType("BIGINT GENERATED BY DEFAULT AS IDENTITY ");
+    }
+
     @Override
     public void alterColumnType(JDBCConnection jdbcConnection, Class<?> tableName, String columnName, SQLDataType sqlDataType)
     {
@@ -104,6 +120,33 @@ public class GenericSQLDatabase implements IDatabase
                 .findAny().isPresent();
     }
 
+    /**
+     * Uses a MERGE command as defined by the SQL standard
+     */
+    @Override
+    public <T extends Enum<T>> JDBCCommandBuilder<T> upsert(JDBCCommandBuilder<T> commandBuilder, String tableName, String keyColumn, String[] columns, JDBCObject[] values)
+    {
+        return commandBuilder
+                .mergeInto(tableName)
+                .using(UPSERT_SOURCE, columns, values)
+                .onMatching(tableName, UPSERT_SOURCE, keyColumn)
+                .whenMatchedUpdate(UPSERT_SOURCE, nonKeyColumns(keyColumn, columns))
+                .whenNotMatchedInsert(UPSERT_SOURCE, columns);
+    }
+
+    protected static String[] nonKeyColumns(String keyColumn, String[] columns)
+    {
+        return Arrays.stream(columns)
+                .filter(column -> !column.equals(keyColumn))
+                .toArray(String[]::new);
+    }
+
+    @Override
+    public boolean supportsSkipLocked()
+    {
+        return false;
+    }
+
     private static SQLDataType maxVarChar(int maxSize)
     {
         return new SQLDataType("VARCHAR("+maxSize +") ");
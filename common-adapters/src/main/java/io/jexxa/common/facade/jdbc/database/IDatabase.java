@@ -2,6 +2,8 @@ package io.jexxa.common.facade.jdbc.database;
 
 
 import io.jexxa.common.facade.jdbc.JDBCConnection;
+import io.jexxa.common.facade.jdbc.builder.JDBCCommandBuilder;
+import io.jexxa.common.facade.jdbc.builder.JDBCObject;
 import io.jexxa.common.facade.jdbc.builder.SQLDataType;
 
 /**
@@ -26,6 +28,13 @@ public interface IDatabase
      */
     SQLDataType matchingValue(SQLDataType requestedDataType);
 
+    /**
+     * Returns the data type of numeric column whose values are generated by the database in ascending order.
+     *
+     * @return SQL data type of an identity column that is supported by the database
+     */
+    SQLDataType matchingIdentity();
+
     /** Alter the type of column
      * 
      * @param jdbcConnection connection to execute the command 
@@ -38,4 +47,24 @@ public interface IDatabase
     void renameColumn(JDBCConnection jdbcConnection, String tableName, String oldColumnName, String newColumnName);
 
     boolean columnExist(JDBCConnection jdbcConnection, String tableName, String columnName);
+
+    /**
+     * Creates a command that inserts a row, or updates all other columns if a row with the same key already exists.
+     * Both is done with a single statement, which depends on the database.
+     *
+     * @param commandBuilder new builder that is used to create the command
+     * @param tableName name of the table
+     * @param keyColumn name of the column that identifies a row. It must be a primary key or unique column.
+     * @param columns names of all columns to be written, including the key column
+     * @param values of the columns in the same order as the columns. The arguments of the created command are in the same order.
+     * @return given builder including the command
+     */
+    <T extends Enum<T>> JDBCCommandBuilder<T> upsert(JDBCCommandBuilder<T> commandBuilder, String tableName, String keyColumn, String[] columns, JDBCObject[] values);
+
+    /**
+     * Returns if the database supports locking rows with SELECT ... FOR UPDATE SKIP LOCKED
+     *
+     * @return true if rows that are locked by another transaction can be skipped, otherwise false
+     */
+    boolean supportsSkipLocked();
 }
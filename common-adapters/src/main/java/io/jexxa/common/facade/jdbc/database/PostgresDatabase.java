@@ -2,6 +2,8 @@ package io.jexxa.common.facade.jdbc.database;
 
 
 import io.jexxa.common.facade.jdbc.JDBCConnection;
+import io.jexxa.common.facade.jdbc.builder.JDBCCommandBuilder;
+import io.jexxa.common.facade.jdbc.builder.JDBCObject;
 import io.jexxa.common.facade.jdbc.builder.SQLDataType;
 
 public class PostgresDatabase extends GenericSQLDatabase
@@ -34,4 +36,21 @@ public class PostgresDatabase extends GenericSQLDatabase
         keyRow.asIgnore();
     }
 
+    @Override
+    public <T extends Enum<T>> JDBCCommandBuilder<T> upsert(JDBCCommandBuilder<T> commandBuilder, String tableName, String keyColumn, String[] columns, JDBCObject[] values)
+    {
+        return commandBuilder
+                .insertInto(tableName)
+                .columns(columns)
+                .values(values)
+                .onConflict(keyColumn)
+                .doUpdate(nonKeyColumns(keyColumn, columns));
+    }
+
+    @Override
+    public boolean supportsSkipLocked()
+    {
+        return true;
+    }
+
 }
@@ -10,10 +10,30 @@ public final class JMSProperties {
     private static final String JNDI_PASSWORD_FILE = "java.naming.file.password";
     private static final String JNDI_USER_FILE = "java.naming.file.user";
     private static final String JNDI_CLIENT_ID = "java.naming.client.id";
+    private static final String JMS_DELIVERY_MODE = "jms.delivery.mode";
+    private static final String JMS_ASYNC_SEND = "jms.async.send";
+    private static final String JMS_MAX_IN_FLIGHT = "jms.max.in.flight";
+    private static final String JMS_SESSION_POOL_SIZE = "jms.session.pool.size";
+    private static final String JMS_FLUSH_TIMEOUT = "jms.flush.timeout";
 
     public static String jmsStrategy() { return PropertiesPrefix.globalPrefix() + "jms.strategy"; }
     public static String jmsSimulate() { return PropertiesPrefix.globalPrefix() + "jms.simulate"; }
 
+    /** Defines the delivery mode of sent messages. Supported values are PERSISTENT and NON_PERSISTENT. Default is NON_PERSISTENT */
+    public static String jmsDeliveryMode() { return PropertiesPrefix.globalPrefix() + JMS_DELIVERY_MODE; }
+
+    /** If set to true, messages are sent asynchronously without waiting for the acknowledgement of the broker. Default is false */
+    public static String jmsAsyncSend() { return PropertiesPrefix.globalPrefix() + JMS_ASYNC_SEND; }
+
+    /** Defines the maximum number of asynchronously sent messages that are not yet acknowledged by the broker. Default is 1000 */
+    public static String jmsMaxInFlight() { return PropertiesPrefix.globalPrefix() + JMS_MAX_IN_FLIGHT; }
+
+    /** Maximum time in milliseconds to wait until all asynchronously sent messages are acknowledged by the broker. Default is 30000 */
+    public static String jmsFlushTimeout() { return PropertiesPrefix.globalPrefix() + JMS_FLUSH_TIMEOUT; }
+
+    /** Defines the maximum number of JMS sessions that are used to send messages concurrently. Default is the number of available processors */
+    public static String jmsSessionPoolSize() { return PropertiesPrefix.globalPrefix() + JMS_SESSION_POOL_SIZE; }
+
     public static String jndiProviderUrlKey() {
         return PropertiesPrefix.globalPrefix() + JNDI_PROVIDER_URL_KEY;
     }
@@ -23,15 +23,23 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
 
 import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
 import static io.jexxa.common.facade.s3.S3Properties.s3AccessKey;
 import static io.jexxa.common.facade.s3.S3Properties.s3Bucket;
 import static io.jexxa.common.facade.s3.S3Properties.s3Endpoint;
+import static io.jexxa.common.facade.s3.S3Properties.s3MaxConcurrency;
 import static io.jexxa.common.facade.s3.S3Properties.s3FileAccessKey;
 import static io.jexxa.common.facade.s3.S3Properties.s3FileSecretKey;
 import static io.jexxa.common.facade.s3.S3Properties.s3Region;
@@ -39,12 +47,19 @@ import static io.jexxa.common.facade.s3.S3Properties.s3SecretKey;
 import static java.util.Objects.requireNonNull;
 
 public class S3Client {
+    private static final String NO_SUCH_KEY = "NoSuchKey";
+    private static final String PRECONDITION_FAILED = "PreconditionFailed";
+    private static final String CONDITIONAL_REQUEST_CONFLICT = "ConditionalRequestConflict";
+
     private final MinioClient minioClient;
     private final Properties properties;
+    private final Semaphore concurrentRequests;
+
     public S3Client(Properties properties)
     {
         validateProperties(properties);
         this.properties = properties;
+        this.concurrentRequests = new Semaphore(getMaxConcurrency(properties));
         var s3AccessKey = new Secret(properties,s3AccessKey(), s3FileAccessKey() );
         var s3SecretKey = new Secret(properties, s3SecretKey(), s3FileSecretKey());
         minioClient = MinioClient.builder()
@@ -133,23 +148,120 @@ public class S3Client {
         return Optional.empty();
     }
 
+    /**
+     * Loads the given objects in parallel. The number of concurrent requests of this client is limited by
+     * {@link S3Properties#s3MaxConcurrency()}.
+     *
+     * @param objectNames of the objects to be loaded
+     * @return map from object name to content. Objects that do not exist are not included.
+     * @throws IllegalArgumentException if an object could not be loaded for another reason than that it does not exist
+     */
+    public Map<String, String> get(Collection<String> objectNames) {
+        var result = new ConcurrentHashMap<String, String>();
+
+        runConcurrently(objectNames, objectName -> getIfExists(objectName)
+                .ifPresent(content -> result.put(objectName, content)));
+
+        return result;
+    }
+
+    /**
+     * Runs the given operation for each element on its own virtual thread and waits until all operations are finished.
+     * The number of concurrent requests of this client is limited by {@link S3Properties#s3MaxConcurrency()}.
+     *
+     * @param elements to be processed
+     * @param operation that performs the request for a single element
+     * @throws RuntimeException the first exception thrown by an operation. Exceptions of other operations are added as
+     *         suppressed exceptions.
+     */
+    public <T> void runConcurrently(Collection<T> elements, Consumer<T> operation) {
+        var failures = new ConcurrentLinkedQueue<RuntimeException>();
+
+        try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            elements.forEach(element -> executor.execute(() -> {
+                concurrentRequests.acquireUninterruptibly();
+                try {
+                    operation.accept(element);
+                } catch (RuntimeException e) {
+                    failures.add(e);
+                } finally {
+                    concurrentRequests.release();
+                }
+            }));
+        }
+
+        var firstFailure = failures.poll();
+        if (firstFailure != null)
+        {
+            failures.forEach(firstFailure::addSuppressed);
+            throw firstFailure;
+        }
+    }
+
+    private Optional<String> getIfExists(String objectName) {
+        try (var stream = minioClient.getObject(
+                GetObjectArgs.builder()
+                        .bucket(properties.getProperty(s3Bucket()))
+                        .object(objectName)
+                        .build()))
+        {
+            return Optional.of(new String(stream.readAllBytes(), StandardCharsets.UTF_8));
+        } catch (ErrorResponseException e)
+        {
+            if (NO_SUCH_KEY.equals(e.errorResponse().code()))
+            {
+                return Optional.empty();
+            }
+            throw new IllegalArgumentException("Could not get object " + objectName, e);
+        } catch (MinioException | IOException e) {
+            throw new IllegalArgumentException("Could not get object " + objectName, e);
+        }
+    }
 
     public void putObject(String objectName, InputStream objectStream, int objectSize) {
         try {
-            minioClient.putObject(
-                    PutObjectArgs.builder()
-                            .bucket(properties.getProperty(s3Bucket()))
-                            .object(objectName)
-                            .stream(objectStream, (long)objectSize, -1L)
-                            .contentType("application/json")
-                            .build()
-            );
+            minioClient.putObject(putObjectArgs(objectName, objectStream, objectSize).build());
         } catch (MinioException _)
         {
             throw new IllegalArgumentException("Could not put object with id " + objectName );
         }
     }
 
+    /**
+     * Writes the object only if no object with the same name exists. The check is performed by the S3 server
+     * as part of the write request, so that concurrent writers cannot overwrite each other.
+     *
+     * @return true if the object was written, false if the object already exists
+     */
+    public boolean putObjectIfAbsent(String objectName, InputStream objectStream, int objectSize) {
+        try {
+            minioClient.putObject(putObjectArgs(objectName, objectStream, objectSize)
+                    .headers(Map.of("If-None-Match", "*"))
+                    .build());
+            return true;
+        } catch (ErrorResponseException e)
+        {
+            if (PRECONDITION_FAILED.equals(e.errorResponse().code())
+                    || CONDITIONAL_REQUEST_CONFLICT.equals(e.errorResponse().code()))
+            {
+                return false;
+            }
+            throw new IllegalArgumentException("Could not put object with id " + objectName, e);
+        } catch (MinioException e)
+        {
+            throw new IllegalArgumentException("Could not put object with id " + objectName, e);
+        }
+    }
+
+    private PutObjectArgs.Builder putObjectArgs(String objectName, InputStream objectStream, int objectSize)
+    {
+        return PutObjectArgs.builder()
+                .bucket(properties.getProperty(s3Bucket()))
+                .object(objectName)
+                .stream(objectStream, (long)objectSize, -1L)
+                .contentType("application/json");
+    }
+
     public boolean objectExist(String objectName)
     {
         try {
@@ -160,7 +272,7 @@ public class S3Client {
                             .build()
             );
         } catch (ErrorResponseException e) {
-            if (e.errorResponse().code().equals("NoSuchKey")) {
+            if (e.errorResponse().code().equals(NO_SUCH_KEY)) {
                 return false;
             }
         } catch (MinioException e)
@@ -219,6 +331,20 @@ public class S3Client {
         }
 
     }
+    private static int getMaxConcurrency(Properties properties)
+    {
+        try {
+            var maxConcurrency = Integer.parseInt(properties.getProperty(s3MaxConcurrency(), "16").trim());
+            if (maxConcurrency < 1)
+            {
+                throw new IllegalArgumentException("Property " + s3MaxConcurrency() + " must be at least 1");
+            }
+            return maxConcurrency;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Property " + s3MaxConcurrency() + " must be a number but is " + properties.getProperty(s3MaxConcurrency()), e);
+        }
+    }
+
     private void validateProperties(Properties properties)
     {
         requireNonNull(properties.getProperty(s3Endpoint()));
@@ -11,6 +11,7 @@ public class S3Properties {
     private static final String S3_FILE_ACCESS_KEY = "s3.file.access-key-path";
     private static final String S3_FILE_SECRET_KEY = "s3.file.secret-key-path";
     private static final String S3_APPLICATION_PREFIX = "s3.application.prefix";
+    private static final String S3_MAX_CONCURRENCY = "s3.max.concurrency";
 
     public static String s3ApplicationPrefix() {
         return PropertiesPrefix.globalPrefix() + S3_APPLICATION_PREFIX;
@@ -49,6 +50,12 @@ public class S3Properties {
         return PropertiesPrefix.globalPrefix() + S3_FILE_SECRET_KEY;
     }
 
+    /** Maximum number of concurrent requests when multiple objects are loaded at once. Default is 16 */
+    public static String s3MaxConcurrency()
+    {
+        return PropertiesPrefix.globalPrefix() + S3_MAX_CONCURRENCY;
+    }
+
 
     private S3Properties()
     {
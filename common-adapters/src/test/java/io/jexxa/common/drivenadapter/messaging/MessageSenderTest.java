@@ -64,6 +64,21 @@ class MessageSenderTest
 
 
 
+    @Test
+    void testSendBatch()
+    {
+        //Arrange
+        var objectUnderTest = new LocalMessageSender();
+        var testData = new TestValueObject(42);
+
+        //Act
+        objectUnderTest.sendBatch( sender -> sender.send(testData).toTopic("TestTopic").asJson() );
+
+        //Assertions - By default, messages of a batch are sent individually
+        assertEquals(DestinationType.TOPIC, objectUnderTest.getDestinationType());
+        assertEquals(getJSONConverter().toJson(testData), objectUnderTest.getMessage());
+    }
+
     private static class LocalMessageSender extends MessageSender
     {
         private String message;
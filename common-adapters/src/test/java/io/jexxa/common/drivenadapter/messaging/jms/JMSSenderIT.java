@@ -20,11 +20,13 @@ import org.junit.jupiter.params.provider.MethodSource;
 
 import javax.jms.BytesMessage;
 import javax.jms.Connection;
+import javax.jms.DeliveryMode;
 import javax.jms.JMSException;
 import javax.jms.TextMessage;
 import java.io.IOException;
 import java.time.Duration;
 import java.util.Properties;
+import java.util.concurrent.Executors;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Stream;
 
@@ -32,13 +34,21 @@ import static io.jexxa.common.drivenadapter.messaging.MessageSenderFactory.creat
 import static io.jexxa.common.drivenadapter.messaging.MessageSenderFactory.setDefaultMessageSender;
 import static io.jexxa.common.drivingadapter.messaging.jms.listener.QueueListener.QUEUE_DESTINATION;
 import static io.jexxa.common.drivingadapter.messaging.jms.listener.TopicListener.TOPIC_DESTINATION;
+import static io.jexxa.common.facade.jms.JMSProperties.jmsAsyncSend;
+import static io.jexxa.common.facade.jms.JMSProperties.jmsDeliveryMode;
+import static io.jexxa.common.facade.jms.JMSProperties.jmsMaxInFlight;
+import static io.jexxa.common.facade.jms.JMSProperties.jmsSessionPoolSize;
 import static io.jexxa.common.facade.jms.JMSProperties.jndiPasswordFile;
 import static io.jexxa.common.facade.jms.JMSProperties.jndiPasswordKey;
 import static io.jexxa.common.facade.jms.JMSProperties.jndiUserFile;
 import static io.jexxa.common.facade.jms.JMSProperties.jndiUserKey;
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTimeout;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Execution(ExecutionMode.SAME_THREAD)
 @Tag(TestConstants.INTEGRATION_TEST)
@@ -250,6 +260,140 @@ class JMSSenderIT
         assertDoesNotThrow(() -> (BytesMessage)queueListener.getMessages().getFirst());
     }
 
+    @Test
+    void sendPersistentMessagesAsync()
+    {
+        //Arrange
+        int messageCount = 1000;
+        var properties = new Properties();
+        properties.putAll(jmsProperties);
+        properties.put(jmsAsyncSend(), "true");
+        properties.put(jmsMaxInFlight(), "100");
+        properties.put(jmsDeliveryMode(), "PERSISTENT");
+        setDefaultMessageSender(JMSSender.class);
+
+        var objectUnderTest = (JMSSender) createMessageSender(JMSSenderIT.class, properties);
+
+        //Act
+        for (int i = 0; i < messageCount; ++i)
+        {
+            objectUnderTest
+                    .send(message)
+                    .toQueue(QUEUE_DESTINATION)
+                    .asJson();
+        }
+        objectUnderTest.flush();
+
+        //Assert
+        await().atMost(5, TimeUnit.SECONDS).until(() -> queueListener.getMessages().size() == messageCount);
+        assertDoesNotThrow(() -> assertEquals(DeliveryMode.PERSISTENT, queueListener.getMessages().getFirst().getJMSDeliveryMode()));
+    }
+
+    @Test
+    void sendBatchThroughput()
+    {
+        //Arrange
+        int messageCount = 1000;
+        var properties = new Properties();
+        properties.putAll(jmsProperties);
+        properties.put(jmsDeliveryMode(), "PERSISTENT");
+        setDefaultMessageSender(JMSSender.class);
+
+        var objectUnderTest = createMessageSender(JMSSenderIT.class, properties);
+
+        //Act - Send the same number of messages individually and as a single batch
+        var individualStart = System.nanoTime();
+        for (int i = 0; i < messageCount; ++i)
+        {
+            objectUnderTest.send(message).toQueue(QUEUE_DESTINATION).asJson();
+        }
+        var individualDuration = System.nanoTime() - individualStart;
+
+        var batchStart = System.nanoTime();
+        objectUnderTest.sendBatch( sender -> {
+            for (int i = 0; i < messageCount; ++i)
+            {
+                sender.send(message).toQueue(QUEUE_DESTINATION).asJson();
+            }
+        });
+        var batchDuration = System.nanoTime() - batchStart;
+
+        //Assert
+        await().atMost(10, TimeUnit.SECONDS).until(() -> queueListener.getMessages().size() == 2 * messageCount);
+        getLogger(JMSSenderIT.class).info("Sent {} persistent messages individually: {} msg/s, as batch: {} msg/s",
+                messageCount,
+                messagesPerSecond(messageCount, individualDuration),
+                messagesPerSecond(messageCount, batchDuration));
+    }
+
+    @Test
+    void rollbackFailedBatch()
+    {
+        //Arrange
+        setDefaultMessageSender(JMSSender.class);
+        var objectUnderTest = createMessageSender(JMSSenderIT.class, jmsProperties);
+
+        //Act
+        assertThrows(IllegalArgumentException.class, () -> objectUnderTest.sendBatch( sender -> {
+            sender.send(message).toQueue(QUEUE_DESTINATION).asJson();
+            throw new IllegalArgumentException("Simulated error in batch");
+        }));
+
+        //Assert - No message of the failed batch is sent
+        await().during(500, TimeUnit.MILLISECONDS).until(() -> queueListener.getMessages().isEmpty());
+    }
+
+    @Test
+    void sendMessagesConcurrently()
+    {
+        //Arrange
+        int threadCount = 8;
+        int messagesPerThread = 100;
+        var properties = new Properties();
+        properties.putAll(jmsProperties);
+        properties.put(jmsSessionPoolSize(), "2");
+
+        var objectUnderTest = new JMSSender(properties);
+
+        //Act
+        try (var executor = Executors.newFixedThreadPool(threadCount))
+        {
+            for (int i = 0; i < threadCount; ++i)
+            {
+                executor.submit(() -> {
+                    for (int j = 0; j < messagesPerThread; ++j)
+                    {
+                        objectUnderTest.send(message).toQueue(QUEUE_DESTINATION).asJson();
+                    }
+                });
+            }
+        }
+
+        //Assert
+        await().atMost(5, TimeUnit.SECONDS).until(() -> queueListener.getMessages().size() == threadCount * messagesPerThread);
+        var statistics = objectUnderTest.getSessionPoolStatistics();
+        assertTrue(statistics.openSessions() <= 2);
+        getLogger(JMSSenderIT.class).info("Session pool statistics: {}", statistics);
+        objectUnderTest.close();
+    }
+
+    @Test
+    void invalidDeliveryMode()
+    {
+        //Arrange
+        var properties = new Properties();
+        properties.putAll(jmsProperties);
+        properties.put(jmsDeliveryMode(), "INVALID");
+
+        //Act / Assert
+        assertThrows(IllegalArgumentException.class, () -> new JMSSender(properties));
+    }
+
+    private static long messagesPerSecond(int messageCount, long durationInNanos)
+    {
+        return (long) (messageCount / Math.max(durationInNanos / 1_000_000_000.0, Double.MIN_NORMAL));
+    }
+
     private void simulateConnectionException(Connection connection) throws JMSException
     {
         var listener = connection.getExceptionListener();
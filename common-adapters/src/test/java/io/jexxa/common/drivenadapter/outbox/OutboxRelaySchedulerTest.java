@@ -0,0 +1,132 @@
+package io.jexxa.common.drivenadapter.outbox;
+
+import io.jexxa.adapterapi.invocation.transaction.TransactionManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class OutboxRelaySchedulerTest {
+    private final AtomicInteger relayCounter = new AtomicInteger();
+    private OutboxRelayScheduler objectUnderTest;
+
+    @AfterEach
+    void afterEach()
+    {
+        objectUnderTest.shutdown();
+        TransactionManager.clear();
+    }
+
+    @Test
+    void coalesceWakeUps()
+    {
+        //Arrange
+        int messageCount = 10_000;
+        objectUnderTest = new OutboxRelayScheduler(this::countRelay, 100, Integer.MAX_VALUE, 60_000, 60_000);
+
+        //Act
+        for (int i = 0; i < messageCount; ++i)
+        {
+            objectUnderTest.messageAdded();
+        }
+
+        //Assert - all wake-ups within max latency result in a single run of the message relay
+        await().atMost(1, TimeUnit.SECONDS).until(() -> relayCounter.get() == 1);
+        await().during(200, TimeUnit.MILLISECONDS).until(() -> relayCounter.get() == 1);
+    }
+
+    @Test
+    void maxBatchTriggersRelayImmediately()
+    {
+        //Arrange
+        int maxBatch = 10;
+        objectUnderTest = new OutboxRelayScheduler(this::countRelay, 60_000, maxBatch, 60_000, 60_000);
+
+        //Act
+        for (int i = 0; i < maxBatch; ++i)
+        {
+            objectUnderTest.messageAdded();
+        }
+
+        //Assert
+        await().atMost(1, TimeUnit.SECONDS).until(() -> relayCounter.get() == 1);
+    }
+
+    @Test
+    void closeTransactionTriggersRelay()
+    {
+        //Arrange - The first run of the message relay might happen before the writing transaction is committed
+        objectUnderTest = new OutboxRelayScheduler(this::countRelay, 0, Integer.MAX_VALUE, 60_000, 60_000);
+        objectUnderTest.messageAdded();
+        await().atMost(1, TimeUnit.SECONDS).until(() -> relayCounter.get() == 1);
+
+        //Act
+        objectUnderTest.closeTransaction();
+
+        //Assert
+        await().atMost(1, TimeUnit.SECONDS).until(() -> relayCounter.get() == 2);
+    }
+
+    @Test
+    void burstWithinTransactionTriggersRelayWhenCommitted()
+    {
+        //Arrange
+        int maxBatch = 10;
+        objectUnderTest = new OutboxRelayScheduler(this::countRelay, 60_000, maxBatch, 60_000, 60_000);
+        TransactionManager.registerTransactionHandler(objectUnderTest);
+
+        //Act - More than maxBatch messages are added before the transaction is committed
+        TransactionManager.initTransaction();
+        for (int i = 0; i < 3 * maxBatch; ++i)
+        {
+            objectUnderTest.messageAdded();
+        }
+        var relaysBeforeCommit = relayCounter.get();
+        await().during(100, TimeUnit.MILLISECONDS).until(() -> relayCounter.get() == 0);
+        TransactionManager.closeTransaction();
+
+        //Assert - The message relay runs immediately after the commit and not after maxLatency
+        assertEquals(0, relaysBeforeCommit);
+        await().atMost(1, TimeUnit.SECONDS).until(() -> relayCounter.get() == 1);
+    }
+
+    @Test
+    void pollIntervalBacksOff()
+    {
+        //Arrange
+        objectUnderTest = new OutboxRelayScheduler(this::countRelay, 0, 1, 10, 500);
+
+        //Act
+        objectUnderTest.start();
+
+        //Assert - With an empty outbox, the intervals are 10, 20, 40, 80, 160, 320, 500 ms, ... so that the number of polls grows slowly
+        await().atMost(1, TimeUnit.SECONDS).until(() -> relayCounter.get() >= 5);
+        await().during(1, TimeUnit.SECONDS).atMost(2, TimeUnit.SECONDS).until(() -> relayCounter.get() < 9);
+    }
+
+    @Test
+    void noRelayAfterShutdown()
+    {
+        //Arrange
+        objectUnderTest = new OutboxRelayScheduler(this::countRelay, 100, Integer.MAX_VALUE, 60_000, 60_000);
+        objectUnderTest.messageAdded();
+
+        //Act
+        objectUnderTest.shutdown();
+        objectUnderTest.messageAdded();
+
+        //Assert
+        await().during(200, TimeUnit.MILLISECONDS).until(() -> relayCounter.get() == 0);
+        assertEquals(0, relayCounter.get());
+    }
+
+    private long countRelay()
+    {
+        relayCounter.incrementAndGet();
+        return 0;
+    }
+}
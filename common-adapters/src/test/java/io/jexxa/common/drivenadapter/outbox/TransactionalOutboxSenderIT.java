@@ -1,8 +1,10 @@
 package io.jexxa.common.drivenadapter.outbox;
 
 import io.jexxa.adapterapi.JexxaContext;
+import io.jexxa.common.drivenadapter.messaging.MessageSender;
 import io.jexxa.common.drivenadapter.messaging.jms.JMSSender;
 import io.jexxa.common.drivenadapter.persistence.RepositoryFactory;
+import io.jexxa.common.drivenadapter.persistence.repository.jdbc.JDBCKeyValueRepository;
 import io.jexxa.common.drivingadapter.messaging.jms.JMSAdapter;
 import io.jexxa.common.drivingadapter.messaging.jms.JMSConfiguration;
 import io.jexxa.common.drivingadapter.messaging.jms.idempotent.IdempotentListener;
@@ -15,6 +17,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import java.util.UUID;
@@ -22,9 +25,13 @@ import java.util.concurrent.TimeUnit;
 
 import static io.jexxa.common.drivenadapter.messaging.MessageSenderFactory.createMessageSender;
 import static io.jexxa.common.drivenadapter.messaging.MessageSenderFactory.setDefaultMessageSender;
+import static io.jexxa.common.drivenadapter.messaging.MessageSenderFactory.setMessageSender;
 import static io.jexxa.common.drivingadapter.messaging.jms.listener.TopicListener.TOPIC_DESTINATION;
+import static io.jexxa.common.facade.json.JSONManager.getJSONConverter;
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
 import static org.awaitility.Awaitility.await;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class TransactionalOutboxSenderIT {
 
@@ -143,6 +150,154 @@ class TransactionalOutboxSenderIT {
         await().atMost(15, TimeUnit.SECONDS).until(() -> idempotentListener.getReceivedMessages().size() == messageCount);
     }
 
+    @Test
+    void migrateLegacyOutboxTable()
+    {
+        //Arrange - Unsent messages stored by a previous version in a key/value table
+        var legacyOutbox = new JDBCKeyValueRepository<>(TransactionalOutboxSender.JexxaOutboxMessage.class,
+                TransactionalOutboxSender.JexxaOutboxMessage::messageId,
+                outboxProperties1.getProperty(TransactionalOutboxProperties.outboxTable()),
+                outboxProperties1);
+        legacyOutbox.init();
+        legacyOutbox.removeAll();
+        legacyOutbox.add(new TransactionalOutboxSender.JexxaOutboxMessage(UUID.randomUUID(),
+                getJSONConverter().toJson(message), TOPIC_DESTINATION, new Properties(),
+                MessageSender.MessageType.TEXT_MESSAGE, TransactionalOutboxSender.DestinationType.TOPIC));
+
+        //Act
+        createMessageSender(TransactionalOutboxSenderIT.class, outboxProperties1);
+
+        //Assert
+        await().atMost(15, TimeUnit.SECONDS).until(() -> idempotentListener.getReceivedMessages().size() == 1);
+        assertTrue(legacyOutbox.get().isEmpty());
+    }
+
+    @Test
+    void multipleRelaysWithClaiming()
+    {
+        //Arrange - Two senders on the same outbox table simulate two replicas of an application
+        var claimingProperties = new Properties();
+        claimingProperties.putAll(outboxProperties1);
+        claimingProperties.setProperty(TransactionalOutboxProperties.outboxClaiming(), "true");
+
+        int messageCount = 100;
+        var objectUnderTest = createMessageSender(TransactionalOutboxSenderIT.class, claimingProperties);
+        createMessageSender(TransactionalOutboxSenderIT.class, claimingProperties);
+
+        //Act
+        for (int i = 0; i < messageCount; ++i) {
+            objectUnderTest
+                    .send(message)
+                    .toTopic(TOPIC_DESTINATION)
+                    .asJson();
+        }
+
+        //Assert - Each message is relayed only once
+        await().atMost(15, TimeUnit.SECONDS).until(() -> idempotentListener.getReceivedMessages().size() == messageCount);
+        await().during(1, TimeUnit.SECONDS).atMost(2, TimeUnit.SECONDS).until(() -> idempotentListener.duplicateMessageCounter() == 0);
+    }
+
+    @Test
+    void publishLatencyWhileRelaying()
+    {
+        //Arrange
+        int messageCount = 1000;
+        var publishLatencies = new long[messageCount];
+        var objectUnderTest = createMessageSender(TransactionalOutboxSenderIT.class, outboxProperties1);
+
+        //Act - The message relay forwards the first messages to the broker while the remaining ones are published
+        for (int i = 0; i < messageCount; ++i) {
+            var startTime = System.nanoTime();
+
+            objectUnderTest
+                    .send(message)
+                    .toTopic(TOPIC_DESTINATION)
+                    .asJson();
+
+            publishLatencies[i] = System.nanoTime() - startTime;
+        }
+
+        //Assert
+        await().atMost(15, TimeUnit.SECONDS).until(() -> idempotentListener.getReceivedMessages().size() == messageCount);
+        assertEquals(0, idempotentListener.duplicateMessageCounter());
+
+        Arrays.sort(publishLatencies);
+        getLogger(TransactionalOutboxSenderIT.class).info("p99 publish latency while relaying: {} µs"
+                , TimeUnit.NANOSECONDS.toMicros(publishLatencies[messageCount * 99 / 100 - 1]));
+    }
+
+    @Test
+    void publishLatencyIsIndependentOfSlowBroker()
+    {
+        //Arrange - Each message takes SlowJMSSender.SEND_DELAY to be forwarded to the broker
+        int messageCount = 200;
+        var publishLatencies = new long[messageCount];
+        setMessageSender(SlowJMSSender.class, TransactionalOutboxSender.class);
+
+        try {
+            var objectUnderTest = createMessageSender(TransactionalOutboxSenderIT.class, outboxProperties1);
+
+            //Act
+            for (int i = 0; i < messageCount; ++i) {
+                var startTime = System.nanoTime();
+
+                objectUnderTest
+                        .send(message)
+                        .toTopic(TOPIC_DESTINATION)
+                        .asJson();
+
+                publishLatencies[i] = System.nanoTime() - startTime;
+            }
+            var receivedWhenPublished = idempotentListener.getReceivedMessages().size();
+
+            //Assert - All messages are published while the message relay is still forwarding them
+            assertTrue(receivedWhenPublished < messageCount);
+
+            Arrays.sort(publishLatencies);
+            assertTrue(publishLatencies[messageCount * 99 / 100 - 1] < TimeUnit.MILLISECONDS.toNanos(SlowJMSSender.SEND_DELAY));
+
+            await().atMost(30, TimeUnit.SECONDS).until(() -> idempotentListener.getReceivedMessages().size() == messageCount);
+        } finally {
+            setMessageSender(JMSSender.class, TransactionalOutboxSender.class);
+        }
+    }
+
+    /**
+     * Simulates a slow message broker by delaying each message before it is sent
+     */
+    public static class SlowJMSSender extends JMSSender
+    {
+        static final long SEND_DELAY = 20;
+
+        public SlowJMSSender(Properties properties)
+        {
+            super(properties);
+        }
+
+        @Override
+        protected void sendToTopic(String message, String topicName, Properties messageProperties, MessageType messageType)
+        {
+            delay();
+            super.sendToTopic(message, topicName, messageProperties, messageType);
+        }
+
+        @Override
+        protected void sendToQueue(String message, String queueName, Properties messageProperties, MessageType messageType)
+        {
+            delay();
+            super.sendToQueue(message, queueName, messageProperties, messageType);
+        }
+
+        private static void delay()
+        {
+            try {
+                Thread.sleep(SEND_DELAY);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
     private static class ValueObjectIdempotentListener1 extends IdempotentListener<TestDomainEvent>
     {
         private final List<TestDomainEvent> receivedMessages = new ArrayList<>();
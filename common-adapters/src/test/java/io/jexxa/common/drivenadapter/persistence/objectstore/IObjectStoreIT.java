@@ -17,6 +17,7 @@ import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
 import java.util.stream.IntStream;
@@ -27,6 +28,7 @@ import static io.jexxa.common.facade.s3.S3Properties.s3Bucket;
 import static io.jexxa.common.facade.s3.S3Properties.s3Endpoint;
 import static java.util.Comparator.comparing;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Execution(ExecutionMode.SAME_THREAD)
@@ -181,6 +183,100 @@ class IObjectStoreIT
         assertTrue(result.stream().allMatch(element -> element.getInternalValue() == TEST_DATA_SIZE));
     }
 
+    @ParameterizedTest
+    @MethodSource(ObjectStoreTestDatabase.REPOSITORY_CONFIG)
+    void testAddAll(Properties properties)
+    {
+        //Arrange
+        initObjectStore(properties);
+        objectUnderTest.removeAll();
+
+        //Act
+        objectUnderTest.addAll(testData);
+
+        //Assert
+        assertEquals(TEST_DATA_SIZE, objectUnderTest.get().size());
+        assertEquals(TEST_DATA_SIZE, objectUnderTest.getNumericQuery(TestObjectSchema.INT_VALUE, Integer.class).isGreaterOrEqualThan(0).size());
+    }
+
+    @ParameterizedTest
+    @MethodSource(ObjectStoreTestDatabase.REPOSITORY_CONFIG)
+    void testUpdateAll(Properties properties)
+    {
+        //Arrange
+        initObjectStore(properties);
+
+        //Act
+        testData.forEach(element -> element.setInternalValue(TEST_DATA_SIZE));
+        objectUnderTest.updateAll(testData);
+        var result = objectUnderTest.get();
+
+        //Assert
+        assertTrue(result.stream().allMatch(element -> element.getInternalValue() == TEST_DATA_SIZE));
+        assertEquals(TEST_DATA_SIZE, objectUnderTest.getNumericQuery(TestObjectSchema.INT_VALUE, Integer.class).isEqualTo(TEST_DATA_SIZE).size());
+    }
+
+    @ParameterizedTest
+    @MethodSource(ObjectStoreTestDatabase.REPOSITORY_CONFIG)
+    void testRemoveAllByKeys(Properties properties)
+    {
+        //Arrange
+        initObjectStore(properties);
+        var keysToRemove = testData.stream()
+                .limit(TEST_DATA_SIZE / 2)
+                .map(TestObject::getKey)
+                .toList();
+
+        //Act
+        objectUnderTest.removeAll(keysToRemove);
+
+        //Assert
+        assertEquals(TEST_DATA_SIZE - keysToRemove.size(), objectUnderTest.get().size());
+        assertTrue(keysToRemove.stream().allMatch(key -> objectUnderTest.get(key).isEmpty()));
+    }
+
+    @ParameterizedTest
+    @MethodSource(ObjectStoreTestDatabase.REPOSITORY_CONFIG)
+    void testGetByKeys(Properties properties)
+    {
+        //Arrange
+        initObjectStore(properties);
+        var requestedKeys = new ArrayList<>(testData.stream()
+                .limit(TEST_DATA_SIZE / 2)
+                .map(TestObject::getKey)
+                .toList());
+        var unknownKey = new TestValueObject(2 * TEST_DATA_SIZE);
+        requestedKeys.add(unknownKey);
+
+        //Act
+        var result = objectUnderTest.get(requestedKeys);
+
+        //Assert
+        assertEquals(TEST_DATA_SIZE / 2, result.size());
+        assertFalse(result.containsKey(unknownKey));
+        assertTrue(result.entrySet().stream().allMatch(entry -> entry.getKey().equals(entry.getValue().getKey())));
+    }
+
+    @ParameterizedTest
+    @MethodSource(ObjectStoreTestDatabase.REPOSITORY_CONFIG)
+    void testUpsert(Properties properties)
+    {
+        //Arrange
+        initObjectStore(properties);
+        var existingObject = testData.getFirst();
+        existingObject.setInternalValue(2 * TEST_DATA_SIZE);
+        var newObject = TestObject.create(new TestValueObject(TEST_DATA_SIZE));
+
+        //Act
+        objectUnderTest.upsert(existingObject);
+        objectUnderTest.upsert(newObject);
+
+        //Assert - Metadata of the updated object must be updated as well
+        assertEquals(TEST_DATA_SIZE + 1, objectUnderTest.get().size());
+        assertEquals(1, objectUnderTest.getNumericQuery(TestObjectSchema.INT_VALUE, Integer.class).isEqualTo(2 * TEST_DATA_SIZE).size());
+        assertTrue(objectUnderTest.get(newObject.getKey()).isPresent());
+    }
+
     void initObjectStore(Properties properties)
     {
         if (properties.containsKey(jdbcUrl()))
@@ -0,0 +1,198 @@
+package io.jexxa.common.drivenadapter.persistence.objectstore.imdb;
+
+
+import io.jexxa.common.drivenadapter.persistence.objectstore.metadata.MetaTag;
+import io.jexxa.common.drivenadapter.persistence.objectstore.metadata.MetadataSchema;
+import io.jexxa.common.drivenadapter.persistence.repository.imdb.IMDBRepository;
+import io.jexxa.common.facade.TestConstants;
+import io.jexxa.common.facade.jdbc.TestEntity;
+import io.jexxa.common.facade.testapplication.TestValueObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+import static io.jexxa.common.drivenadapter.persistence.objectstore.metadata.MetaTags.numericTag;
+import static io.jexxa.common.drivenadapter.persistence.objectstore.metadata.MetaTags.stringTag;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.SAME_THREAD)
+@Tag(TestConstants.UNIT_TEST)
+class IMDBObjectStoreTest
+{
+    private IMDBObjectStore<TestEntity, TestValueObject, TestEntitySchema> objectUnderTest;
+
+    private enum TestEntitySchema implements MetadataSchema
+    {
+        INT_VALUE(numericTag(TestEntity::getInternalValue)),
+
+        STRING_VALUE(stringTag(entity -> "Entity-" + entity.getInternalValue()));
+
+        private final MetaTag<TestEntity, ?, ? > metaTag;
+
+        TestEntitySchema(MetaTag<TestEntity,?, ?> metaTag)
+        {
+            this.metaTag = metaTag;
+        }
+
+        @Override
+        public MetaTag<TestEntity, ?, ?> getTag()
+        {
+            return metaTag;
+        }
+    }
+
+    @BeforeEach
+    void initTest()
+    {
+        objectUnderTest = new IMDBObjectStore<>(TestEntity.class, TestEntity::getKey, TestEntitySchema.class, new Properties());
+        objectUnderTest.init();
+    }
+
+    @AfterEach
+    void cleanup()
+    {
+        IMDBRepository.clear();
+        IMDBObjectStore.setStringIndexMode(TestEntitySchema.STRING_VALUE, StringIndexMode.SUFFIX);
+    }
+
+    @Test
+    void indexIncludesAggregatesStoredBeforeFirstQuery()
+    {
+        //Arrange
+        objectUnderTest.addAll(createEntities(10));
+
+        //Act
+        var result = objectUnderTest.getNumericQuery(TestEntitySchema.INT_VALUE, Integer.class).isGreaterOrEqualThan(5);
+
+        //Assert
+        assertEquals(keys(5, 6, 7, 8, 9), result.stream().map(TestEntity::getKey).toList());
+    }
+
+    @Test
+    void indexIsUpdatedByWrites()
+    {
+        //Arrange
+        var objectUnderTestQuery = objectUnderTest.getNumericQuery(TestEntitySchema.INT_VALUE, Integer.class);
+        objectUnderTest.addAll(createEntities(10));
+        objectUnderTestQuery.getAscending();
+
+        var changedEntity = objectUnderTest.get(new TestValueObject(0)).orElseThrow();
+        changedEntity.setInternalValue(100);
+
+        //Act
+        objectUnderTest.update(changedEntity);
+        objectUnderTest.remove(new TestValueObject(9));
+        objectUnderTest.upsert(createEntity(50));
+
+        //Assert
+        assertEquals(keys(0, 50, 8), objectUnderTestQuery.getDescending(3).stream().map(TestEntity::getKey).toList());
+        assertTrue(objectUnderTestQuery.isLessThan(1).isEmpty());
+        assertEquals(10, objectUnderTestQuery.getAscending().size());
+    }
+
+    @Test
+    void indexIsSharedByObjectStoresOfSameType()
+    {
+        //Arrange
+        var otherObjectStore = new IMDBObjectStore<>(TestEntity.class, TestEntity::getKey, TestEntitySchema.class, new Properties());
+        var objectUnderTestQuery = objectUnderTest.getNumericQuery(TestEntitySchema.INT_VALUE, Integer.class);
+        objectUnderTestQuery.getAscending();
+
+        //Act
+        otherObjectStore.addAll(createEntities(3));
+        otherObjectStore.removeAll(keys(1));
+
+        //Assert
+        assertEquals(keys(0, 2), objectUnderTestQuery.getAscending().stream().map(TestEntity::getKey).toList());
+    }
+
+    @Test
+    void indexIsEmptyAfterRemoveAll()
+    {
+        //Arrange
+        var objectUnderTestQuery = objectUnderTest.getNumericQuery(TestEntitySchema.INT_VALUE, Integer.class);
+        objectUnderTest.addAll(createEntities(10));
+        objectUnderTestQuery.getAscending();
+
+        //Act
+        objectUnderTest.removeAll();
+
+        //Assert
+        assertTrue(objectUnderTestQuery.isNotNull().isEmpty());
+    }
+
+    @Test
+    void stringQueriesAreEqualForAllIndexModes()
+    {
+        //Arrange
+        objectUnderTest.addAll(createEntities(200));
+        var objectUnderTestQuery = objectUnderTest.getStringQuery(TestEntitySchema.STRING_VALUE, String.class);
+
+        for (var stringIndexMode : StringIndexMode.values())
+        {
+            //Act
+            IMDBObjectStore.setStringIndexMode(TestEntitySchema.STRING_VALUE, stringIndexMode);
+
+            //Assert
+            assertEquals(keys(1, 10, 100, 101, 102, 103, 104, 105, 106, 107, 108, 109), getKeys(objectUnderTestQuery.beginsWith("Entity-1").stream().limit(12).toList()));
+            assertEquals(111, objectUnderTestQuery.beginsWith("Entity-1").size());
+            assertEquals(20, objectUnderTestQuery.endsWith("7").size());
+            assertEquals(Set.copyOf(keys(99, 199)), Set.copyOf(getKeys(objectUnderTestQuery.includes("99"))));
+            assertEquals(keys(99), getKeys(objectUnderTestQuery.includes("y-99")));
+            assertEquals(keys(42), getKeys(objectUnderTestQuery.isEqualTo("Entity-42")));
+            assertEquals(81, objectUnderTestQuery.notIncludes("1").size());
+        }
+    }
+
+    @Test
+    void ngramIndexIsUpdatedByWrites()
+    {
+        //Arrange
+        IMDBObjectStore.setStringIndexMode(TestEntitySchema.STRING_VALUE, StringIndexMode.NGRAM);
+        var objectUnderTestQuery = objectUnderTest.getStringQuery(TestEntitySchema.STRING_VALUE, String.class);
+        objectUnderTest.addAll(createEntities(10));
+        objectUnderTestQuery.getAscending();
+
+        var changedEntity = objectUnderTest.get(new TestValueObject(3)).orElseThrow();
+        changedEntity.setInternalValue(12345);
+
+        //Act
+        objectUnderTest.update(changedEntity);
+
+        //Assert
+        assertEquals(keys(3), getKeys(objectUnderTestQuery.includes("234")));
+        assertTrue(objectUnderTestQuery.endsWith("-3").isEmpty());
+        assertEquals(keys(8, 7, 6), getKeys(objectUnderTestQuery.getDescending(4).stream().skip(1).toList()));
+    }
+
+    private static List<TestValueObject> getKeys(List<TestEntity> entities)
+    {
+        return entities.stream().map(TestEntity::getKey).toList();
+    }
+
+    private static List<TestEntity> createEntities(int amount)
+    {
+        return IntStream.range(0, amount).mapToObj(IMDBObjectStoreTest::createEntity).toList();
+    }
+
+    private static TestEntity createEntity(int value)
+    {
+        var entity = TestEntity.create(new TestValueObject(value));
+        entity.setInternalValue(value);
+        return entity;
+    }
+
+    private static List<TestValueObject> keys(int... values)
+    {
+        return IntStream.of(values).mapToObj(TestValueObject::new).toList();
+    }
+}
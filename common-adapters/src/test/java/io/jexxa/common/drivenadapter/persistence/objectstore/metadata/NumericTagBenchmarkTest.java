@@ -0,0 +1,84 @@
+package io.jexxa.common.drivenadapter.persistence.objectstore.metadata;
+
+
+import io.jexxa.common.facade.TestConstants;
+import io.jexxa.common.facade.testapplication.TestValueObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static io.jexxa.common.drivenadapter.persistence.objectstore.metadata.MetaTags.longTag;
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Opt-in benchmark of the comparators of {@link NumericTag}. Run it with: mvn -B test -Dbenchmark=true -Dtest=NumericTagBenchmarkTest
+ */
+@Execution(ExecutionMode.SAME_THREAD)
+@Tag(TestConstants.UNIT_TEST)
+@Tag(TestConstants.BENCHMARK)
+@EnabledIfSystemProperty(named = TestConstants.BENCHMARK_PROPERTY, matches = "true")
+class NumericTagBenchmarkTest
+{
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int ITERATIONS = 10;
+
+    @Test
+    void getLatencyOfComparison()
+    {
+        //Arrange
+        var random = new Random(42);
+        var values = IntStream.range(0, 50_000)
+                .mapToObj(_ -> new TestValueObject(random.nextInt()))
+                .toList();
+        var objectUnderTest = longTag((TestValueObject value) -> value, TestValueObject::getValue);
+        Comparator<TestValueObject> bigDecimalComparator = (value1, value2) ->
+                new BigDecimal(value1.getValue()).compareTo(new BigDecimal(value2.getValue()));
+
+        //Act
+        var bigDecimalDuration = measureSort(values, bigDecimalComparator);
+        var primitiveDuration = measureSort(values, objectUnderTest.getComparator());
+
+        //Assert
+        assertEquals(sort(values, bigDecimalComparator), sort(values, objectUnderTest.getComparator()));
+        getLogger(NumericTagBenchmarkTest.class).info(
+                "Average duration to sort {} values: {} µs by using BigDecimal, {} µs by using primitive values",
+                values.size(),
+                bigDecimalDuration / 1000,
+                primitiveDuration / 1000);
+    }
+
+    /** Returns the average duration to sort the values in ns */
+    private static long measureSort(List<TestValueObject> values, Comparator<TestValueObject> comparator)
+    {
+        for (int i = 0; i < WARMUP_ITERATIONS; ++i)
+        {
+            sort(values, comparator);
+        }
+
+        var startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; ++i)
+        {
+            sort(values, comparator);
+        }
+        return (System.nanoTime() - startTime) / ITERATIONS;
+    }
+
+    private static <T> List<T> sort(List<T> values, Comparator<? super T> comparator)
+    {
+        var result = new ArrayList<>(values);
+        Collections.shuffle(result, new Random(values.size()));
+        result.sort(comparator);
+        return result;
+    }
+}
@@ -0,0 +1,125 @@
+package io.jexxa.common.drivenadapter.persistence.objectstore.metadata;
+
+
+import io.jexxa.common.facade.TestConstants;
+import io.jexxa.common.facade.testapplication.TestValueObject;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static io.jexxa.common.drivenadapter.persistence.objectstore.metadata.MetaTags.instantTag;
+import static io.jexxa.common.drivenadapter.persistence.objectstore.metadata.MetaTags.longTag;
+import static io.jexxa.common.drivenadapter.persistence.objectstore.metadata.MetaTags.numericTag;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.SAME_THREAD)
+@Tag(TestConstants.UNIT_TEST)
+class NumericTagTest
+{
+    @Test
+    void compareNumbersOfDifferentTypes()
+    {
+        //Act / Assert
+        assertEquals(0, NumericTag.compare(42, 42L));
+        assertEquals(0, NumericTag.compare(42, new BigDecimal("42.00")));
+        assertEquals(0, NumericTag.compare(0.0, -0.0));
+        assertTrue(NumericTag.compare(Long.MAX_VALUE, Long.MAX_VALUE - 1) > 0);
+        assertTrue(NumericTag.compare(41.5, 42) < 0);
+        assertTrue(NumericTag.compare((short) 3, (byte) 2) > 0);
+    }
+
+    @Test
+    void aggregatesWithoutValueAreGreatest()
+    {
+        //Arrange
+        var objectUnderTest = numericTag(TestValueObject::getValue);
+        var instantObjectUnderTest = instantTag((Instant instant) -> instant);
+        NumericTag<Integer, Integer> withoutValue = numericTag(_ -> null);
+        NumericTag<Integer, Integer> withValueOne = numericTag(value -> value == 1 ? 1 : null);
+
+        //Act / Assert
+        assertTrue(objectUnderTest.compareToValue(new TestValueObject(1), 2) < 0);
+        assertTrue(objectUnderTest.getComparator().compare(new TestValueObject(3), new TestValueObject(2)) > 0);
+        assertTrue(instantObjectUnderTest.compareToValue(Instant.ofEpochSecond(1, 1), Instant.ofEpochSecond(1)) > 0);
+        assertEquals(1, withoutValue.compareToValue(1, 2));
+        assertEquals(0, withoutValue.getComparator().compare(1, 2));
+        assertEquals(-1, withValueOne.getComparator().compare(1, 2));
+        assertEquals(1, withValueOne.getComparator().compare(2, 1));
+    }
+
+    @Test
+    void valueComparatorIsEqualToNumericComparison()
+    {
+        //Arrange
+        var random = new Random(42);
+        var instants = IntStream.range(0, 1000)
+                .mapToObj(_ -> Instant.ofEpochSecond(random.nextInt(), random.nextInt(1_000_000_000)))
+                .toList();
+        var objectUnderTest = instantTag((Instant instant) -> instant);
+
+        //Act
+        var result = sort(instants, objectUnderTest.getComparator());
+        var expectedResult = sort(instants, (instant1, instant2) ->
+                ((BigDecimal)objectUnderTest.getFromValue(instant1)).compareTo((BigDecimal)objectUnderTest.getFromValue(instant2)));
+
+        //Assert
+        assertEquals(expectedResult, result);
+        assertEquals(sort(instants, Comparator.naturalOrder()), result);
+    }
+
+    @Test
+    void compareInstantsOutsideRangeOfEpochNanos()
+    {
+        //Arrange - Nanoseconds since epoch exceed a long before 1677 and after 2262
+        var farPast = Instant.parse("1500-01-01T00:00:00.000000001Z");
+        var farFuture = Instant.parse("3000-01-01T00:00:00Z");
+        var objectUnderTest = instantTag((Instant instant) -> instant);
+        var instants = List.of(farFuture, Instant.MAX, Instant.EPOCH, farPast, Instant.MIN, farPast.minusNanos(1));
+
+        //Act
+        var result = sort(instants, objectUnderTest.getComparator());
+        var expectedResult = sort(instants, (instant1, instant2) ->
+                ((BigDecimal)objectUnderTest.getFromValue(instant1)).compareTo((BigDecimal)objectUnderTest.getFromValue(instant2)));
+
+        //Assert
+        assertEquals(List.of(Instant.MIN, farPast.minusNanos(1), farPast, Instant.EPOCH, farFuture, Instant.MAX), result);
+        assertEquals(expectedResult, result);
+        assertTrue(objectUnderTest.compareToValue(farFuture, farPast) > 0);
+    }
+
+    @Test
+    void longComparatorIsEqualToNumericComparison()
+    {
+        //Arrange
+        var random = new Random(42);
+        var values = IntStream.range(0, 1000)
+                .mapToObj(_ -> new TestValueObject(random.nextInt()))
+                .toList();
+        var objectUnderTest = longTag((TestValueObject value) -> value, TestValueObject::getValue);
+
+        //Act
+        var result = sort(values, objectUnderTest.getComparator());
+
+        //Assert
+        assertEquals(sort(values, Comparator.comparing(value -> new BigDecimal(value.getValue()))), result);
+    }
+
+    private static <T> List<T> sort(List<T> values, Comparator<? super T> comparator)
+    {
+        var result = new ArrayList<>(values);
+        Collections.shuffle(result, new Random(values.size()));
+        result.sort(comparator);
+        return result;
+    }
+}
@@ -0,0 +1,90 @@
+package io.jexxa.common.drivenadapter.persistence.objectstore.s3;
+
+
+import io.jexxa.common.facade.TestConstants;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.SAME_THREAD)
+@Tag(TestConstants.UNIT_TEST)
+class TopNSelectionTest
+{
+    private final Random random = new Random(42);
+
+    @Test
+    void selectFirstOfSmallCollection()
+    {
+        //Arrange
+        var elements = createElements(1_000);
+
+        //Act
+        var ascendingResult = TopNSelection.selectFirst(elements, Comparator.naturalOrder(), 10);
+        var descendingResult = TopNSelection.selectFirst(elements, Comparator.reverseOrder(), 10);
+
+        //Assert
+        assertEquals(elements.stream().sorted().limit(10).toList(), ascendingResult);
+        assertEquals(elements.stream().sorted(Comparator.reverseOrder()).limit(10).toList(), descendingResult);
+    }
+
+    @Test
+    void selectFirstOfLargeCollection()
+    {
+        //Arrange
+        var elements = createElements(100_000);
+
+        //Act
+        var result = TopNSelection.selectFirst(elements, Comparator.naturalOrder(), 100);
+
+        //Assert
+        assertEquals(elements.stream().sorted().limit(100).toList(), result);
+    }
+
+    @Test
+    void selectInvalidAmount()
+    {
+        //Arrange
+        var elements = createElements(100);
+
+        //Act
+        var emptyResult = TopNSelection.selectFirst(elements, Comparator.naturalOrder(), 0);
+        var negativeResult = TopNSelection.selectFirst(elements, Comparator.naturalOrder(), -1);
+        var completeResult = TopNSelection.selectFirst(elements, Comparator.naturalOrder(), 200);
+
+        //Assert
+        assertTrue(emptyResult.isEmpty());
+        assertTrue(negativeResult.isEmpty());
+        assertEquals(elements.stream().sorted().toList(), completeResult);
+    }
+
+    @Test
+    void selectEqualElementsInOrderOfCollection()
+    {
+        //Arrange - Many elements are equal according to the comparator
+        var smallCollection = createElements(1_000);
+        var largeCollection = createElements(100_000);
+        Comparator<Long> comparator = Comparator.comparing(element -> Math.floorMod(element, 10));
+
+        //Act
+        var smallResult = TopNSelection.selectFirst(smallCollection, comparator, 50);
+        var largeResult = TopNSelection.selectFirst(largeCollection, comparator, 50);
+
+        //Assert - The result is equal to a stable sort
+        assertEquals(smallCollection.stream().sorted(comparator).limit(50).toList(), smallResult);
+        assertEquals(largeCollection.stream().sorted(comparator).limit(50).toList(), largeResult);
+    }
+
+    private List<Long> createElements(int amount)
+    {
+        return random.longs(amount).boxed().toList();
+    }
+
+}
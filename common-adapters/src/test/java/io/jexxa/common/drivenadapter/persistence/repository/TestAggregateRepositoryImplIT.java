@@ -5,6 +5,7 @@ import io.jexxa.adapterapi.JexxaContext;
 import io.jexxa.common.drivenadapter.persistence.repository.jdbc.JDBCKeyValueRepository;
 import io.jexxa.common.facade.TestConstants;
 import io.jexxa.common.facade.jdbc.JDBCConnection;
+import io.jexxa.common.facade.jdbc.JDBCProperties;
 import io.jexxa.common.facade.jdbc.JDBCTestDatabase;
 import io.jexxa.common.facade.testapplication.TestAggregate;
 import io.jexxa.common.facade.testapplication.TestValueObject;
@@ -16,12 +17,15 @@ import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.IntStream;
 
 import static io.jexxa.common.drivenadapter.persistence.RepositoryFactory.createRepository;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 
@@ -82,6 +86,154 @@ class TestAggregateRepositoryImplIT
         assertEquals(aggregateList.size(), resultList.size());
     }
 
+    @ParameterizedTest
+    @MethodSource(JDBCTestDatabase.JDBC_REPOSITORY_CONFIG)
+    void streamAggregates(Properties repositoryProperties)
+    {
+        //Arrange
+        dropTable(repositoryProperties);
+        var properties = new Properties();
+        properties.putAll(repositoryProperties);
+        properties.put(JDBCProperties.jdbcFetchSize(), "10"); // Ensure that the result is fetched in multiple round-trips
+        var objectUnderTest = createRepository(TestAggregate.class, TestAggregate::getKey, properties);
+        objectUnderTest.removeAll();
+        aggregateList.forEach(objectUnderTest::add);
+
+        //Act
+        List<TestAggregate> result;
+        try (var stream = objectUnderTest.stream())
+        {
+            result = stream.toList();
+        }
+        objectUnderTest.add(TestAggregate.create(new TestValueObject(aggregateList.size() + 1)));
+
+        //Assert - Repository can be used after the stream is closed
+        assertEquals(aggregateList.size(), result.size());
+        assertEquals(aggregateList.size() + 1, objectUnderTest.get().size());
+    }
+
+    @ParameterizedTest
+    @MethodSource(JDBCTestDatabase.JDBC_REPOSITORY_CONFIG)
+    void writeWhileStreamIsOpen(Properties repositoryProperties)
+    {
+        //Arrange
+        dropTable(repositoryProperties);
+        var objectUnderTest = createRepository(TestAggregate.class, TestAggregate::getKey, repositoryProperties);
+        objectUnderTest.removeAll();
+        aggregateList.forEach(objectUnderTest::add);
+
+        //Act - The stream is intentionally not closed
+        var firstAggregate = objectUnderTest.stream().findFirst();
+        objectUnderTest.add(TestAggregate.create(new TestValueObject(aggregateList.size() + 1)));
+
+        //Assert - The write is committed, so that it is visible to other threads
+        var result = CompletableFuture.supplyAsync(() -> objectUnderTest.get().size()).join();
+        assertTrue(firstAggregate.isPresent());
+        assertEquals(aggregateList.size() + 1, result);
+    }
+
+    @ParameterizedTest
+    @MethodSource(JDBCTestDatabase.JDBC_REPOSITORY_CONFIG)
+    void addAllAggregates(Properties repositoryProperties)
+    {
+        //Arrange
+        dropTable(repositoryProperties);
+        var properties = new Properties();
+        properties.putAll(repositoryProperties);
+        properties.put(JDBCProperties.jdbcBatchSize(), "10"); // Ensure that the aggregates are written in multiple batches
+        var objectUnderTest = createRepository(TestAggregate.class, TestAggregate::getKey, properties);
+        objectUnderTest.removeAll();
+
+        //Act
+        objectUnderTest.addAll(aggregateList);
+
+        //Assert
+        assertEquals(aggregateList.size(), objectUnderTest.get().size());
+    }
+
+    @ParameterizedTest
+    @MethodSource(JDBCTestDatabase.JDBC_REPOSITORY_CONFIG)
+    void addAllIsAtomic(Properties repositoryProperties)
+    {
+        //Arrange
+        dropTable(repositoryProperties);
+        var objectUnderTest = createRepository(TestAggregate.class, TestAggregate::getKey, repositoryProperties);
+        objectUnderTest.removeAll();
+        objectUnderTest.add(aggregateList.getLast());
+
+        //Act - The last aggregate already exists, so that the batch fails
+        assertThrows(IllegalArgumentException.class, () -> objectUnderTest.addAll(aggregateList));
+
+        //Assert - None of the other aggregates is added and the repository can still be used
+        assertEquals(1, objectUnderTest.get().size());
+        objectUnderTest.add(aggregateList.getFirst());
+        assertEquals(2, objectUnderTest.get().size());
+    }
+
+    @ParameterizedTest
+    @MethodSource(JDBCTestDatabase.JDBC_REPOSITORY_CONFIG)
+    void updateAndRemoveAllAggregates(Properties repositoryProperties)
+    {
+        //Arrange
+        dropTable(repositoryProperties);
+        var objectUnderTest = createRepository(TestAggregate.class, TestAggregate::getKey, repositoryProperties);
+        objectUnderTest.removeAll();
+        objectUnderTest.addAll(aggregateList);
+        int aggregateValue = 42;
+        aggregateList.forEach(element -> element.setInternalValue(aggregateValue));
+
+        //Act
+        objectUnderTest.updateAll(aggregateList);
+        var updatedAggregates = objectUnderTest.get();
+        objectUnderTest.removeAll(aggregateList.stream().map(TestAggregate::getKey).toList());
+
+        //Assert
+        assertTrue(updatedAggregates.stream().allMatch(element -> element.getInternalValue() == aggregateValue));
+        assertTrue(objectUnderTest.get().isEmpty());
+    }
+
+    @ParameterizedTest
+    @MethodSource(JDBCTestDatabase.JDBC_REPOSITORY_CONFIG)
+    void getAggregatesByKeys(Properties repositoryProperties)
+    {
+        //Arrange
+        dropTable(repositoryProperties);
+        var objectUnderTest = createRepository(TestAggregate.class, TestAggregate::getKey, repositoryProperties);
+        objectUnderTest.removeAll();
+        objectUnderTest.addAll(aggregateList);
+        var requestedKeys = new ArrayList<>(aggregateList.stream().map(TestAggregate::getKey).toList());
+        requestedKeys.add(new TestValueObject(1000)); // Key without aggregate
+
+        //Act
+        var result = objectUnderTest.get(requestedKeys);
+        var singleResult = objectUnderTest.get(List.of(aggregateList.getFirst().getKey()));
+
+        //Assert
+        assertEquals(aggregateList.size(), result.size());
+        assertTrue(aggregateList.stream().allMatch(aggregate -> result.containsKey(aggregate.getKey())));
+        assertEquals(1, singleResult.size());
+    }
+
+    @ParameterizedTest
+    @MethodSource(JDBCTestDatabase.JDBC_REPOSITORY_CONFIG)
+    void upsertAggregate(Properties repositoryProperties)
+    {
+        //Arrange
+        dropTable(repositoryProperties);
+        var objectUnderTest = createRepository(TestAggregate.class, TestAggregate::getKey, repositoryProperties);
+        objectUnderTest.removeAll();
+        var aggregate = aggregateList.getFirst();
+
+        //Act
+        objectUnderTest.upsert(aggregate);
+        aggregate.setInternalValue(42);
+        objectUnderTest.upsert(aggregate);
+
+        //Assert
+        assertEquals(1, objectUnderTest.get().size());
+        assertEquals(42, objectUnderTest.get(aggregate.getKey()).orElseThrow().getInternalValue());
+    }
+
     @ParameterizedTest
     @MethodSource(JDBCTestDatabase.JDBC_REPOSITORY_CONFIG)
     void removeAggregate(Properties repositoryProperties)
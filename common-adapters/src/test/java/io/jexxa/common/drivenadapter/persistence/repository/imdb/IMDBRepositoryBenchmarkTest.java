@@ -0,0 +1,84 @@
+package io.jexxa.common.drivenadapter.persistence.repository.imdb;
+
+import io.jexxa.common.facade.TestConstants;
+import io.jexxa.common.facade.testapplication.TestValueObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.Properties;
+
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Opt-in benchmark of the storage modes of {@link IMDBRepository}. Run it with: mvn -B test -Dbenchmark=true -Dtest=IMDBRepositoryBenchmarkTest
+ */
+@Execution(ExecutionMode.SAME_THREAD)
+@Tag(TestConstants.UNIT_TEST)
+@Tag(TestConstants.BENCHMARK)
+@EnabledIfSystemProperty(named = TestConstants.BENCHMARK_PROPERTY, matches = "true")
+class IMDBRepositoryBenchmarkTest
+{
+    private static final int WARMUP_ITERATIONS = 10_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    void getLatencyOfStorageModes()
+    {
+        //Arrange
+        var objectUnderTest = new IMDBRepository<>(MutableAggregate.class, MutableAggregate::getKey, new Properties());
+
+        //Act
+        var jsonLatency = measureUpdateAndGet(objectUnderTest);
+        var jsonResult = objectUnderTest.get(new TestValueObject(0)).orElseThrow().getValue();
+
+        objectUnderTest.removeAll();
+        IMDBRepository.setCopier(MutableAggregate.class, MutableAggregate::copy);
+        var objectLatency = measureUpdateAndGet(objectUnderTest);
+        var objectResult = objectUnderTest.get(new TestValueObject(0)).orElseThrow().getValue();
+
+        //Assert - Both storage modes return the last stored state
+        assertEquals(ITERATIONS - 1, jsonResult);
+        assertEquals(ITERATIONS - 1, objectResult);
+        getLogger(IMDBRepositoryBenchmarkTest.class).info(
+                "Average latency of update and get: {} ns when stored as JSON, {} ns when stored as object",
+                jsonLatency,
+                objectLatency);
+    }
+
+    @AfterEach
+    void cleanup()
+    {
+        new IMDBRepository<>(MutableAggregate.class, MutableAggregate::getKey, new Properties()).removeAll();
+        IMDBRepository.resetCopier(MutableAggregate.class);
+    }
+
+    /** Returns the average latency of an update followed by a get in ns */
+    private static long measureUpdateAndGet(IMDBRepository<MutableAggregate, TestValueObject> repository)
+    {
+        var mutableAggregate = new MutableAggregate(0);
+        repository.add(mutableAggregate);
+
+        updateAndGet(repository, mutableAggregate, WARMUP_ITERATIONS);
+
+        var startTime = System.nanoTime();
+        updateAndGet(repository, mutableAggregate, ITERATIONS);
+        return (System.nanoTime() - startTime) / ITERATIONS;
+    }
+
+    private static void updateAndGet(IMDBRepository<MutableAggregate, TestValueObject> repository,
+                                     MutableAggregate mutableAggregate,
+                                     int iterations)
+    {
+        for (int i = 0; i < iterations; ++i)
+        {
+            mutableAggregate.setValue(i);
+            repository.update(mutableAggregate);
+            repository.get(mutableAggregate.getKey());
+        }
+    }
+}
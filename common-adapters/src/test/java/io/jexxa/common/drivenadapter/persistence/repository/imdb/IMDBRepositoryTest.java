@@ -4,12 +4,14 @@ package io.jexxa.common.drivenadapter.persistence.repository.imdb;
 import io.jexxa.common.facade.TestConstants;
 import io.jexxa.common.facade.jdbc.TestEntity;
 import io.jexxa.common.facade.testapplication.TestValueObject;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 
+import java.util.List;
 import java.util.Properties;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -146,5 +148,75 @@ class IMDBRepositoryTest
         assertEquals(1, newConnection.get().size());
     }
 
+    @Test
+    void storeAggregatesAsObjects()
+    {
+        //Arrange
+        IMDBRepository.setCopier(MutableAggregate.class, MutableAggregate::copy);
+        var repository = new IMDBRepository<>(MutableAggregate.class, MutableAggregate::getKey, new Properties());
+        var mutableAggregate = new MutableAggregate(1);
+
+        //Act
+        repository.add(mutableAggregate);
+        mutableAggregate.setValue(42);
+        var result = repository.get(mutableAggregate.getKey()).orElseThrow();
+        result.setValue(43);
+
+        //Assert - Changing an aggregate outside the repository does not change the stored aggregate
+        assertEquals(0, repository.get(mutableAggregate.getKey()).orElseThrow().getValue());
+        assertEquals(0, repository.get().getFirst().getValue());
+    }
+
+    @Test
+    void changeStorageModeWithStoredAggregates()
+    {
+        //Arrange
+        var repository = new IMDBRepository<>(MutableAggregate.class, MutableAggregate::getKey, new Properties());
+        repository.add(new MutableAggregate(1));
+
+        //Act / Assert
+        assertThrows(IllegalStateException.class, () -> IMDBRepository.setImmutable(MutableAggregate.class));
+    }
+
+    @Test
+    void addAllRemovesAddedAggregatesIfOneExists()
+    {
+        //Arrange
+        var repository = new IMDBRepository<>(MutableAggregate.class, MutableAggregate::getKey, new Properties());
+        repository.add(new MutableAggregate(3));
+
+        //Act
+        assertThrows(IllegalArgumentException.class, () -> repository.addAll(
+                List.of(new MutableAggregate(1), new MutableAggregate(2), new MutableAggregate(3))));
+
+        //Assert - Only the aggregate that existed before is stored
+        assertEquals(1, repository.get().size());
+        assertTrue(repository.get(new TestValueObject(1)).isEmpty());
+        assertTrue(repository.get(new TestValueObject(3)).isPresent());
+    }
+
+    @Test
+    void updateAllRestoresUpdatedAggregatesIfOneDoesNotExist()
+    {
+        //Arrange
+        var repository = new IMDBRepository<>(MutableAggregate.class, MutableAggregate::getKey, new Properties());
+        var existingAggregate = new MutableAggregate(1);
+        repository.add(existingAggregate);
+        existingAggregate.setValue(42);
+
+        //Act
+        assertThrows(IllegalArgumentException.class, () -> repository.updateAll(
+                List.of(existingAggregate, new MutableAggregate(2))));
+
+        //Assert - The existing aggregate keeps its previous value
+        assertEquals(0, repository.get(new TestValueObject(1)).orElseThrow().getValue());
+        assertTrue(repository.get(new TestValueObject(2)).isEmpty());
+    }
 
+    @AfterEach
+    void cleanup()
+    {
+        new IMDBRepository<>(MutableAggregate.class, MutableAggregate::getKey, new Properties()).removeAll();
+        IMDBRepository.resetCopier(MutableAggregate.class);
+    }
 }
@@ -0,0 +1,39 @@
+package io.jexxa.common.drivenadapter.persistence.repository.imdb;
+
+import io.jexxa.common.facade.testapplication.TestValueObject;
+
+/**
+ * Aggregate whose state can be changed after it was stored, so that tests can verify the storage modes of {@link IMDBRepository}.
+ */
+final class MutableAggregate
+{
+    private final TestValueObject key;
+    private int value;
+
+    MutableAggregate(int key)
+    {
+        this.key = new TestValueObject(key);
+    }
+
+    TestValueObject getKey()
+    {
+        return key;
+    }
+
+    int getValue()
+    {
+        return value;
+    }
+
+    void setValue(int value)
+    {
+        this.value = value;
+    }
+
+    MutableAggregate copy()
+    {
+        var copy = new MutableAggregate(key.getValue());
+        copy.setValue(value);
+        return copy;
+    }
+}
@@ -13,14 +13,21 @@ import io.jexxa.common.facade.utils.properties.PropertiesUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Map;
 import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Stream;
 
 import static io.jexxa.common.drivenadapter.messaging.MessageSenderFactory.createMessageSender;
@@ -28,7 +35,9 @@ import static io.jexxa.common.drivenadapter.messaging.MessageSenderFactory.setDe
 import static io.jexxa.common.drivingadapter.messaging.jms.listener.QueueListener.QUEUE_DESTINATION;
 import static io.jexxa.common.drivingadapter.messaging.jms.listener.TopicListener.TOPIC_DESTINATION;
 import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @Execution(ExecutionMode.SAME_THREAD)
@@ -36,6 +45,10 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 class MessageReceiverIT
 {
     private static final String MESSAGE_SENDER_CONFIG = "getMessageSenderConfig";
+    private static final String CONCURRENT_QUEUE = "JEXXA_CONCURRENT_QUEUE";
+    private static final String ORDERED_QUEUE = "JEXXA_ORDERED_QUEUE";
+    private static final String VIRTUAL_THREAD_QUEUE = "JEXXA_VIRTUAL_THREAD_QUEUE";
+    private static final String ORDERING_KEY = "ordering_key";
     private final TestValueObject message = new TestValueObject(42);
     private final TestDomainEvent domainEvent = TestDomainEvent.create(message);
 
@@ -115,6 +128,107 @@ class MessageReceiverIT
 
 
 
+    @Test
+    void receiveWithConcurrentConsumers()
+    {
+        //Arrange
+        int messageCount = 100;
+        var concurrentListener = new ConcurrentListener();
+        var concurrentAdapter = new JMSAdapter(jmsProperties);
+        concurrentAdapter.register(concurrentListener);
+        concurrentAdapter.start();
+
+        setDefaultMessageSender(JMSSender.class);
+        var objectUnderTest = createMessageSender(MessageReceiverIT.class, jmsProperties);
+
+        //Act
+        for (int i = 0; i < messageCount; ++i)
+        {
+            objectUnderTest
+                    .send(new TestValueObject(i))
+                    .toQueue(CONCURRENT_QUEUE)
+                    .asJson();
+        }
+
+        //Assert
+        await().atMost(5, TimeUnit.SECONDS).until(() -> concurrentListener.getReceivedMessages().size() == messageCount);
+        assertTrue(concurrentListener.getReceivingThreads().size() > 1);
+        concurrentAdapter.stop();
+    }
+
+    @Test
+    void receiveOrderedByKey()
+    {
+        //Arrange
+        int messageCount = 100;
+        int keyCount = 4;
+        var orderedListener = new OrderedListener();
+        var orderedAdapter = new JMSAdapter(jmsProperties);
+        orderedAdapter.register(orderedListener);
+        orderedAdapter.start();
+
+        setDefaultMessageSender(JMSSender.class);
+        var objectUnderTest = createMessageSender(MessageReceiverIT.class, jmsProperties);
+
+        //Act
+        for (int i = 0; i < messageCount; ++i)
+        {
+            objectUnderTest
+                    .send(new TestValueObject(i))
+                    .addHeader(ORDERING_KEY, String.valueOf(i % keyCount))
+                    .toQueue(ORDERED_QUEUE)
+                    .asJson();
+        }
+
+        //Assert - Messages with the same key are processed in the order they were sent
+        await().atMost(5, TimeUnit.SECONDS).until(() -> orderedListener.receivedMessages() == messageCount);
+        orderedListener.getMessagesByKey().values().forEach( messages -> {
+            for (int i = 1; i < messages.size(); ++i)
+            {
+                assertTrue(messages.get(i - 1).getValue() < messages.get(i).getValue());
+            }
+        });
+        orderedAdapter.stop();
+    }
+
+    @Test
+    void receiveOnVirtualThreads()
+    {
+        //Arrange
+        int messageCount = 50;
+        var blockingListener = new BlockingListener();
+        var virtualThreadAdapter = new JMSAdapter(jmsProperties);
+        virtualThreadAdapter.register(blockingListener);
+        virtualThreadAdapter.start();
+
+        setDefaultMessageSender(JMSSender.class);
+        var objectUnderTest = createMessageSender(MessageReceiverIT.class, jmsProperties);
+
+        //Act
+        for (int i = 0; i < messageCount; ++i)
+        {
+            objectUnderTest
+                    .send(new TestValueObject(i))
+                    .toQueue(VIRTUAL_THREAD_QUEUE)
+                    .asJson();
+        }
+
+        //Assert - Since blocking listeners are processed concurrently, receiving all messages takes much less than messageCount * 100 ms
+        await().atMost(2, TimeUnit.SECONDS).until(() -> blockingListener.getReceivedMessages().size() == messageCount);
+        assertTrue(blockingListener.isInvokedOnVirtualThread());
+        virtualThreadAdapter.stop();
+    }
+
+    @Test
+    void invalidConcurrencyForTopic()
+    {
+        //Arrange
+        var invalidListener = new InvalidConcurrentTopicListener();
+
+        //Act / Assert
+        assertThrows(IllegalArgumentException.class, () -> jmsAdapter.register(invalidListener));
+    }
+
     private static class TextMessageListener extends JSONMessageListener
     {
         private String textMessage;
@@ -133,6 +247,111 @@ class MessageReceiverIT
         }
     }
 
+    private static class ConcurrentListener extends TypedMessageListener<TestValueObject>
+    {
+        private final Set<TestValueObject> receivedMessages = ConcurrentHashMap.newKeySet();
+        private final Set<String> receivingThreads = ConcurrentHashMap.newKeySet();
+
+        public ConcurrentListener()
+        {
+            super(TestValueObject.class);
+        }
+
+        @SuppressWarnings("unused")
+        @Override
+        @JMSConfiguration(destination = CONCURRENT_QUEUE, messagingType = JMSConfiguration.MessagingType.QUEUE, concurrency = 4)
+        public void onMessage(TestValueObject testValueObject)
+        {
+            assertTrue(messageContains("valueInPercent"));
+            receivingThreads.add(Thread.currentThread().getName());
+            receivedMessages.add(testValueObject);
+        }
+
+        public Set<TestValueObject> getReceivedMessages()
+        {
+            return receivedMessages;
+        }
+
+        public Set<String> getReceivingThreads()
+        {
+            return receivingThreads;
+        }
+    }
+
+    private static class OrderedListener extends TypedMessageListener<TestValueObject>
+    {
+        private final Map<String, List<TestValueObject>> messagesByKey = new ConcurrentHashMap<>();
+        private final AtomicInteger receivedMessages = new AtomicInteger();
+
+        public OrderedListener()
+        {
+            super(TestValueObject.class);
+        }
+
+        @SuppressWarnings("unused")
+        @Override
+        @JMSConfiguration(destination = ORDERED_QUEUE, messagingType = JMSConfiguration.MessagingType.QUEUE, concurrency = 4, orderingKey = ORDERING_KEY)
+        public void onMessage(TestValueObject testValueObject)
+        {
+            var key = assertDoesNotThrow(() -> getCurrentMessage().getStringProperty(ORDERING_KEY));
+            messagesByKey.computeIfAbsent(key, _ -> new CopyOnWriteArrayList<>()).add(testValueObject);
+            receivedMessages.incrementAndGet();
+        }
+
+        public Map<String, List<TestValueObject>> getMessagesByKey()
+        {
+            return messagesByKey;
+        }
+
+        public int receivedMessages()
+        {
+            return receivedMessages.get();
+        }
+    }
+
+    private static class BlockingListener extends TypedMessageListener<TestValueObject>
+    {
+        private final Set<TestValueObject> receivedMessages = ConcurrentHashMap.newKeySet();
+        private volatile boolean invokedOnVirtualThread = true;
+
+        public BlockingListener()
+        {
+            super(TestValueObject.class);
+        }
+
+        @SuppressWarnings("unused")
+        @Override
+        @JMSConfiguration(destination = VIRTUAL_THREAD_QUEUE, messagingType = JMSConfiguration.MessagingType.QUEUE,
+                dispatchMode = JMSConfiguration.DispatchMode.VIRTUAL_THREAD, maxInFlight = 50)
+        public void onMessage(TestValueObject testValueObject)
+        {
+            invokedOnVirtualThread = invokedOnVirtualThread && Thread.currentThread().isVirtual();
+            assertDoesNotThrow(() -> Thread.sleep(100)); // Simulate blocking I/O
+            receivedMessages.add(testValueObject);
+        }
+
+        public Set<TestValueObject> getReceivedMessages()
+        {
+            return receivedMessages;
+        }
+
+        public boolean isInvokedOnVirtualThread()
+        {
+            return invokedOnVirtualThread;
+        }
+    }
+
+    private static class InvalidConcurrentTopicListener extends JSONMessageListener
+    {
+        @SuppressWarnings("unused")
+        @Override
+        @JMSConfiguration(destination = TOPIC_DESTINATION, messagingType = JMSConfiguration.MessagingType.TOPIC, concurrency = 4)
+        public void onMessage(String textMessage)
+        {
+            //Nothing to do
+        }
+    }
+
     private static class ValueObjectListener extends TypedMessageListener<TestValueObject>
     {
         private TestValueObject testValueObject;
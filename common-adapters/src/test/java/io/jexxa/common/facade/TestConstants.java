@@ -4,4 +4,7 @@ public class TestConstants
 {
     public static final String UNIT_TEST = "unit-test";
     public static final String INTEGRATION_TEST = "integration-test";
+    /** Benchmarks only run if system property {@value #BENCHMARK_PROPERTY} is set to true, e.g. mvn verify -Dbenchmark=true */
+    public static final String BENCHMARK = "benchmark";
+    public static final String BENCHMARK_PROPERTY = "benchmark";
 }
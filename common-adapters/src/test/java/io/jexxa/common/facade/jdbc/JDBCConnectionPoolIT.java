@@ -0,0 +1,254 @@
+package io.jexxa.common.facade.jdbc;
+
+import io.jexxa.adapterapi.JexxaContext;
+import io.jexxa.adapterapi.invocation.transaction.TransactionManager;
+import io.jexxa.common.drivenadapter.persistence.repository.jdbc.JDBCKeyValueRepository;
+import io.jexxa.common.facade.TestConstants;
+import io.jexxa.common.facade.testapplication.TestValueObject;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.util.ArrayList;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static io.jexxa.common.facade.jdbc.RepositoryConfig.h2RepositoryConfig;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Execution(ExecutionMode.SAME_THREAD)
+@Tag(TestConstants.INTEGRATION_TEST)
+class JDBCConnectionPoolIT
+{
+    private Properties properties;
+
+    @BeforeEach
+    void initTests()
+    {
+        JexxaContext.init();
+        // Each test uses its own in-memory database, so that it gets its own connection pool
+        properties = h2RepositoryConfig();
+        properties.put(JDBCProperties.jdbcUrl(), "jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+    }
+
+    @AfterEach
+    void cleanup()
+    {
+        JexxaContext.cleanup();
+    }
+
+    @Test
+    void connectionIsReturnedAfterTransaction()
+    {
+        //Arrange
+        var objectUnderTest = newRepository();
+
+        //Act
+        TransactionManager.initTransaction();
+        objectUnderTest.add(TestEntity.create(new TestValueObject(42)));
+        var statisticsWithinTransaction = JDBCConnectionPool.getPoolStatistics(properties);
+        TransactionManager.closeTransaction();
+
+        //Assert
+        var statisticsAfterTransaction = JDBCConnectionPool.getPoolStatistics(properties);
+        assertEquals(1, statisticsWithinTransaction.activeConnections());
+        assertEquals(0, statisticsAfterTransaction.activeConnections());
+        assertEquals(1, statisticsAfterTransaction.idleConnections());
+        assertEquals(1, objectUnderTest.get().size());
+    }
+
+    @Test
+    void repositoriesShareConnectionWithinTransaction()
+    {
+        //Arrange
+        var firstRepository = newRepository();
+        var secondRepository = newRepository();
+
+        //Act
+        TransactionManager.initTransaction();
+        var firstConnection = firstRepository.getConnection();
+        var secondConnection = secondRepository.getConnection();
+        TransactionManager.closeTransaction();
+
+        //Assert
+        assertSame(firstConnection, secondConnection);
+        assertEquals(1, JDBCConnectionPool.getPoolStatistics(properties).idleConnections());
+    }
+
+    @Test
+    void rollbackDiscardsChanges()
+    {
+        //Arrange
+        var objectUnderTest = newRepository();
+
+        //Act
+        TransactionManager.initTransaction();
+        objectUnderTest.add(TestEntity.create(new TestValueObject(42)));
+        TransactionManager.rollback();
+        TransactionManager.closeTransaction();
+
+        //Assert
+        assertTrue(objectUnderTest.get().isEmpty());
+        assertEquals(0, JDBCConnectionPool.getPoolStatistics(properties).activeConnections());
+    }
+
+    @Test
+    void timeoutIfPoolIsExhausted() throws InterruptedException
+    {
+        //Arrange
+        properties.put(JDBCProperties.jdbcPoolMaxSize(), "1");
+        properties.put(JDBCProperties.jdbcPoolTimeout(), "100");
+        var objectUnderTest = newRepository();
+        var connectionBorrowed = new CountDownLatch(1);
+        var finishTransaction = new CountDownLatch(1);
+
+        try (var executor = Executors.newSingleThreadExecutor())
+        {
+            executor.submit(() -> {
+                TransactionManager.initTransaction();
+                objectUnderTest.getConnection();
+                connectionBorrowed.countDown();
+                finishTransaction.await();
+                TransactionManager.closeTransaction();
+                return null;
+            });
+            connectionBorrowed.await();
+
+            //Act
+            TransactionManager.initTransaction();
+            assertThrows(IllegalStateException.class, objectUnderTest::getConnection);
+            TransactionManager.rollback();
+            TransactionManager.closeTransaction();
+
+            finishTransaction.countDown();
+        }
+
+        //Assert
+        var statistics = JDBCConnectionPool.getPoolStatistics(properties);
+        assertEquals(1, statistics.maxSize());
+        assertEquals(1, statistics.poolWaits());
+        assertEquals(0, statistics.activeConnections());
+    }
+
+    @Test
+    void repositoriesShareConnectionOfThread()
+    {
+        //Arrange
+        var firstRepository = newRepository();
+        var secondRepository = newRepository();
+
+        //Act
+        var firstConnection = firstRepository.getConnection();
+        var secondConnection = secondRepository.getConnection();
+
+        //Assert
+        assertSame(firstConnection, secondConnection);
+        assertEquals(0, JDBCConnectionPool.getPoolStatistics(properties).activeConnections());
+    }
+
+    @Test
+    void connectionOfTerminatedThreadIsReused() throws InterruptedException
+    {
+        //Arrange
+        properties.put(JDBCProperties.jdbcPoolMaxThreadConnections(), "2");
+        properties.put(JDBCProperties.jdbcPoolTimeout(), "100");
+        var objectUnderTest = newRepository(); // Uses a connection of the current thread
+
+        //Act - Each terminated thread returns its connection, so that the pool is never exhausted
+        for (int i = 0; i < 5; ++i)
+        {
+            var value = i;
+            var thread = Thread.ofVirtual().start(() -> objectUnderTest.add(TestEntity.create(new TestValueObject(value))));
+            thread.join();
+        }
+
+        //Assert
+        assertEquals(5, objectUnderTest.get().size());
+    }
+
+    @Test
+    void waitingThreadGetsConnectionOfTerminatedThread() throws InterruptedException
+    {
+        //Arrange - The current thread and a second thread exhaust the pool of thread connections
+        properties.put(JDBCProperties.jdbcPoolMaxThreadConnections(), "2");
+        properties.put(JDBCProperties.jdbcPoolTimeout(), "5000");
+        var objectUnderTest = newRepository();
+        var connectionBorrowed = new CountDownLatch(1);
+        var terminate = new CountDownLatch(1);
+        var exhaustingThread = Thread.ofVirtual().start(() -> {
+            objectUnderTest.getConnection();
+            connectionBorrowed.countDown();
+            awaitLatch(terminate);
+        });
+        connectionBorrowed.await();
+
+        //Act - The exhausting thread terminates while another thread waits for a connection
+        var waitingThread = Thread.ofVirtual().start(() -> objectUnderTest.add(TestEntity.create(new TestValueObject(42))));
+        await().atMost(1, TimeUnit.SECONDS).until(() -> JDBCConnectionPool.getPoolStatistics(properties).poolWaits() > 0 || !waitingThread.isAlive());
+        terminate.countDown();
+        exhaustingThread.join();
+        waitingThread.join();
+
+        //Assert - The waiting thread does not run into a timeout
+        assertEquals(1, objectUnderTest.get().size());
+    }
+
+    @Test
+    void releasedThreadConnectionIsReused() throws InterruptedException
+    {
+        //Arrange
+        properties.put(JDBCProperties.jdbcPoolMaxThreadConnections(), "2");
+        properties.put(JDBCProperties.jdbcPoolTimeout(), "100");
+        var objectUnderTest = newRepository(); // Uses a connection of the current thread
+        var terminate = new CountDownLatch(1);
+
+        //Act - Each thread returns its connection after its work, although it is still alive
+        var aliveThreads = new ArrayList<Thread>();
+        var connectionsReleased = new CountDownLatch(5);
+        for (int i = 0; i < 5; ++i)
+        {
+            var value = i;
+            aliveThreads.add(Thread.ofVirtual().start(() -> {
+                objectUnderTest.add(TestEntity.create(new TestValueObject(value)));
+                JDBCConnectionPool.releaseThreadConnections();
+                connectionsReleased.countDown();
+                awaitLatch(terminate);
+            }));
+            connectionsReleased.await(1, TimeUnit.SECONDS);
+        }
+        terminate.countDown();
+        for (var thread : aliveThreads)
+        {
+            thread.join();
+        }
+
+        //Assert
+        assertEquals(5, objectUnderTest.get().size());
+    }
+
+    private static void awaitLatch(CountDownLatch latch)
+    {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private JDBCKeyValueRepository<TestEntity, TestValueObject> newRepository()
+    {
+        var repository = new JDBCKeyValueRepository<>(TestEntity.class, TestEntity::getKey, properties);
+        repository.init();
+        return repository;
+    }
+}
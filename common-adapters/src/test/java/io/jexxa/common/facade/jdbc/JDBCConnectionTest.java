@@ -0,0 +1,63 @@
+package io.jexxa.common.facade.jdbc;
+
+import io.jexxa.common.facade.TestConstants;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.SQLNonTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@Tag(TestConstants.UNIT_TEST)
+@Execution(ExecutionMode.CONCURRENT)
+class JDBCConnectionTest
+{
+    @Test
+    void detectConnectionFailureBySQLState()
+    {
+        //Arrange
+        var connectionFailure = new SQLException("Connection reset", "08006");
+
+        //Act / Assert
+        assertTrue(JDBCConnection.isConnectionFailure(connectionFailure));
+    }
+
+    @Test
+    void detectConnectionFailureByExceptionType()
+    {
+        //Arrange
+        var connectionFailure = new SQLNonTransientConnectionException("Connection closed");
+
+        //Act / Assert
+        assertTrue(JDBCConnection.isConnectionFailure(connectionFailure));
+    }
+
+    @Test
+    void detectChainedConnectionFailure()
+    {
+        //Arrange
+        var sqlException = new SQLException("Batch failed", "42000");
+        sqlException.setNextException(new SQLException("I/O error", "08003"));
+
+        //Act / Assert
+        assertTrue(JDBCConnection.isConnectionFailure(sqlException));
+    }
+
+    @Test
+    void ignoreStatementFailure()
+    {
+        //Arrange
+        var syntaxError = new SQLException("Syntax error", "42601");
+        var constraintViolation = new SQLIntegrityConstraintViolationException("Duplicate key", "23505");
+
+        //Act / Assert
+        assertFalse(JDBCConnection.isConnectionFailure(syntaxError));
+        assertFalse(JDBCConnection.isConnectionFailure(constraintViolation));
+        assertFalse(JDBCConnection.isConnectionFailure(new SQLException("Unknown")));
+    }
+}
@@ -0,0 +1,138 @@
+package io.jexxa.common.facade.jdbc;
+
+import io.jexxa.common.drivenadapter.persistence.repository.jdbc.JDBCKeyValueRepository;
+import io.jexxa.common.facade.TestConstants;
+import io.jexxa.common.facade.testapplication.TestValueObject;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.api.parallel.Execution;
+import org.junit.jupiter.api.parallel.ExecutionMode;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.jexxa.common.facade.logger.SLF4jLogger.getLogger;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Opt-in benchmark of {@link JDBCKeyValueRepository}. Run it with: mvn -B verify -Dbenchmark=true -Dit.test=JDBCKeyValueRepositoryBenchmarkIT
+ */
+@Execution(ExecutionMode.SAME_THREAD)
+@Tag(TestConstants.INTEGRATION_TEST)
+@Tag(TestConstants.BENCHMARK)
+@EnabledIfSystemProperty(named = TestConstants.BENCHMARK_PROPERTY, matches = "true")
+class JDBCKeyValueRepositoryBenchmarkIT
+{
+    private static final int WARMUP_ITERATIONS = 1_000;
+    private static final int ITERATIONS = 10_000;
+
+    private TestEntity aggregate;
+    private Properties properties;
+
+    @BeforeEach
+    void initTests() throws IOException
+    {
+        //Arrange
+        aggregate = TestEntity.create(new TestValueObject(42));
+        properties = new Properties();
+        properties.load(getClass().getResourceAsStream("/application.properties"));
+
+        try (JDBCConnection connection = new JDBCConnection(properties) )
+        {
+            connection.tableCommand(JDBCKeyValueRepository.KeyValueSchema.class)
+                    .dropTableIfExists(TestEntity.class)
+                    .asIgnore();
+        }
+    }
+
+    @Test
+    void getLatencyWithValidationPolicy()
+    {
+        //Arrange - Validating the connection on each use corresponds to the behavior before the idle-time policy
+        var validateEachUse = new Properties();
+        validateEachUse.putAll(properties);
+        validateEachUse.put(JDBCProperties.jdbcValidationIdleTime(), "0");
+
+        var repositoryValidatingEachUse = createRepository(validateEachUse);
+        var repositoryWithIdleTimePolicy = createRepository(properties);
+        repositoryWithIdleTimePolicy.add(aggregate);
+
+        //Act
+        var validateEachUseLatency = measureGet(repositoryValidatingEachUse);
+        var idleTimePolicyLatency = measureGet(repositoryWithIdleTimePolicy);
+
+        //Assert
+        assertEquals(aggregate.getKey(), repositoryValidatingEachUse.get(aggregate.getKey()).orElseThrow().getKey());
+        assertEquals(aggregate.getKey(), repositoryWithIdleTimePolicy.get(aggregate.getKey()).orElseThrow().getKey());
+        getLogger(JDBCKeyValueRepositoryBenchmarkIT.class).info(
+                "Average latency of get: {} ns when validating each use, {} ns with idle-time validation policy",
+                validateEachUseLatency,
+                idleTimePolicyLatency);
+    }
+
+    @Test
+    void getThroughputWithConcurrentReaders()
+    {
+        //Arrange
+        int readers = 8;
+        var objectUnderTest = createRepository(properties);
+        objectUnderTest.add(aggregate);
+        var failedReads = new AtomicInteger();
+
+        //Act - Each reader uses its own connection, so that the reads are not serialized by the repository
+        var singleReaderLatency = measureGet(objectUnderTest);
+
+        var startTime = System.nanoTime();
+        try (var executor = Executors.newFixedThreadPool(readers))
+        {
+            for (int i = 0; i < readers; ++i)
+            {
+                executor.execute(() -> {
+                    for (int j = 0; j < ITERATIONS; ++j)
+                    {
+                        if (objectUnderTest.get(aggregate.getKey()).isEmpty())
+                        {
+                            failedReads.incrementAndGet();
+                        }
+                    }
+                });
+            }
+        }
+        var concurrentReadersDuration = System.nanoTime() - startTime;
+
+        //Assert
+        assertEquals(0, failedReads.get());
+        getLogger(JDBCKeyValueRepositoryBenchmarkIT.class).info(
+                "Throughput of get: {} reads/s with a single reader, {} reads/s with {} concurrent readers",
+                1_000_000_000L / singleReaderLatency,
+                readers * ITERATIONS * 1_000_000_000L / concurrentReadersDuration,
+                readers);
+    }
+
+    private JDBCKeyValueRepository<TestEntity, TestValueObject> createRepository(Properties repositoryProperties)
+    {
+        var repository = new JDBCKeyValueRepository<>(TestEntity.class, TestEntity::getKey, repositoryProperties);
+        repository.init();
+        return repository;
+    }
+
+    /** Returns the average latency of get in ns */
+    private long measureGet(JDBCKeyValueRepository<TestEntity, TestValueObject> repository)
+    {
+        for (int i = 0; i < WARMUP_ITERATIONS; ++i)
+        {
+            repository.get(aggregate.getKey());
+        }
+
+        var startTime = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; ++i)
+        {
+            repository.get(aggregate.getKey());
+        }
+        return (System.nanoTime() - startTime) / ITERATIONS;
+    }
+}
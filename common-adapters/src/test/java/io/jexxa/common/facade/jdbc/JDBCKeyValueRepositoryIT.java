@@ -10,7 +10,12 @@ import org.junit.jupiter.api.parallel.Execution;
 import org.junit.jupiter.api.parallel.ExecutionMode;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -120,6 +125,44 @@ class JDBCKeyValueRepositoryIT
         assertDoesNotThrow(this::addAggregate);
     }
 
+    @Test
+    void parallelReadersOverlap() throws InterruptedException
+    {
+        //Arrange
+        int readers = 4;
+        objectUnderTest.add(aggregate);
+        var failedReads = new AtomicInteger();
+        var usedConnections = ConcurrentHashMap.<JDBCConnection>newKeySet();
+        var readersFinished = new CountDownLatch(readers);
+        var readerThreads = new ArrayList<Thread>();
+
+        //Act - The test holds the monitor of the repository, so that reads only finish if they are not synchronized on it
+        synchronized (objectUnderTest)
+        {
+            for (int i = 0; i < readers; ++i)
+            {
+                readerThreads.add(Thread.ofPlatform().start(() -> {
+                    if (objectUnderTest.get(aggregate.getKey()).isEmpty())
+                    {
+                        failedReads.incrementAndGet();
+                    }
+                    usedConnections.add(objectUnderTest.getConnection());
+                    readersFinished.countDown();
+                    awaitLatch(readersFinished); // Keep all readers alive so that no connection is reused
+                }));
+            }
+            assertTrue(readersFinished.await(10, TimeUnit.SECONDS));
+        }
+        for (var thread : readerThreads)
+        {
+            thread.join();
+        }
+
+        //Assert - All readers were in progress at the same time, each with its own connection
+        assertEquals(0, failedReads.get());
+        assertEquals(readers, usedConnections.size());
+    }
+
     @Test
     void testSuccessfulTransaction()
     {
@@ -171,4 +214,12 @@ class JDBCKeyValueRepositoryIT
         assertTrue(objectUnderTest.get(aggregate.getKey()).isEmpty());
     }
 
+    private static void awaitLatch(CountDownLatch latch)
+    {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
 }
\ No newline at end of file
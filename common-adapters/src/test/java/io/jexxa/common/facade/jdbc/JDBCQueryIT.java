@@ -17,6 +17,7 @@ import java.util.List;
 import java.util.Properties;
 import java.util.stream.Stream;
 
+import static io.jexxa.common.facade.jdbc.JDBCTestDatabase.PRIMARY_KEY_VALUES_NOT_PRESENT;
 import static io.jexxa.common.facade.jdbc.JDBCTestDatabase.PRIMARY_KEY_WITH_NONNULL_VALUES;
 import static io.jexxa.common.facade.jdbc.JDBCTestDatabase.TEST_DOUBLE_VALUE;
 import static io.jexxa.common.facade.jdbc.JDBCTestDatabase.TEST_FLOAT_VALUE;
@@ -53,6 +54,33 @@ class JDBCQueryIT
         assertEquals(2, result.count());
     }
 
+    @ParameterizedTest
+    @MethodSource(JDBCTestDatabase.JDBC_REPOSITORY_CONFIG)
+    void testReuseQueryShape(Properties properties)
+    {
+        //Arrange
+        jdbcConnection = JDBCTestDatabase.setupDatabase(properties);
+
+        var selectByKey = jdbcConnection.query(JDBCTestDatabase.JDBCTestSchema.class)
+                .select(JDBCTestDatabase.JDBCTestSchema.REPOSITORY_KEY)
+                .from(JDBCTestDatabase.class)
+                .where(JDBCTestDatabase.JDBCTestSchema.REPOSITORY_KEY).isEqual(PRIMARY_KEY_WITH_NONNULL_VALUES)
+                .getStatement();
+
+        //Act - Execute the same SQL with different arguments and nested within its own execution
+        var existingKey = jdbcConnection.query(selectByKey, List.of(PRIMARY_KEY_WITH_NONNULL_VALUES)).asInt().toList();
+        var missingKey = jdbcConnection.query(selectByKey, List.of(PRIMARY_KEY_VALUES_NOT_PRESENT)).asInt().toList();
+        var nestedResult = new ArrayList<Integer>();
+        jdbcConnection.query(selectByKey, List.of(PRIMARY_KEY_WITH_NONNULL_VALUES))
+                .processWith(resultSet -> nestedResult.addAll(
+                        jdbcConnection.query(selectByKey, List.of(resultSet.getInt(1))).asInt().toList()));
+
+        //Assert
+        assertEquals(List.of(PRIMARY_KEY_WITH_NONNULL_VALUES), existingKey);
+        assertTrue(missingKey.isEmpty());
+        assertEquals(List.of(PRIMARY_KEY_WITH_NONNULL_VALUES), nestedResult);
+    }
+
     @ParameterizedTest
     @MethodSource(JDBCTestDatabase.JDBC_REPOSITORY_CONFIG)
     void testSelectAND(Properties properties)